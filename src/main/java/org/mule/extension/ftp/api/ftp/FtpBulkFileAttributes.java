@@ -0,0 +1,53 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.extension.ftp.api.ftp;
+
+import static java.util.Collections.unmodifiableList;
+import static java.util.Collections.unmodifiableMap;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The attributes of several files of a FTP server, obtained at once
+ *
+ * @since 3.0
+ */
+public class FtpBulkFileAttributes implements Serializable {
+
+  private static final long serialVersionUID = 2409612867431575093L;
+
+  private final Map<String, FtpFileAttributes> attributes;
+
+  private final List<String> missingPaths;
+
+  /**
+   * Creates a new instance
+   *
+   * @param attributes   the {@link FtpFileAttributes} of the paths which exist, by the path as it was requested
+   * @param missingPaths the requested paths which don't exist
+   */
+  public FtpBulkFileAttributes(Map<String, FtpFileAttributes> attributes, List<String> missingPaths) {
+    this.attributes = unmodifiableMap(attributes);
+    this.missingPaths = unmodifiableList(missingPaths);
+  }
+
+  /**
+   * @return the {@link FtpFileAttributes} of the paths which exist, by the path as it was requested
+   */
+  public Map<String, FtpFileAttributes> getAttributes() {
+    return attributes;
+  }
+
+  /**
+   * @return the requested paths which don't exist
+   */
+  public List<String> getMissingPaths() {
+    return missingPaths;
+  }
+}
@@ -50,6 +50,14 @@ public class FtpFileAttributes implements Serializable {
   @Parameter
   private final String name;
 
+  @Parameter
+  @Optional
+  private Long rangeOffset;
+
+  @Parameter
+  @Optional
+  private Long rangeLength;
+
   /**
    * Creates a new instance of FtpFileAttributes with the specified URI and FTPFile.
    *
@@ -82,6 +90,31 @@ public class FtpFileAttributes implements Serializable {
     symbolicLink = false;
   }
 
+  private FtpFileAttributes(FtpFileAttributes attributes) {
+    this.path = attributes.path;
+    this.name = attributes.name;
+    timestamp = attributes.timestamp;
+    size = attributes.size;
+    regularFile = attributes.regularFile;
+    directory = attributes.directory;
+    symbolicLink = attributes.symbolicLink;
+  }
+
+  /**
+   * Creates a copy of these attributes describing a range of the content of the file.
+   *
+   * @param offset the position of the first byte of the range
+   * @param length the number of bytes of the range
+   * @return a new {@link FtpFileAttributes}
+   * @since 3.0
+   */
+  public FtpFileAttributes withRange(long offset, long length) {
+    FtpFileAttributes attributes = new FtpFileAttributes(this);
+    attributes.rangeOffset = offset;
+    attributes.rangeLength = length;
+    return attributes;
+  }
+
   /**
    * Creates a default URI.
    *
@@ -226,6 +259,26 @@ public class FtpFileAttributes implements Serializable {
     return name;
   }
 
+  /**
+   * Returns the position of the first byte of the content which was read, if only a range of it was.
+   *
+   * @return the offset of the range, or {@code null} if the whole content was read
+   * @since 3.0
+   */
+  public Long getRangeOffset() {
+    return rangeOffset;
+  }
+
+  /**
+   * Returns the number of bytes of the content which were read, if only a range of it was.
+   *
+   * @return the length of the range, or {@code null} if the whole content was read
+   * @since 3.0
+   */
+  public Long getRangeLength() {
+    return rangeLength;
+  }
+
   /**
    * Converts an {@link Instant} to a {@link LocalDateTime}.
    *
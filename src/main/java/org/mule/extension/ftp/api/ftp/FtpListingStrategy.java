@@ -0,0 +1,31 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.extension.ftp.api.ftp;
+
+/**
+ * Lists the supported ways of walking through the directories of a listing.
+ *
+ * @since 3.0
+ */
+public enum FtpListingStrategy {
+  /**
+   * Lists directories by their absolute path if the server supports the {@code MLSD} command, falling back to
+   * {@link #WORKING_DIRECTORY} if the server rejects a path argument.
+   */
+  AUTO,
+
+  /**
+   * Lists each directory by passing its absolute path to the {@code MLSD} or {@code LIST} command, without changing the working
+   * directory. Directories for which the server rejects the path argument are listed as in {@link #WORKING_DIRECTORY}.
+   */
+  ABSOLUTE_PATH,
+
+  /**
+   * Changes the working directory into each directory before listing it.
+   */
+  WORKING_DIRECTORY
+}
@@ -0,0 +1,27 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.extension.ftp.api.ftp;
+
+/**
+ * Lists the supported ways of obtaining the attributes of a single file on servers which don't support the {@code MLST}
+ * command.
+ *
+ * @since 3.0
+ */
+public enum FtpMetadataStrategy {
+  /**
+   * Asks for the size and modification time of the file with the {@code SIZE} and {@code MDTM} commands if the server supports
+   * both, which answer on the control connection. Falls back to {@link #LISTING} when the server can't tell the size of the
+   * path, as happens with directories.
+   */
+  AUTO,
+
+  /**
+   * Lists the file, or its parent directory, over a data connection.
+   */
+  LISTING
+}
@@ -0,0 +1,31 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.extension.ftp.api.ftp;
+
+/**
+ * Lists the supported ways of validating a pooled connection before it is used.
+ *
+ * @since 3.0
+ */
+public enum FtpValidationStrategy {
+  /**
+   * Changes the working directory to the configured working directory, which also checks that it still exists.
+   */
+  WORKING_DIRECTORY,
+
+  /**
+   * Sends a {@code NOOP} command, which only checks that the server still answers. The working directory is changed by the first
+   * command which needs it.
+   */
+  NOOP,
+
+  /**
+   * Considers the connection valid if the server answered it successfully within the configured idle time, sending a
+   * {@code NOOP} command as in {@link #NOOP} otherwise.
+   */
+  RECENT_REPLY
+}
@@ -0,0 +1,26 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.extension.ftp.api.matchers;
+
+import java.util.function.Predicate;
+
+/**
+ * A {@link Predicate} over the files of a directory tree which is also able to tell whether a directory can have any
+ * descendant that it accepts, so that recursive listings can skip the subtrees that can never produce a match.
+ *
+ * @param <T> the type of the tested files
+ * @since 3.0
+ */
+public interface DescendantAwarePredicate<T> extends Predicate<T> {
+
+  /**
+   * @param directoryPath the absolute path of a directory
+   * @return {@code false} if no file contained in the given directory, or in any of its sub-directories, can be accepted by
+   *         {@code this} predicate. {@code true} if it cannot be ruled out.
+   */
+  boolean mayAcceptDescendantsOf(String directoryPath);
+}
@@ -48,6 +48,9 @@ public abstract class FileMatcher<T extends FileMatcher, A extends FtpFileAttrib
   protected static final TimeSinceFunction FILE_TIME_SINCE = new TimeSinceFunction();
   protected static final TimeUntilFunction FILE_TIME_UNTIL = new TimeUntilFunction();
   public static final boolean DEFAULT_CASE_SENSITIVE = true;
+  private static final String GLOB_PREFIX = "glob:";
+  private static final String REGEX_PREFIX = "regex:";
+  private static final String NOT_SIMPLE_GLOB_CHARACTERS = "[]{}\\/,";
   /**
    * A matching pattern to be applied on the file name. This pattern needs to be consistent with the rules of
    * {@link PathMatcherPredicate}
@@ -115,6 +118,10 @@ public abstract class FileMatcher<T extends FileMatcher, A extends FtpFileAttrib
 
   /**
    * Builds a {@link Predicate} from the criterias in {@code this} builder's state.
+   * <p>
+   * If the {@link #pathPattern} is an absolute glob, the returned {@link Predicate} is a {@link DescendantAwarePredicate} which
+   * tells which directories can never contain a matching path. If the {@link #filenamePattern} is a simple glob, it is a
+   * {@link FilenameGlobPredicate} which exposes it.
    *
    * @return a {@link Predicate}
    */
@@ -152,7 +159,36 @@ public abstract class FileMatcher<T extends FileMatcher, A extends FtpFileAttrib
       predicate = predicate.and(attributes -> attributes.getSize() <= maxSize);
     }
 
-    return addConditions(predicate);
+    Predicate<A> conditions = addConditions(predicate);
+    PathPatternSegments pathPatternSegments =
+        pathPattern != null ? PathPatternSegments.compile(pathPattern, caseSensitive) : null;
+    String filenameGlob = getSimpleFilenameGlob();
+    if (pathPatternSegments == null && filenameGlob == null) {
+      return conditions;
+    }
+
+    return new FileMatcherPredicate<>(conditions, pathPatternSegments, filenameGlob);
+  }
+
+  /**
+   * @return the {@link #filenamePattern} if it is a case sensitive glob only made of literal characters and the {@code *} and
+   *         {@code ?} wildcards, {@code null} otherwise
+   */
+  private String getSimpleFilenameGlob() {
+    if (filenamePattern == null || !caseSensitive || filenamePattern.startsWith(REGEX_PREFIX)) {
+      return null;
+    }
+
+    String glob = filenamePattern.startsWith(GLOB_PREFIX) ? filenamePattern.substring(GLOB_PREFIX.length()) : filenamePattern;
+    if (glob.isEmpty() || glob.startsWith("-")) {
+      return null;
+    }
+    for (char c : glob.toCharArray()) {
+      if (NOT_SIMPLE_GLOB_CHARACTERS.indexOf(c) != -1 || Character.isWhitespace(c)) {
+        return null;
+      }
+    }
+    return glob;
   }
 
   /**
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.extension.ftp.api.matchers;
+
+import static java.util.Optional.ofNullable;
+
+import java.util.Optional;
+import java.util.function.Predicate;
+
+/**
+ * The {@link Predicate} built by a {@link FileMatcher} when some of its criterias can be used to avoid listing entries which
+ * would be rejected anyway.
+ *
+ * @param <A> the type of the tested files
+ * @since 3.0
+ */
+final class FileMatcherPredicate<A> implements DescendantAwarePredicate<A>, FilenameGlobPredicate<A> {
+
+  private final Predicate<A> delegate;
+  private final PathPatternSegments pathPatternSegments;
+  private final String filenameGlob;
+
+  /**
+   * @param delegate            the {@link Predicate} with all the criterias of the {@link FileMatcher}
+   * @param pathPatternSegments the segments of the path pattern, or {@code null} if it cannot rule out directories
+   * @param filenameGlob        a simple glob that every accepted name matches, or {@code null} if there is none
+   */
+  FileMatcherPredicate(Predicate<A> delegate, PathPatternSegments pathPatternSegments, String filenameGlob) {
+    this.delegate = delegate;
+    this.pathPatternSegments = pathPatternSegments;
+    this.filenameGlob = filenameGlob;
+  }
+
+  @Override
+  public boolean test(A attributes) {
+    return delegate.test(attributes);
+  }
+
+  @Override
+  public boolean mayAcceptDescendantsOf(String directoryPath) {
+    return pathPatternSegments == null || pathPatternSegments.mayMatchDescendantsOf(directoryPath);
+  }
+
+  @Override
+  public Optional<String> getFilenameGlob() {
+    return ofNullable(filenameGlob);
+  }
+}
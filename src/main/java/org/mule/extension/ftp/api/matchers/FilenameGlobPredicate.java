@@ -0,0 +1,26 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.extension.ftp.api.matchers;
+
+import java.util.Optional;
+import java.util.function.Predicate;
+
+/**
+ * A {@link Predicate} over files which only accepts those whose name matches a simple glob, so that the glob can be handed to
+ * the server to filter the listing before it is transferred.
+ *
+ * @param <T> the type of the tested files
+ * @since 3.0
+ */
+public interface FilenameGlobPredicate<T> extends Predicate<T> {
+
+  /**
+   * @return a case sensitive glob, made only of literal characters and the {@code *} and {@code ?} wildcards, which the name of
+   *         every file accepted by {@code this} predicate matches, if there is one
+   */
+  Optional<String> getFilenameGlob();
+}
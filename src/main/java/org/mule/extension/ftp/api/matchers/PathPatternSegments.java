@@ -0,0 +1,139 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.extension.ftp.api.matchers;
+
+import static java.util.regex.Pattern.CASE_INSENSITIVE;
+
+import org.mule.extension.ftp.api.UriUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * The segments of an absolute glob path pattern, used to tell whether the descendants of a directory can match the pattern.
+ * <p>
+ * Each segment of the pattern is matched against the segment of the directory path at the same depth, so a directory can only
+ * have matching descendants if all its segments match and the pattern is deeper than the directory. A segment which contains
+ * {@code **} can cross directory boundaries, so nothing can be ruled out below it.
+ *
+ * @since 3.0
+ */
+final class PathPatternSegments {
+
+  private static final String GLOB_PREFIX = "glob:";
+  private static final String REGEX_PREFIX = "regex:";
+  private static final String SEPARATOR = "/";
+  private static final String ANY_DEPTH = "**";
+
+  private final List<Pattern> segments;
+
+  private PathPatternSegments(List<Pattern> segments) {
+    this.segments = segments;
+  }
+
+  /**
+   * @param pathPattern   a path pattern as accepted by {@link PathMatcherPredicate}
+   * @param caseSensitive whether the pattern is case sensitive
+   * @return the segments of the given pattern, or {@code null} if the pattern is not an absolute glob that can be split in
+   *         segments
+   */
+  static PathPatternSegments compile(String pathPattern, boolean caseSensitive) {
+    if (pathPattern.startsWith(REGEX_PREFIX)) {
+      return null;
+    }
+
+    String glob = pathPattern.startsWith(GLOB_PREFIX) ? pathPattern.substring(GLOB_PREFIX.length()) : pathPattern;
+    if (!glob.startsWith(SEPARATOR)) {
+      return null;
+    }
+
+    List<String> globSegments = split(glob);
+    if (globSegments == null) {
+      return null;
+    }
+
+    List<Pattern> segments = new ArrayList<>(globSegments.size());
+    try {
+      for (String segment : globSegments) {
+        segments.add(segment.contains(ANY_DEPTH) ? null
+            : Pattern.compile(UriUtils.toRegexPattern(segment), caseSensitive ? 0 : CASE_INSENSITIVE));
+      }
+    } catch (PatternSyntaxException e) {
+      return null;
+    }
+    return new PathPatternSegments(segments);
+  }
+
+  /**
+   * @param directoryPath the absolute path of a directory
+   * @return whether any descendant of the given directory could match the pattern
+   */
+  boolean mayMatchDescendantsOf(String directoryPath) {
+    int depth = 0;
+    for (String name : directoryPath.split(SEPARATOR)) {
+      if (name.isEmpty()) {
+        continue;
+      }
+      if (depth >= segments.size()) {
+        return false;
+      }
+      Pattern segment = segments.get(depth++);
+      if (segment == null) {
+        return true;
+      }
+      if (!segment.matcher(name).matches()) {
+        return false;
+      }
+    }
+    return depth < segments.size();
+  }
+
+  /**
+   * Splits the given glob on the separators which are not escaped nor part of a character class.
+   *
+   * @return the non empty segments, or {@code null} if a group contains a separator
+   */
+  private static List<String> split(String glob) {
+    List<String> segments = new ArrayList<>();
+    StringBuilder segment = new StringBuilder();
+    boolean inClass = false;
+    boolean inGroup = false;
+    for (int i = 0; i < glob.length(); i++) {
+      char c = glob.charAt(i);
+      if (c == '\\' && i + 1 < glob.length()) {
+        segment.append(c).append(glob.charAt(++i));
+        continue;
+      }
+      if (c == '/' && !inClass) {
+        if (inGroup) {
+          return null;
+        }
+        if (segment.length() > 0) {
+          segments.add(segment.toString());
+          segment.setLength(0);
+        }
+        continue;
+      }
+      if (c == '[') {
+        inClass = true;
+      } else if (c == ']') {
+        inClass = false;
+      } else if (c == '{' && !inClass) {
+        inGroup = true;
+      } else if (c == '}' && !inClass) {
+        inGroup = false;
+      }
+      segment.append(c);
+    }
+    if (segment.length() > 0) {
+      segments.add(segment.toString());
+    }
+    return segments;
+  }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.extension.ftp.api.subset;
+
+import static java.util.Comparator.comparing;
+import static java.util.Comparator.naturalOrder;
+import static java.util.Comparator.nullsLast;
+import static java.util.Comparator.reverseOrder;
+import static org.mule.extension.ftp.api.subset.SortOrder.DESCENDING;
+
+import org.mule.extension.ftp.api.ftp.FtpFileAttributes;
+
+import java.util.Comparator;
+import java.util.function.Function;
+
+/**
+ * Criteria available to sort the files obtained by a list operation
+ *
+ * @since 3.0
+ */
+public enum ListComparator {
+
+  /**
+   * Sorts the files by their name
+   */
+  ALPHABETICALLY(FtpFileAttributes::getName),
+
+  /**
+   * Sorts the files by the last time they were modified. Files which don't report such information are placed last.
+   */
+  DATE_MODIFIED(FtpFileAttributes::getTimestamp),
+
+  /**
+   * Sorts the files by their size
+   */
+  SIZE(FtpFileAttributes::getSize),
+
+  /**
+   * Sorts the files by their full path
+   */
+  PATH(FtpFileAttributes::getPath);
+
+  private final Comparator<FtpFileAttributes> ascending;
+  private final Comparator<FtpFileAttributes> descending;
+
+  <T extends Comparable<? super T>> ListComparator(Function<FtpFileAttributes, T> key) {
+    this.ascending = comparing(key, nullsLast(naturalOrder()));
+    this.descending = comparing(key, nullsLast(reverseOrder()));
+  }
+
+  /**
+   * @return a {@link Comparator} which sorts {@link FtpFileAttributes} in ascending order according to {@code this} criteria
+   */
+  public Comparator<FtpFileAttributes> getComparator() {
+    return ascending;
+  }
+
+  /**
+   * Files which don't report the sorted information are placed last in either order.
+   *
+   * @param order the {@link SortOrder} in which to sort
+   * @return a {@link Comparator} which sorts {@link FtpFileAttributes} in the given {@code order} according to {@code this}
+   *         criteria
+   */
+  public Comparator<FtpFileAttributes> getComparator(SortOrder order) {
+    return order == DESCENDING ? descending : ascending;
+  }
+}
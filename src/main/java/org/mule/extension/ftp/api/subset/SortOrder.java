@@ -0,0 +1,24 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.extension.ftp.api.subset;
+
+/**
+ * The order in which the files obtained by a list operation are sorted
+ *
+ * @since 3.0
+ */
+public enum SortOrder {
+  /**
+   * Smallest values first
+   */
+  ASCENDING,
+
+  /**
+   * Largest values first
+   */
+  DESCENDING
+}
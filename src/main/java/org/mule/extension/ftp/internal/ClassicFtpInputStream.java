@@ -49,13 +49,14 @@ public class ClassicFtpInputStream extends FtpInputStream {
    * @param attributes            a {@link FtpFileAttributes} referencing the file which contents are to be fetched
    * @param lock                  the {@link UriLock} to be used
    * @param timeBetweenSizeCheck  the time to be waited between size checks if configured.
+   * @param config                the {@link FtpConnector} from which connections are borrowed to read large files in segments
    * @return a mew {@link FtpInputStream}
    * @throws ConnectionException
    */
   public static FtpInputStream newInstance(FtpFileSystem fileSystem, FtpFileAttributes attributes, UriLock lock,
-                                           Long timeBetweenSizeCheck)
+                                           Long timeBetweenSizeCheck, FtpConnector config)
       throws ConnectionException {
-    return new ClassicFtpInputStream(new FtpFileInputStreamSupplier(attributes, timeBetweenSizeCheck, fileSystem),
+    return new ClassicFtpInputStream(new FtpFileInputStreamSupplier(attributes, timeBetweenSizeCheck, fileSystem, config),
                                      lock);
   }
 
@@ -66,10 +67,20 @@ public class ClassicFtpInputStream extends FtpInputStream {
 
   /**
    * Invokes {@link FtpFileSystem#awaitCommandCompletion()} to make sure that the operation is completed before closing the
-   * stream
+   * stream, or {@link FtpFileSystem#awaitStoppedTransferCompletion()} if only a range of the file was transferred. Nothing is
+   * awaited if the connection was abandoned because its transfer was interrupted, or if no transfer was started on it.
    */
   @Override
   protected void beforeConnectionRelease() throws IOException {
-    getFtpFileSystem().ifPresent(ftpFileSystem -> ftpFileSystem.awaitCommandCompletion());
+    getFtpFileSystem().ifPresent(ftpFileSystem -> {
+      if (ftpFileInputStreamSupplier.isContentConnectionAbandoned() || !ftpFileInputStreamSupplier.isContentTransferStarted()) {
+        return;
+      }
+      if (ftpFileInputStreamSupplier.isTransferStoppedEarly()) {
+        ftpFileSystem.awaitStoppedTransferCompletion();
+      } else {
+        ftpFileSystem.awaitCommandCompletion();
+      }
+    });
   }
 }
@@ -18,6 +18,10 @@ import org.mule.extension.ftp.internal.config.FileConnectorConfig;
 import org.mule.extension.ftp.internal.connection.FtpConnectionProvider;
 import org.mule.extension.ftp.api.FileError;
 import org.mule.extension.ftp.internal.source.FtpDirectoryListener;
+import org.mule.runtime.api.lifecycle.Startable;
+import org.mule.runtime.api.lifecycle.Stoppable;
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.runtime.api.scheduler.SchedulerService;
 import org.mule.runtime.core.api.connector.ConnectionManager;
 
 import org.mule.runtime.extension.api.annotation.Extension;
@@ -55,7 +59,7 @@ import java.util.concurrent.TimeUnit;
 @Sources(FtpDirectoryListener.class)
 @Xml(prefix = "ftp")
 @SubTypeMapping(baseType = ProxySettings.class, subTypes = {HttpTunnelProxy.class, HttpsTunnelProxy.class})
-public class FtpConnector extends FileConnectorConfig {
+public class FtpConnector extends FileConnectorConfig implements Startable, Stoppable {
 
   /**
    * Wait time between size checks to determine if a file is ready to be read. This allows a file write to complete before
@@ -80,11 +84,152 @@ public class FtpConnector extends FileConnectorConfig {
   @Summary("Time unit to be used in the wait time between size checks")
   private TimeUnit timeBetweenSizeCheckUnit;
 
+  /**
+   * The maximum number of connections used to list the sub-directories of a recursive listing concurrently. Each additional
+   * connection is borrowed from the connection pool for the duration of the listing, so this value should not exceed the pool
+   * size. A value of 1 lists the whole tree sequentially on a single connection.
+   * <p>
+   * Defaults to {@code 1}
+   */
+  @Parameter
+  @Placement(tab = ADVANCED_TAB)
+  @Optional(defaultValue = "1")
+  @Summary("Maximum number of connections used concurrently when listing directories recursively")
+  private int listingParallelism = 1;
+
+  /**
+   * The size in bytes from which the content of a file is downloaded in segments over several connections at once, provided
+   * that the server supports the {@code REST} command. A value of 0 always downloads the content over a single connection.
+   * <p>
+   * Defaults to {@code 0}
+   */
+  @Parameter
+  @Placement(tab = ADVANCED_TAB)
+  @Optional(defaultValue = "0")
+  @Summary("Size in bytes from which files are downloaded in segments over several connections")
+  private long segmentedReadThreshold = 0;
+
+  /**
+   * The number of connections over which the content of a file larger than the {@link #segmentedReadThreshold} is downloaded.
+   * Besides the connection of the read, each of them is borrowed from the connection pool, so this value should not exceed the
+   * pool size.
+   * <p>
+   * Defaults to {@code 4}
+   */
+  @Parameter
+  @Placement(tab = ADVANCED_TAB)
+  @Optional(defaultValue = "4")
+  @Summary("Number of connections over which files larger than the segmented read threshold are downloaded")
+  private int readSegments = 4;
+
+  /**
+   * The size in bytes of each of the segments in which the content of a file larger than the {@link #segmentedReadThreshold}
+   * is downloaded. Each connection downloads one segment at a time, and at most two segments per borrowed connection are
+   * downloaded ahead of the content being consumed.
+   * <p>
+   * Defaults to {@code 1048576}
+   */
+  @Parameter
+  @Placement(tab = ADVANCED_TAB)
+  @Optional(defaultValue = "1048576")
+  @Summary("Size in bytes of each of the segments in which files are downloaded")
+  private int segmentSize = 1048576;
+
+  /**
+   * The maximum number of times the transfer of the content of a file is resumed when it is interrupted. Each attempt borrows a
+   * new connection from the connection pool and, if the size and timestamp of the file did not change, retrieves the content
+   * from the first byte which was not read yet. A value of 0 makes the read fail as soon as the transfer is interrupted.
+   * <p>
+   * Defaults to {@code 0}
+   */
+  @Parameter
+  @Placement(tab = ADVANCED_TAB)
+  @Optional(defaultValue = "0")
+  @Summary("Maximum number of times an interrupted file transfer is resumed")
+  private int readResumeAttempts = 0;
+
+  /**
+   * The number of buffers in which the content of a file is read ahead in the background while the flow processes the content
+   * which was already read, so that the transfer goes on while the content is processed. Once all the buffers are full, reading
+   * ahead waits for the flow to consume them. A value of 0 reads the content only as the flow consumes it.
+   * <p>
+   * Defaults to {@code 0}
+   */
+  @Parameter
+  @Placement(tab = ADVANCED_TAB)
+  @Optional(defaultValue = "0")
+  @Summary("Number of buffers in which the content of a file is read ahead while it is processed")
+  private int readAheadBuffers = 0;
+
+  /**
+   * The size in bytes of each of the {@link #readAheadBuffers}.
+   * <p>
+   * Defaults to {@code 65536}
+   */
+  @Parameter
+  @Placement(tab = ADVANCED_TAB)
+  @Optional(defaultValue = "65536")
+  @Summary("Size in bytes of each buffer in which the content of a file is read ahead")
+  private int readAheadBufferSize = 65536;
+
   @Inject
   private ConnectionManager connectionManager;
 
+  @Inject
+  private SchedulerService schedulerService;
+
+  private Scheduler scheduler;
+
+  @Override
+  public void start() {
+    scheduler = schedulerService.ioScheduler();
+  }
+
+  @Override
+  public void stop() {
+    if (scheduler != null) {
+      scheduler.stop();
+      scheduler = null;
+    }
+  }
 
   public ConnectionManager getConnectionManager() {
     return connectionManager;
   }
+
+  /**
+   * @return the {@link Scheduler} in which the background work of this config is performed, or {@code null} if this config
+   *         is not started
+   */
+  public Scheduler getScheduler() {
+    return scheduler;
+  }
+
+  public int getListingParallelism() {
+    return listingParallelism;
+  }
+
+  public long getSegmentedReadThreshold() {
+    return segmentedReadThreshold;
+  }
+
+  public int getReadSegments() {
+    return readSegments;
+  }
+
+  public int getSegmentSize() {
+    return segmentSize;
+  }
+
+  public int getReadResumeAttempts() {
+    return readResumeAttempts;
+  }
+
+  public int getReadAheadBuffers() {
+    return readAheadBuffers;
+  }
+
+  public int getReadAheadBufferSize() {
+    return readAheadBufferSize;
+  }
 }
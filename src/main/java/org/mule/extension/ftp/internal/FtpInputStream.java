@@ -7,9 +7,12 @@
 package org.mule.extension.ftp.internal;
 
 import static java.lang.String.format;
-import static java.lang.Thread.sleep;
+import static java.lang.Thread.currentThread;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.Optional.empty;
 import static java.util.Optional.of;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static org.mule.extension.ftp.api.ftp.FtpTransferMode.BINARY;
 import static org.mule.runtime.api.i18n.I18nMessageFactory.createStaticMessage;
 import org.slf4j.Logger;
 import static org.slf4j.LoggerFactory.getLogger;
@@ -26,17 +29,24 @@ import org.mule.extension.ftp.internal.lock.UriLock;
 import org.mule.extension.ftp.internal.stream.AbstractNonFinalizableFileInputStream;
 import org.mule.extension.ftp.internal.stream.ExceptionInputStream;
 import org.mule.extension.ftp.internal.stream.LazyStreamSupplier;
+import org.mule.extension.ftp.internal.stream.ReadAheadInputStream;
 import org.mule.runtime.api.connection.ConnectionException;
+import org.mule.runtime.api.connection.ConnectionHandler;
 import org.mule.runtime.api.exception.MuleRuntimeException;
+import org.mule.runtime.api.scheduler.Scheduler;
 import org.mule.runtime.core.api.connector.ConnectionManager;
 
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.Optional;
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.function.Supplier;
 
+import org.apache.commons.io.input.BoundedInputStream;
+
 /**
  * An {@link AbstractNonFinalizableFileInputStream} implementation which obtains a {@link FtpFileSystem} through a
  * {@link ConnectionManager} and uses it to obtain the contents of a file on a FTP server.
@@ -58,6 +68,19 @@ public abstract class FtpInputStream extends AbstractNonFinalizableFileInputStre
     this.ftpFileInputStreamSupplier = ftpFileInputStreamSupplier;
   }
 
+  /**
+   * Starts checking that the size of the file is stable, unless it was already started, and returns a
+   * {@link CompletableFuture} which completes once the size was found to be stable, with the updated attributes of the file
+   * or {@code null} if it doesn't exist anymore. It completes exceptionally if the file is still being written or its size
+   * could not be checked. Consumers should chain on it before reading the content, since reading it before the future
+   * completes waits for the check.
+   *
+   * @return a {@link CompletableFuture} with the stable attributes of the file, already completed if no size check is done
+   */
+  public CompletableFuture<FtpFileAttributes> whenSizeIsStable() {
+    return ftpFileInputStreamSupplier.whenSizeIsStable();
+  }
+
   @Override
   protected void doClose() throws IOException {
     try {
@@ -105,14 +128,14 @@ public abstract class FtpInputStream extends AbstractNonFinalizableFileInputStre
     private static final String FILE_NO_LONGER_EXISTS_MESSAGE =
         "Error reading file from path %s. It no longer exists at the time of reading.";
     private static final int MAX_SIZE_CHECK_RETRIES = 2;
-    private static final AtomicBoolean alreadyLoggedWarning = new AtomicBoolean();
-    private static final String WAIT_WARNING_MESSAGE =
-        "With the purpouse of performing a size check on the file %s, this thread will sleep. The connector has no control of" +
-            " which type of thread the sleep will take place on, this can lead to running out of thread if the time for " +
-            "'timeBetweenSizeCheck' is big or a lot of files are being read concurrently. This warning will only be shown once.";
     private ConnectionSource<FtpFileSystem> connectionSource;
+    private FtpConnector config;
+    private ResumableContentInputStream resumableContent;
+    private SegmentedContentInputStream segmentedContent;
+    private CompletableFuture<FtpFileAttributes> stableAttributes;
     private boolean contentProvided = false;
     private boolean contentConnectionReleased = false;
+    private volatile boolean contentTransferAborted = false;
 
     protected FtpFileAttributes attributes;
     private Long timeBetweenSizeCheck;
@@ -122,32 +145,107 @@ public abstract class FtpInputStream extends AbstractNonFinalizableFileInputStre
       this.attributes = attributes;
       this.timeBetweenSizeCheck = timeBetweenSizeCheck;
       this.connectionSource = new ManagerBasedConnectionSource<>(config, connectionManager);
+      this.config = config;
     }
 
-    FtpFileInputStreamSupplier(FtpFileAttributes attributes, Long timeBetweenSizeCheck, FtpFileSystem fileSystem) {
+    FtpFileInputStreamSupplier(FtpFileAttributes attributes, Long timeBetweenSizeCheck, FtpFileSystem fileSystem,
+                               FtpConnector config) {
       this.attributes = attributes;
       this.timeBetweenSizeCheck = timeBetweenSizeCheck;
       this.connectionSource = new StaticConnectionSource<>(fileSystem);
+      this.config = config;
     }
 
     /**
-     * Gets the updated attributes of the file.
+     * Gets the updated attributes of the file. Only its size is guaranteed to be up to date, see
+     * {@link FtpFileSystem#getUpdatedFileAttributes(FtpFileAttributes)}.
      *
      * @param fileSystem the {@link FileSystem} to be used to gather the updated attributes
      * @return the updated attributes according to the path of the variable attributes passed in the constructor
      */
     private FtpFileAttributes getUpdatedAttributes(FtpFileSystem fileSystem) {
-      return fileSystem.getFileAttributes(attributes.getPath());
+      return fileSystem.getUpdatedFileAttributes(attributes);
     }
 
     /**
-     * Gets the {@link InputStream} of the file described by the attributes passed to the constructor
+     * Gets the {@link InputStream} of the file described by the attributes passed to the constructor. If the attributes describe
+     * a range, only that range is retrieved. Otherwise, large files are downloaded in segments over several connections, see
+     * {@link SegmentedContentInputStream}. Content retrieved over a single connection is read ahead in the background if
+     * configured, see {@link ReadAheadInputStream}.
      *
      * @param fileSystem the {@link FileSystem} to be used to get the content of the file
      * @return the {@link InputStream} of the file
      */
     private InputStream getContentInputStream(FtpFileSystem fileSystem) {
-      return fileSystem.retrieveFileContent(attributes);
+      if (attributes.getRangeOffset() == null) {
+        Supplier<InputStream> singleTransfer = () -> readAhead(fileSystem, retrieveFileContent(fileSystem, 0));
+        InputStream content = SegmentedContentInputStream.retrieveFileContent(config, fileSystem, attributes, singleTransfer);
+        if (content instanceof SegmentedContentInputStream) {
+          segmentedContent = (SegmentedContentInputStream) content;
+        }
+        return content;
+      }
+      return readAhead(fileSystem, new BoundedInputStream(retrieveFileContent(fileSystem, attributes.getRangeOffset()),
+                                                          attributes.getRangeLength()));
+    }
+
+    private InputStream readAhead(FtpFileSystem fileSystem, InputStream content) {
+      if (config == null || config.getReadAheadBuffers() <= 0 || config.getScheduler() == null) {
+        return content;
+      }
+      try {
+        return new ReadAheadInputStream(content, config.getScheduler(), config.getReadAheadBuffers(),
+                                        config.getReadAheadBufferSize(), () -> abortContentTransfer(fileSystem));
+      } catch (RejectedExecutionException e) {
+        LOGGER.debug("Could not schedule reading ahead the content of file {}, reading it as it is consumed",
+                     attributes.getPath(), e);
+        return content;
+      }
+    }
+
+    private InputStream retrieveFileContent(FtpFileSystem fileSystem, long offset) {
+      if (config == null || config.getReadResumeAttempts() <= 0 || fileSystem.getTransferMode() != BINARY) {
+        return fileSystem.retrieveFileContent(attributes, offset);
+      }
+      resumableContent = new ResumableContentInputStream(config, fileSystem, attributes, offset);
+      return resumableContent;
+    }
+
+    /**
+     * Aborts the transfer of the content by disconnecting its connection, which is then invalidated instead of released. Used
+     * when the content is still being read ahead after the stream was closed, see {@link ReadAheadInputStream}.
+     *
+     * @param fileSystem the {@link FtpFileSystem} used to get the content of the file
+     */
+    private void abortContentTransfer(FtpFileSystem fileSystem) {
+      if (!isContentConnectionAbandoned()) {
+        contentTransferAborted = true;
+        fileSystem.disconnect();
+      }
+    }
+
+    /**
+     * @return whether the connection used for the content was abandoned, either because its transfer was interrupted, see
+     *         {@link ResumableContentInputStream}, or because it was aborted, in which case no command is pending on it anymore
+     */
+    boolean isContentConnectionAbandoned() {
+      return contentTransferAborted || (resumableContent != null && resumableContent.isOriginalConnectionAbandoned());
+    }
+
+    /**
+     * @return whether a transfer was started through the connection used for the content. A segmented read only starts it
+     *         once all the segments were consumed, see {@link SegmentedContentInputStream}
+     */
+    boolean isContentTransferStarted() {
+      return segmentedContent == null || segmentedContent.isTailRetrieved();
+    }
+
+    /**
+     * @return whether the transfer of the content is stopped before the end of the file, because only a range of it is read
+     */
+    boolean isTransferStoppedEarly() {
+      return attributes.getRangeOffset() != null
+          && attributes.getRangeOffset() + attributes.getRangeLength() < attributes.getSize();
     }
 
     /**
@@ -203,11 +301,17 @@ public abstract class FtpInputStream extends AbstractNonFinalizableFileInputStre
     }
 
     /**
-     * If the content of the file was retrieved, this method will release the connection used to get that content.
+     * If the content of the file was retrieved, this method will release the connection used to get that content, or
+     * invalidate it if it was abandoned.
      */
     public void releaseConnectionUsedForContentInputStream() {
+      cancelSizeCheck();
       if (contentProvided && !contentConnectionReleased) {
-        releaseConnection();
+        if (isContentConnectionAbandoned()) {
+          connectionSource.invalidateConnection();
+        } else {
+          releaseConnection();
+        }
         contentConnectionReleased = true;
       }
     }
@@ -227,11 +331,129 @@ public abstract class FtpInputStream extends AbstractNonFinalizableFileInputStre
       return contentProvided && !contentConnectionReleased ? of(connectionSource.getConnection()) : empty();
     }
 
+    /**
+     * Starts checking that the size of the file is stable, if configured and not started yet. The checks are scheduled on the
+     * {@link FtpConnector#getScheduler()}, so that no thread sleeps between them, and each of them borrows a connection of
+     * its own from the {@link FtpConnector#getConnectionManager()}, since the connection of the content is not to be used from
+     * another thread. If there is no scheduler, the size is checked right away against the one which was listed.
+     *
+     * @return the {@link CompletableFuture} of the check
+     */
+    synchronized CompletableFuture<FtpFileAttributes> whenSizeIsStable() {
+      if (stableAttributes != null) {
+        return stableAttributes;
+      }
+      if (!isSizeCheckEnabled()) {
+        stableAttributes = completedFuture(attributes);
+        return stableAttributes;
+      }
+
+      stableAttributes = new CompletableFuture<>();
+      Scheduler scheduler = config != null ? config.getScheduler() : null;
+      if (scheduler == null || config.getConnectionManager() == null) {
+        checkSizeNow();
+        return stableAttributes;
+      }
+      try {
+        scheduleSizeCheck(scheduler, attributes, 0);
+      } catch (RejectedExecutionException e) {
+        LOGGER.debug("Could not schedule the size check of file {}, checking it right away", attributes.getPath(), e);
+        checkSizeNow();
+      }
+      return stableAttributes;
+    }
+
+    private void checkSizeNow() {
+      try {
+        completeSizeCheck(getUpdatedAttributes(), attributes, MAX_SIZE_CHECK_RETRIES, null);
+      } catch (RuntimeException e) {
+        stableAttributes.completeExceptionally(e);
+      }
+    }
+
+    private boolean isSizeCheckEnabled() {
+      return timeBetweenSizeCheck != null && timeBetweenSizeCheck > 0;
+    }
+
+    private void scheduleSizeCheck(Scheduler scheduler, FtpFileAttributes previousAttributes, int retries) {
+      if (LOGGER.isDebugEnabled()) {
+        LOGGER.debug(format(STARTING_WAIT_MESSAGE, attributes.getPath()));
+      }
+      scheduler.schedule(() -> checkSize(scheduler, previousAttributes, retries), timeBetweenSizeCheck, MILLISECONDS);
+    }
+
+    private void checkSize(Scheduler scheduler, FtpFileAttributes previousAttributes, int retries) {
+      if (stableAttributes.isDone()) {
+        return;
+      }
+      try {
+        completeSizeCheck(getUpdatedAttributesOnBorrowedConnection(), previousAttributes, retries, scheduler);
+      } catch (RuntimeException e) {
+        stableAttributes.completeExceptionally(e);
+      }
+    }
+
+    private void completeSizeCheck(FtpFileAttributes updatedAttributes, FtpFileAttributes previousAttributes, int retries,
+                                   Scheduler scheduler) {
+      if (updatedAttributes == null || updatedAttributes.getSize() == previousAttributes.getSize()) {
+        stableAttributes.complete(updatedAttributes);
+      } else if (retries >= MAX_SIZE_CHECK_RETRIES) {
+        stableAttributes.completeExceptionally(new FileBeingModifiedException(createStaticMessage("File on path "
+            + attributes.getPath() + " is still being written.")));
+      } else {
+        scheduleSizeCheck(scheduler, updatedAttributes, retries + 1);
+      }
+    }
+
+    private FtpFileAttributes getUpdatedAttributesOnBorrowedConnection() {
+      ConnectionHandler<FtpFileSystem> connectionHandler;
+      try {
+        connectionHandler = config.getConnectionManager().getConnection(config);
+      } catch (ConnectionException e) {
+        throw new MuleRuntimeException(createStaticMessage("Could not obtain connection to check the size of file "
+            + attributes.getPath()), e);
+      }
+      try {
+        FtpFileAttributes updatedFileAttributes = getUpdatedAttributes(connectionHandler.getConnection());
+        if (updatedFileAttributes == null) {
+          LOGGER.error(String.format(FILE_NO_LONGER_EXISTS_MESSAGE, attributes.getPath()));
+        }
+        return updatedFileAttributes;
+      } catch (ConnectionException e) {
+        throw new MuleRuntimeException(createStaticMessage("Could not obtain connection to check the size of file "
+            + attributes.getPath()), e);
+      } finally {
+        connectionHandler.release();
+      }
+    }
+
+    private synchronized void cancelSizeCheck() {
+      if (stableAttributes != null) {
+        stableAttributes.cancel(false);
+      }
+    }
+
+    private FtpFileAttributes awaitStableAttributes() {
+      try {
+        return whenSizeIsStable().get();
+      } catch (InterruptedException e) {
+        currentThread().interrupt();
+        throw new MuleRuntimeException(createStaticMessage("Execution was interrupted while waiting to recheck file sizes"),
+                                       e);
+      } catch (ExecutionException e) {
+        if (e.getCause() instanceof RuntimeException) {
+          throw (RuntimeException) e.getCause();
+        }
+        throw new MuleRuntimeException(createStaticMessage("Could not check the size of file " + attributes.getPath()),
+                                       e.getCause());
+      }
+    }
+
     @Override
     public InputStream get() {
       FtpFileAttributes updatedAttributes = null;
-      if (timeBetweenSizeCheck != null && timeBetweenSizeCheck > 0) {
-        updatedAttributes = getUpdatedStableAttributes();
+      if (isSizeCheckEnabled()) {
+        updatedAttributes = awaitStableAttributes();
         if (updatedAttributes == null) {
           onFileDeleted();
         }
@@ -243,34 +465,6 @@ public abstract class FtpInputStream extends AbstractNonFinalizableFileInputStre
       }
     }
 
-    private FtpFileAttributes getUpdatedStableAttributes() {
-      FtpFileAttributes oldAttributes;
-      FtpFileAttributes updatedAttributes = attributes;
-      int retries = 0;
-      do {
-        oldAttributes = updatedAttributes;
-        try {
-          if (LOGGER.isDebugEnabled()) {
-            LOGGER.debug(format(STARTING_WAIT_MESSAGE, attributes.getPath()));
-          }
-          if (alreadyLoggedWarning.compareAndSet(false, true)) {
-            LOGGER.warn(format(WAIT_WARNING_MESSAGE, attributes.getPath()));
-          }
-          sleep(timeBetweenSizeCheck);
-        } catch (InterruptedException e) {
-          throw new MuleRuntimeException(createStaticMessage("Execution was interrupted while waiting to recheck file sizes"),
-                                         e);
-        }
-        updatedAttributes = getUpdatedAttributes();
-      } while (updatedAttributes != null && updatedAttributes.getSize() != oldAttributes.getSize()
-          && retries++ <= MAX_SIZE_CHECK_RETRIES);
-      if (retries > MAX_SIZE_CHECK_RETRIES) {
-        throw new FileBeingModifiedException(createStaticMessage("File on path " + attributes.getPath()
-            + " is still being written."));
-      }
-      return updatedAttributes;
-    }
-
     private void onFileDeleted() {
       throw new DeletedFileWhileReadException(createStaticMessage("File on path " + attributes.getPath()
           + " was read but does not exist anymore."));
@@ -11,6 +11,7 @@ import static java.nio.file.Paths.get;
 import static org.mule.runtime.api.meta.model.display.PathModel.Location.EXTERNAL;
 import static org.mule.runtime.api.meta.model.display.PathModel.Type.DIRECTORY;
 import static org.mule.runtime.api.meta.model.display.PathModel.Type.FILE;
+import static org.mule.runtime.core.api.util.IOUtils.closeQuietly;
 import static org.mule.runtime.core.api.util.StringUtils.isBlank;
 import static org.mule.runtime.extension.api.annotation.param.MediaType.ANY;
 import static org.mule.runtime.extension.api.annotation.param.display.Placement.ADVANCED_TAB;
@@ -29,8 +30,10 @@ import org.mule.extension.ftp.internal.error.provider.FileWriteErrorTypeProvider
 import org.mule.extension.ftp.internal.exception.IllegalContentException;
 import org.mule.extension.ftp.api.IllegalPathException;
 import org.mule.extension.ftp.api.FtpFileMatcher;
+import org.mule.extension.ftp.api.ftp.FtpBulkFileAttributes;
 import org.mule.extension.ftp.api.ftp.FtpFileAttributes;
 import org.mule.extension.ftp.internal.connection.FtpFileSystem;
+import org.mule.extension.ftp.internal.subset.FtpSubsetList;
 import org.mule.extension.ftp.internal.subset.SubsetList;
 import org.mule.runtime.api.exception.MuleException;
 import org.mule.runtime.api.message.Message;
@@ -41,11 +44,13 @@ import org.mule.runtime.extension.api.annotation.param.Connection;
 import org.mule.runtime.extension.api.annotation.param.Content;
 import org.mule.runtime.extension.api.annotation.param.MediaType;
 import org.mule.runtime.extension.api.annotation.param.Optional;
+import org.mule.runtime.extension.api.annotation.param.ParameterGroup;
 import org.mule.runtime.extension.api.annotation.param.display.DisplayName;
 import org.mule.runtime.extension.api.annotation.param.display.Path;
 import org.mule.runtime.extension.api.annotation.param.display.Placement;
 import org.mule.runtime.extension.api.annotation.param.display.Summary;
 import org.mule.runtime.extension.api.runtime.operation.Result;
+import org.mule.runtime.extension.api.runtime.process.CompletionCallback;
 import org.mule.runtime.extension.api.runtime.streaming.PagingProvider;
 import org.mule.runtime.extension.api.runtime.streaming.StreamingHelper;
 
@@ -77,6 +82,9 @@ public final class FtpOperations {
    * @param directoryPath the path to the directory to be listed
    * @param recursive whether to include the contents of sub-directories. Defaults to false.
    * @param matcher a matcher used to filter the output list
+   * @param streamListing whether to obtain the listing from the server as pages are consumed instead of all at once.
+   *        Defaults to false.
+   * @param subsetList parameters that allow to obtain only a sorted portion of the matching files
    * @return a {@link List} of {@link Message messages} each one containing each file's path in the payload and metadata in the
    *         attributes
    * @throws IllegalArgumentException if {@code directoryPath} points to a file which doesn't exist or is not a directory
@@ -90,9 +98,14 @@ public final class FtpOperations {
                                                                                @Optional(
                                                                                    defaultValue = "false") boolean recursive,
                                                                                @Optional @DisplayName("File Matching Rules") @Summary("Matcher to filter the listed files") FtpFileMatcher matcher,
+                                                                               @Optional(
+                                                                                   defaultValue = "false") @Placement(
+                                                                                       tab = ADVANCED_TAB) @Summary("Whether to obtain the listing from the server as pages are consumed instead of all at once") boolean streamListing,
+                                                                               @ParameterGroup(
+                                                                                   name = "Subset") FtpSubsetList subsetList,
                                                                                StreamingHelper streamingHelper) {
     PagingProvider result =
-        doPagedList(config, directoryPath, recursive, matcher, streamingHelper);
+        doPagedList(config, directoryPath, recursive, matcher, streamListing, streamingHelper, subsetList);
     return result;
   }
 
@@ -109,32 +122,65 @@ public final class FtpOperations {
    * This method also makes a best effort to determine the mime type of the file being read. The file's extension will
    * be used to make an educated guess on the file's mime type. The user also has the chance to force the output encoding and
    * mimeType through the {@code outputEncoding} and {@code outputMimeType} optional parameters.
+   * <p>
+   * If an {@code offset} or a {@code length} is given, only that range of the file is transferred, and the returned
+   * {@link FtpFileAttributes} report the range which was actually served. Ranges can only be read in {@code BINARY} mode.
+   * <p>
+   * If a {@code timeBetweenSizeCheck} is given, the operation completes once the size of the file was found to be stable,
+   * without blocking any thread in the meantime, see {@link FtpInputStream#whenSizeIsStable()}.
    *
    * @param config the config that is parameterizing this operation
    * @param fileSystem a reference to the host {@link FileSystem}
    * @param path the path to the file to be read
    * @param lock whether or not to lock the file. Defaults to false.
-   * @return the file's content and metadata on a {@link FtpFileAttributes} instance
+   * @param offset the position of the first byte to read. Defaults to 0.
+   * @param length the maximum number of bytes to read. If not provided, the file is read up to its end.
+   * @param callback the {@link CompletionCallback} completed with the file's content and metadata on a
+   *                 {@link FtpFileAttributes} instance
    * @throws IllegalArgumentException if the file at the given path doesn't exist
    */
   @Summary("Obtains the content and metadata of a file at a given path")
   @Throws(FileReadErrorTypeProvider.class)
   @MediaType(value = ANY, strict = false)
-  public Result<InputStream, FtpFileAttributes> read(@Config FileConnectorConfig config,
-                                                     @Connection FtpFileSystem fileSystem,
-                                                     @DisplayName("File Path") @Path(type = FILE,
-                                                         location = EXTERNAL) String path,
-                                                     @Optional(defaultValue = "false") @Placement(
-                                                         tab = ADVANCED_TAB) boolean lock,
-                                                     @ConfigOverride @Placement(
-                                                         tab = ADVANCED_TAB) Long timeBetweenSizeCheck,
-                                                     @ConfigOverride @Placement(
-                                                         tab = ADVANCED_TAB) TimeUnit timeBetweenSizeCheckUnit) {
-    fileSystem.changeToBaseDir();
-    Result result = fileSystem.read(config, path, lock,
-                                    config.getTimeBetweenSizeCheckInMillis(timeBetweenSizeCheck, timeBetweenSizeCheckUnit)
-                                        .orElse(null));
-    return (Result<InputStream, FtpFileAttributes>) result;
+  public void read(@Config FileConnectorConfig config,
+                   @Connection FtpFileSystem fileSystem,
+                   @DisplayName("File Path") @Path(type = FILE,
+                       location = EXTERNAL) String path,
+                   @Optional(defaultValue = "false") @Placement(
+                       tab = ADVANCED_TAB) boolean lock,
+                   @ConfigOverride @Placement(
+                       tab = ADVANCED_TAB) Long timeBetweenSizeCheck,
+                   @ConfigOverride @Placement(
+                       tab = ADVANCED_TAB) TimeUnit timeBetweenSizeCheckUnit,
+                   @Optional(defaultValue = "0") @Placement(
+                       tab = ADVANCED_TAB) @Summary("Position of the first byte to read") long offset,
+                   @Optional @Placement(
+                       tab = ADVANCED_TAB) @Summary("Maximum number of bytes to read") Long length,
+                   CompletionCallback<InputStream, FtpFileAttributes> callback) {
+    Result<InputStream, FtpFileAttributes> result;
+    try {
+      fileSystem.changeToBaseDir();
+      Long sizeCheckMillis = config.getTimeBetweenSizeCheckInMillis(timeBetweenSizeCheck, timeBetweenSizeCheckUnit).orElse(null);
+      result = offset == 0 && length == null
+          ? fileSystem.read(config, path, lock, sizeCheckMillis)
+          : fileSystem.read(config, path, lock, sizeCheckMillis, offset, length);
+    } catch (Throwable t) {
+      callback.error(t);
+      return;
+    }
+
+    if (!(result.getOutput() instanceof FtpInputStream)) {
+      callback.success(result);
+      return;
+    }
+    ((FtpInputStream) result.getOutput()).whenSizeIsStable().whenComplete((stableAttributes, error) -> {
+      if (error == null) {
+        callback.success(result);
+      } else {
+        closeQuietly(result.getOutput());
+        callback.error(error);
+      }
+    });
   }
 
   /**
@@ -285,27 +331,18 @@ public final class FtpOperations {
   }
 
   /**
-   * Lists all the files in the {@code directoryPath} which match the given {@code matcher}.
-   * <p>
-   * If the listing encounters a directory, the output list will include its contents depending on the value of the
-   * {@code recursive} parameter. If {@code recursive} is enabled, then all the files in that directory will be listed immediately
-   * after their parent directory.
-   * <p>
+   * Obtains the attributes of all the given {@code paths}. Paths which share a parent directory are looked up together, so that
+   * the directory is listed once instead of once per path.
    *
-   * @param config        the config that is parameterizing this operation
-   * @param directoryPath the path to the directory to be listed
-   * @param recursive     whether to include the contents of sub-directories. Defaults to false.
-   * @param matchWith     a matcher used to filter the output list
-   * @return a {@link PagingProvider} of {@link Result} objects each one containing each file's content in the payload and metadata in the
-   * attributes
-   * @throws IllegalArgumentException if {@code directoryPath} points to a file which doesn't exist or is not a directory
+   * @param fileSystem a reference to the host {@link FileSystem}
+   * @param paths the paths to the files or directories whose attributes are wanted
+   * @return a {@link FtpBulkFileAttributes} with the attributes of the paths which exist and the paths which don't
    */
-  private PagingProvider<FileSystem, Result<String, FtpFileAttributes>> doPagedList(FileConnectorConfig config,
-                                                                                    String directoryPath,
-                                                                                    boolean recursive,
-                                                                                    FileMatcher matchWith,
-                                                                                    StreamingHelper streamingHelper) {
-    return doPagedList(config, directoryPath, recursive, matchWith, streamingHelper, null);
+  @Summary("Obtains the attributes of several files at once")
+  @Throws(FileListErrorTypeProvider.class)
+  public FtpBulkFileAttributes getAttributes(@Connection FileSystem fileSystem,
+                                             @Summary("Paths to the files whose attributes are wanted") List<String> paths) {
+    return doGetAttributes(fileSystem, paths);
   }
 
   /**
@@ -320,6 +357,8 @@ public final class FtpOperations {
    * @param directoryPath the path to the directory to be listed
    * @param recursive     whether to include the contents of sub-directories. Defaults to false.
    * @param matchWith     a matcher used to filter the output list
+   * @param streamListing whether to obtain the listing from the server as pages are consumed instead of all at once. When
+   *                      enabled, the same connection is kept between pages so that the directory cursor can be resumed.
    * @param subsetList    parameter group that lets you obtain a subset of the results
    * @return a {@link PagingProvider} of {@link Result} objects each one containing each file's content in the payload and metadata in the
    * attributes
@@ -329,6 +368,7 @@ public final class FtpOperations {
                                                                                     String directoryPath,
                                                                                     boolean recursive,
                                                                                     FileMatcher matchWith,
+                                                                                    boolean streamListing,
                                                                                     StreamingHelper streamingHelper,
                                                                                     SubsetList subsetList) {
     return new PagingProvider<FileSystem, Result<String, FtpFileAttributes>>() {
@@ -356,8 +396,12 @@ public final class FtpOperations {
 
       private void initializePagingProvider(FileSystem connection) {
         connection.changeToBaseDir();
-        files = connection.list(config, directoryPath, recursive, getPredicate(matchWith), subsetList);
-        filesIterator = files.iterator();
+        if (streamListing) {
+          filesIterator = connection.iterate(config, directoryPath, recursive, getPredicate(matchWith), subsetList);
+        } else {
+          files = connection.list(config, directoryPath, recursive, getPredicate(matchWith), subsetList);
+          filesIterator = files.iterator();
+        }
       }
 
       @Override
@@ -368,6 +412,11 @@ public final class FtpOperations {
         return java.util.Optional.of(files.size());
       }
 
+      @Override
+      public boolean useStickyConnections() {
+        return streamListing;
+      }
+
       @Override
       public void close(FileSystem connection) throws MuleException {}
 
@@ -490,4 +539,16 @@ public final class FtpOperations {
     fileSystem.changeToBaseDir();
     fileSystem.createDirectory(directoryPath);
   }
+
+  /**
+   * Obtains the attributes of all the given {@code paths}
+   *
+   * @param fileSystem a reference to the host {@link FileSystem}
+   * @param paths      the paths to the files or directories whose attributes are wanted
+   */
+  private FtpBulkFileAttributes doGetAttributes(FileSystem fileSystem, List<String> paths) {
+    paths.forEach(path -> validatePath(path, "path"));
+    fileSystem.changeToBaseDir();
+    return fileSystem.getAttributes(paths);
+  }
 }
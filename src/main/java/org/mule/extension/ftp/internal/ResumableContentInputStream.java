@@ -0,0 +1,284 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.extension.ftp.internal;
+
+import static java.lang.String.format;
+import static org.mule.extension.ftp.api.ftp.FtpTransferMode.BINARY;
+import static org.mule.runtime.core.api.util.IOUtils.closeQuietly;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import org.mule.extension.ftp.api.ftp.FtpFileAttributes;
+import org.mule.extension.ftp.internal.connection.FtpFileSystem;
+import org.mule.runtime.api.connection.ConnectionException;
+import org.mule.runtime.api.connection.ConnectionHandler;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.apache.commons.net.ftp.FTPFile;
+import org.slf4j.Logger;
+
+/**
+ * An {@link InputStream} over the content of a file which resumes the transfer when it is interrupted.
+ * <p>
+ * The stream keeps count of the bytes it delivered. When reading the content fails, the connection of the transfer is
+ * abandoned and a new one is borrowed from the {@link FtpConnector#getConnectionManager()}. If the size and the timestamp of
+ * the file did not change, the transfer goes on from the first byte which was not delivered yet through {@code REST} and
+ * {@code RETR}. Up to {@link FtpConnector#getReadResumeAttempts()} attempts are made over the whole read.
+ * <p>
+ * Whether the file changed is told by asking the server with the {@code SIZE} and {@code MDTM} commands both before the
+ * transfer starts and before it is resumed, so that both timestamps have the same precision. Transfers are only resumed in
+ * {@code BINARY} mode, on servers which answer those commands, since otherwise the count of delivered bytes may not be a
+ * position in the file or its changes may go unnoticed.
+ * <p>
+ * The stream may be closed from another thread than the one reading it, as when its content is read ahead, so the state of
+ * the transfer is only changed while holding a lock, and the stream being closed is checked after each borrowed connection.
+ *
+ * @since 3.0
+ */
+final class ResumableContentInputStream extends InputStream {
+
+  private static final Logger LOGGER = getLogger(ResumableContentInputStream.class);
+
+  private final FtpConnector config;
+  private final FtpFileAttributes attributes;
+  private final long offset;
+  private final FtpFileSystem originalFileSystem;
+  private final FTPFile version;
+  private FtpFileSystem fileSystem;
+  private ConnectionHandler<FtpFileSystem> connectionHandler;
+  private InputStream content;
+  private long delivered = 0;
+  private int attempts = 0;
+  private volatile boolean originalConnectionAbandoned = false;
+  private boolean resuming = false;
+  private boolean closed = false;
+  private final Object lock = new Object();
+
+  /**
+   * Starts the transfer of the content of the file through the given {@code fileSystem}.
+   *
+   * @param config     the {@link FtpConnector} from which the connections to resume the transfer are borrowed
+   * @param fileSystem the {@link FtpFileSystem} of the read
+   * @param attributes a {@link FtpFileAttributes} referencing the file which contents are to be fetched
+   * @param offset     the position of the first byte to retrieve
+   */
+  ResumableContentInputStream(FtpConnector config, FtpFileSystem fileSystem, FtpFileAttributes attributes, long offset) {
+    this.config = config;
+    this.attributes = attributes;
+    this.offset = offset;
+    this.originalFileSystem = fileSystem;
+    this.fileSystem = fileSystem;
+    this.version = getVersion(fileSystem);
+    this.content = fileSystem.retrieveFileContent(attributes, offset);
+  }
+
+  /**
+   * @return whether the connection of the read was abandoned because the transfer was interrupted, in which case no command
+   *         is pending on it anymore
+   */
+  boolean isOriginalConnectionAbandoned() {
+    return originalConnectionAbandoned;
+  }
+
+  @Override
+  public int read() throws IOException {
+    while (true) {
+      InputStream currentContent = getContent();
+      try {
+        int read = currentContent.read();
+        if (read != -1) {
+          delivered++;
+        }
+        return read;
+      } catch (IOException e) {
+        resume(e);
+      }
+    }
+  }
+
+  @Override
+  public int read(byte[] buffer, int offset, int length) throws IOException {
+    while (true) {
+      InputStream currentContent = getContent();
+      try {
+        int read = currentContent.read(buffer, offset, length);
+        if (read > 0) {
+          delivered += read;
+        }
+        return read;
+      } catch (IOException e) {
+        resume(e);
+      }
+    }
+  }
+
+  private InputStream getContent() throws IOException {
+    synchronized (lock) {
+      if (content == null) {
+        throw new IOException(format("Transfer of file '%s' was interrupted and could not be resumed", attributes.getPath()));
+      }
+      return content;
+    }
+  }
+
+  private FTPFile getVersion(FtpFileSystem fileSystem) {
+    try {
+      return fileSystem.getSizeAndModificationTime(attributes.getPath());
+    } catch (RuntimeException e) {
+      LOGGER.debug("Could not obtain the size and modification time of file {}, its transfer won't be resumed",
+                   attributes.getPath(), e);
+      return null;
+    }
+  }
+
+  private void resume(IOException cause) throws IOException {
+    synchronized (lock) {
+      // a read which fails because the stream was closed from another thread is not resumed
+      if (version == null || closed) {
+        throw cause;
+      }
+      resuming = true;
+    }
+    try {
+      doResume(cause);
+    } finally {
+      synchronized (lock) {
+        resuming = false;
+        // the stream was closed while the transfer was being resumed, which left cleaning it up to this thread
+        if (closed) {
+          abandonTransfer();
+        }
+      }
+    }
+  }
+
+  private void doResume(IOException cause) throws IOException {
+    abandonTransfer();
+    while (attempts < config.getReadResumeAttempts()) {
+      attempts++;
+      LOGGER.warn(format("Transfer of file '%s' was interrupted after %d bytes, resuming it (attempt %d of %d). %s",
+                         attributes.getPath(), delivered, attempts, config.getReadResumeAttempts(),
+                         cause.getMessage()));
+      FTPFile currentVersion;
+      try {
+        if (!borrowConnection()) {
+          break;
+        }
+        fileSystem.setTransferMode(BINARY);
+        currentVersion = fileSystem.getSizeAndModificationTime(attributes.getPath());
+      } catch (Exception e) {
+        cause.addSuppressed(e);
+        abandonTransfer();
+        continue;
+      }
+
+      if (currentVersion == null || currentVersion.getSize() != version.getSize()
+          || !currentVersion.getTimestamp().equals(version.getTimestamp())) {
+        cause.addSuppressed(new IOException(format("File '%s' changed since its transfer started, so it cannot be resumed",
+                                                   attributes.getPath())));
+        releaseConnection();
+        throw cause;
+      }
+
+      InputStream resumedContent;
+      try {
+        resumedContent = fileSystem.retrieveFileContent(attributes, offset + delivered);
+      } catch (RuntimeException e) {
+        cause.addSuppressed(e);
+        abandonTransfer();
+        continue;
+      }
+      synchronized (lock) {
+        content = resumedContent;
+      }
+      return;
+    }
+    throw cause;
+  }
+
+  /**
+   * Borrows a connection to resume the transfer, unless the stream was closed in the meantime.
+   *
+   * @return whether the connection was borrowed, which is not the case if the stream was closed
+   */
+  private boolean borrowConnection() throws ConnectionException {
+    ConnectionHandler<FtpFileSystem> borrowedHandler = config.getConnectionManager().getConnection(config);
+    synchronized (lock) {
+      if (closed) {
+        borrowedHandler.release();
+        return false;
+      }
+      connectionHandler = borrowedHandler;
+      fileSystem = borrowedHandler.getConnection();
+      return true;
+    }
+  }
+
+  private void releaseConnection() {
+    synchronized (lock) {
+      if (connectionHandler != null) {
+        connectionHandler.release();
+        connectionHandler = null;
+      }
+    }
+  }
+
+  private void abandonTransfer() {
+    synchronized (lock) {
+      if (content != null) {
+        closeQuietly(content);
+        content = null;
+      }
+      if (connectionHandler != null) {
+        connectionHandler.invalidate();
+        connectionHandler = null;
+      } else if (!originalConnectionAbandoned) {
+        // The connection of the read is left to be invalidated by its owner, disconnected so that it is not reused
+        originalConnectionAbandoned = true;
+        originalFileSystem.disconnect();
+      }
+    }
+  }
+
+  /**
+   * Closes the content and releases the connection which was borrowed to resume the transfer, if any. If the transfer is
+   * being resumed in another thread, that thread is left to abandon it once it notices that the stream was closed.
+   */
+  @Override
+  public void close() throws IOException {
+    InputStream currentContent;
+    ConnectionHandler<FtpFileSystem> currentConnectionHandler;
+    FtpFileSystem currentFileSystem;
+    synchronized (lock) {
+      closed = true;
+      if (resuming) {
+        return;
+      }
+      currentContent = content;
+      currentConnectionHandler = connectionHandler;
+      currentFileSystem = fileSystem;
+      content = null;
+      connectionHandler = null;
+    }
+    try {
+      if (currentContent != null) {
+        currentContent.close();
+      }
+    } finally {
+      if (currentConnectionHandler != null) {
+        try {
+          if (currentContent != null) {
+            currentFileSystem.awaitStoppedTransferCompletion();
+          }
+        } finally {
+          currentConnectionHandler.release();
+        }
+      }
+    }
+  }
+}
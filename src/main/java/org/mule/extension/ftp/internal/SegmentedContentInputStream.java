@@ -0,0 +1,362 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.extension.ftp.internal;
+
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.lang.String.format;
+import static java.lang.System.arraycopy;
+import static java.lang.Thread.currentThread;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.CompletableFuture.supplyAsync;
+import static org.apache.commons.net.ftp.FTPCmd.REST;
+import static org.mule.extension.ftp.api.ftp.FtpTransferMode.BINARY;
+import static org.mule.runtime.core.api.util.IOUtils.closeQuietly;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import org.mule.extension.ftp.api.ftp.FtpFileAttributes;
+import org.mule.extension.ftp.internal.connection.FtpFileSystem;
+import org.mule.runtime.api.connection.ConnectionException;
+import org.mule.runtime.api.connection.ConnectionHandler;
+import org.mule.runtime.api.exception.MuleRuntimeException;
+import org.mule.runtime.api.scheduler.Scheduler;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+
+/**
+ * An {@link InputStream} over the content of a large file which is downloaded in segments over several connections at once.
+ * <p>
+ * The file is split in ranges of {@link FtpConnector#getSegmentSize()} bytes which are kept in a shared queue. A worker per
+ * connection borrowed from the {@link FtpConnector#getConnectionManager()} runs on the {@link FtpConnector#getScheduler()},
+ * repeatedly taking the next range from the queue and retrieving it with {@code REST} and {@code RETR}, so a slow connection
+ * only delays the ranges it took and every data connection is closed as soon as its range was retrieved. The ranges are
+ * consumed in order, and only up to two ranges per worker are retrieved ahead of the one being consumed, which bounds the
+ * memory held by the stream. Whatever is left after the last whole range, including any content appended in the meantime,
+ * is retrieved through the connection of the read once all the ranges were consumed.
+ * <p>
+ * A worker releases its connection once it is done, and invalidates it instead if a transfer failed or was cancelled by
+ * closing the stream, since the server may still have a reply pending on it. The failure of any range makes the read fail.
+ * <p>
+ * The additional connections are borrowed from the scheduler, and the read only waits for them for a short while. If the
+ * pool is exhausted, possibly by other reads waiting for connections as well, the read goes on with the ones obtained in time
+ * and those obtained later are released right away. Only files transferred in {@code BINARY} mode are split, since the
+ * offsets of the ranges are not byte positions of the transferred content in {@code ASCII} mode.
+ *
+ * @since 3.0
+ */
+final class SegmentedContentInputStream extends InputStream {
+
+  private static final Logger LOGGER = getLogger(SegmentedContentInputStream.class);
+  private static final int CHUNK_SIZE = 64 * 1024;
+  private static final int RANGES_AHEAD_PER_WORKER = 2;
+  private static final long CLAIM_INTERVAL_MILLIS = 50;
+  private static final long BORROW_TIMEOUT_MILLIS = 1000;
+
+  private final FtpFileSystem fileSystem;
+  private final FtpFileAttributes attributes;
+  private final int rangeLength;
+  private final int rangeCount;
+  private final AtomicReferenceArray<CompletableFuture<byte[]>> ranges;
+  private final AtomicInteger nextRange = new AtomicInteger();
+  private final AtomicReference<Exception> failure = new AtomicReference<>();
+  private Semaphore rangesAhead;
+  private InputStream tail;
+  private int currentRange = 0;
+  private byte[] chunk;
+  private int chunkPosition = 0;
+  private volatile boolean closed = false;
+
+  /**
+   * Returns the content of the file of the given {@code attributes}, downloaded in segments if it is larger than the
+   * {@link FtpConnector#getSegmentedReadThreshold()}, it is transferred in {@code BINARY} mode and the server supports the
+   * {@code REST} command. Otherwise, or if no additional connection could be borrowed in time, the content is obtained from
+   * the given {@code singleTransfer}.
+   *
+   * @param config         the {@link FtpConnector} from which the additional connections are borrowed
+   * @param fileSystem     the {@link FtpFileSystem} of the read
+   * @param attributes     a {@link FtpFileAttributes} referencing the file which contents are to be fetched
+   * @param singleTransfer the {@link Supplier} of the content retrieved through the given {@code fileSystem} only
+   * @return an {@link InputStream}
+   */
+  static InputStream retrieveFileContent(FtpConnector config, FtpFileSystem fileSystem, FtpFileAttributes attributes,
+                                         Supplier<InputStream> singleTransfer) {
+    if (config == null || !isSegmentable(config, attributes) || fileSystem.getTransferMode() != BINARY
+        || !fileSystem.isFeatureSupported(REST.getCommand())) {
+      return singleTransfer.get();
+    }
+
+    List<ConnectionHandler<FtpFileSystem>> connectionHandlers =
+        borrowConnections(config, config.getScheduler(), config.getReadSegments() - 1);
+    if (connectionHandlers.isEmpty()) {
+      return singleTransfer.get();
+    }
+
+    SegmentedContentInputStream content = new SegmentedContentInputStream(fileSystem, attributes, config.getSegmentSize());
+    if (!content.start(config.getScheduler(), connectionHandlers)) {
+      closeQuietly(content);
+      return singleTransfer.get();
+    }
+    return content;
+  }
+
+  private static boolean isSegmentable(FtpConnector config, FtpFileAttributes attributes) {
+    return config.getSegmentedReadThreshold() > 0 && config.getReadSegments() > 1 && config.getScheduler() != null
+        && config.getSegmentSize() > 0
+        && attributes.getSize() >= max(config.getSegmentedReadThreshold(), 2L * config.getSegmentSize());
+  }
+
+  private static List<ConnectionHandler<FtpFileSystem>> borrowConnections(FtpConnector config, Scheduler scheduler,
+                                                                          int count) {
+    List<CompletableFuture<ConnectionHandler<FtpFileSystem>>> borrowings = new ArrayList<>(count);
+    try {
+      for (int i = 0; i < count; i++) {
+        borrowings.add(supplyAsync(() -> borrowConnection(config), scheduler));
+      }
+    } catch (RejectedExecutionException e) {
+      LOGGER.debug("Could not schedule borrowing an additional connection for a segmented read", e);
+    }
+
+    List<ConnectionHandler<FtpFileSystem>> connectionHandlers = new ArrayList<>(borrowings.size());
+    long deadline = System.currentTimeMillis() + BORROW_TIMEOUT_MILLIS;
+    for (CompletableFuture<ConnectionHandler<FtpFileSystem>> borrowing : borrowings) {
+      try {
+        borrowing.get(max(0, deadline - System.currentTimeMillis()), MILLISECONDS);
+      } catch (InterruptedException e) {
+        currentThread().interrupt();
+        deadline = 0;
+      } catch (ExecutionException | TimeoutException e) {
+        LOGGER.debug("Could not obtain an additional connection for a segmented read in time", e);
+      }
+      ConnectionHandler<FtpFileSystem> connectionHandler = borrowing.isCompletedExceptionally() ? null : borrowing.getNow(null);
+      if (connectionHandler != null) {
+        connectionHandlers.add(connectionHandler);
+      } else {
+        // a connection obtained after giving up on it is not used
+        borrowing.thenAccept(ConnectionHandler::release);
+      }
+    }
+    return connectionHandlers;
+  }
+
+  private static ConnectionHandler<FtpFileSystem> borrowConnection(FtpConnector config) {
+    try {
+      return config.getConnectionManager().getConnection(config);
+    } catch (ConnectionException e) {
+      throw new MuleRuntimeException(e);
+    }
+  }
+
+  private SegmentedContentInputStream(FtpFileSystem fileSystem, FtpFileAttributes attributes, int rangeLength) {
+    this.fileSystem = fileSystem;
+    this.attributes = attributes;
+    this.rangeLength = rangeLength;
+    this.rangeCount = (int) min(Integer.MAX_VALUE, attributes.getSize() / rangeLength);
+    this.ranges = new AtomicReferenceArray<>(rangeCount);
+    for (int i = 0; i < rangeCount; i++) {
+      ranges.set(i, new CompletableFuture<>());
+    }
+  }
+
+  /**
+   * Starts a worker for each of the given connections, releasing those which can't be scheduled.
+   *
+   * @return whether any worker was started
+   */
+  private boolean start(Scheduler scheduler, List<ConnectionHandler<FtpFileSystem>> connectionHandlers) {
+    LOGGER.debug("Reading file {} in {} ranges of {} bytes over {} additional connections", attributes.getPath(), rangeCount,
+                 rangeLength, connectionHandlers.size());
+
+    rangesAhead = new Semaphore(RANGES_AHEAD_PER_WORKER * connectionHandlers.size());
+    int workers = 0;
+    for (ConnectionHandler<FtpFileSystem> connectionHandler : connectionHandlers) {
+      try {
+        scheduler.submit(new Worker(connectionHandler));
+        workers++;
+      } catch (RejectedExecutionException e) {
+        LOGGER.debug("Could not schedule an additional worker for a segmented read, continuing without it", e);
+        connectionHandler.release();
+      }
+    }
+    return workers > 0;
+  }
+
+  /**
+   * @return whether the transfer of the rest of the file was started through the connection of the read
+   */
+  boolean isTailRetrieved() {
+    return tail != null;
+  }
+
+  @Override
+  public int read() throws IOException {
+    byte[] single = new byte[1];
+    return read(single, 0, 1) == -1 ? -1 : single[0] & 0xFF;
+  }
+
+  @Override
+  public int read(byte[] buffer, int offset, int length) throws IOException {
+    if (closed) {
+      throw new IOException("Stream is closed");
+    }
+    if (length == 0) {
+      return 0;
+    }
+
+    while (currentRange < rangeCount) {
+      if (chunk == null) {
+        chunk = await(ranges.get(currentRange));
+        chunkPosition = 0;
+      }
+      if (chunkPosition < chunk.length) {
+        int read = min(length, chunk.length - chunkPosition);
+        arraycopy(chunk, chunkPosition, buffer, offset, read);
+        chunkPosition += read;
+        return read;
+      }
+      ranges.set(currentRange++, null);
+      chunk = null;
+      rangesAhead.release();
+    }
+
+    if (tail == null) {
+      try {
+        tail = fileSystem.retrieveFileContent(attributes, (long) rangeCount * rangeLength);
+      } catch (RuntimeException e) {
+        throw new IOException(format("Could not retrieve the end of file '%s'. %s", attributes.getPath(), e.getMessage()), e);
+      }
+    }
+    return tail.read(buffer, offset, length);
+  }
+
+  private byte[] await(CompletableFuture<byte[]> range) throws IOException {
+    try {
+      return range.get();
+    } catch (InterruptedException e) {
+      currentThread().interrupt();
+      throw new InterruptedIOException(format("Interrupted while reading file '%s'", attributes.getPath()));
+    } catch (ExecutionException e) {
+      throw new IOException(format("Could not retrieve bytes %d to %d of file '%s'. %s", (long) currentRange * rangeLength,
+                                   (long) (currentRange + 1) * rangeLength, attributes.getPath(), e.getCause().getMessage()),
+                            e.getCause());
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    if (tail != null) {
+      tail.close();
+    }
+  }
+
+  private void fail(Exception cause) {
+    failure.compareAndSet(null, cause);
+    for (int i = 0; i < rangeCount; i++) {
+      CompletableFuture<byte[]> range = ranges.get(i);
+      if (range != null) {
+        range.completeExceptionally(failure.get());
+      }
+    }
+  }
+
+  /**
+   * Retrieves ranges through a borrowed connection until there are none left or the stream is closed.
+   */
+  private final class Worker implements Runnable {
+
+    private final ConnectionHandler<FtpFileSystem> connectionHandler;
+
+    private Worker(ConnectionHandler<FtpFileSystem> connectionHandler) {
+      this.connectionHandler = connectionHandler;
+    }
+
+    @Override
+    public void run() {
+      boolean completed = false;
+      try {
+        FtpFileSystem workerFileSystem = connectionHandler.getConnection();
+        for (int range = claimRange(); range != -1; range = claimRange()) {
+          ranges.get(range).complete(transfer(workerFileSystem, (long) range * rangeLength));
+        }
+        completed = true;
+      } catch (Exception e) {
+        fail(e);
+      } finally {
+        if (completed) {
+          connectionHandler.release();
+        } else {
+          connectionHandler.invalidate();
+        }
+      }
+    }
+
+    /**
+     * Waits until less than the allowed number of ranges are retrieved ahead of the consumed one and takes the next range.
+     *
+     * @return the index of the range to retrieve, or -1 if there are none left or the stream is closed or failed
+     */
+    private int claimRange() throws InterruptedIOException {
+      try {
+        while (!closed && failure.get() == null) {
+          if (rangesAhead.tryAcquire(CLAIM_INTERVAL_MILLIS, MILLISECONDS)) {
+            int range = nextRange.getAndIncrement();
+            if (range < rangeCount) {
+              return range;
+            }
+            rangesAhead.release();
+            return -1;
+          }
+        }
+        return -1;
+      } catch (InterruptedException e) {
+        currentThread().interrupt();
+        throw new InterruptedIOException(format("Interrupted while reading file '%s'", attributes.getPath()));
+      }
+    }
+
+    private byte[] transfer(FtpFileSystem workerFileSystem, long rangeOffset) throws IOException {
+      byte[] range = new byte[rangeLength];
+      InputStream content = workerFileSystem.retrieveFileContent(attributes, rangeOffset);
+      try {
+        int position = 0;
+        while (position < rangeLength) {
+          if (closed || failure.get() != null) {
+            throw new InterruptedIOException(format("Read of file '%s' was cancelled", attributes.getPath()));
+          }
+          int read = content.read(range, position, min(CHUNK_SIZE, rangeLength - position));
+          if (read == -1) {
+            throw new EOFException(format("File '%s' ended before byte %d", attributes.getPath(), rangeOffset + rangeLength));
+          }
+          position += read;
+        }
+      } finally {
+        content.close();
+      }
+      workerFileSystem.awaitStoppedTransferCompletion();
+      return range;
+    }
+  }
+}
@@ -0,0 +1,193 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.extension.ftp.internal.command;
+
+import static java.time.ZoneOffset.UTC;
+import static java.util.Arrays.copyOf;
+import static org.mule.extension.ftp.api.UriUtils.createUri;
+
+import org.mule.extension.ftp.api.ftp.FtpFileAttributes;
+import org.mule.runtime.api.metadata.MediaType;
+import org.mule.runtime.extension.api.runtime.operation.Result;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.AbstractList;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.net.ftp.FTPFile;
+
+/**
+ * A {@link java.util.List} of the results of a list operation which keeps them in a columnar layout instead of as individual
+ * objects, so that listings with a huge amount of entries take a fraction of the memory.
+ * <p>
+ * Names and parent directories are kept once in a shared string table and referenced by index, while sizes, timestamps and
+ * types are kept in primitive arrays. The {@link Result} and {@link FtpFileAttributes} of an entry are only created when it is
+ * retrieved, so callers which go through the list once should not hold on to them.
+ * <p>
+ * Entries shaped as the ones created by {@link FtpListCommand}, which have either no output or their own path as output with a
+ * {@link MediaType#TEXT} media type, are the only ones kept in the columnar layout. Any other entry is kept as it was added.
+ *
+ * @since 3.0
+ */
+final class CompactListing extends AbstractList<Result<String, FtpFileAttributes>> {
+
+  private static final int INITIAL_CAPACITY = 64;
+  private static final long NO_TIMESTAMP = Long.MIN_VALUE;
+  private static final int NANOS_PER_MILLI = 1000000;
+  private static final FTPFile NO_FILE = new FTPFile();
+
+  private static final byte REGULAR_FILE = 1;
+  private static final byte DIRECTORY = 1 << 1;
+  private static final byte SYMBOLIC_LINK = 1 << 2;
+  private static final byte HAS_OUTPUT = 1 << 3;
+
+  private String[] strings = new String[INITIAL_CAPACITY];
+  private int stringCount = 0;
+  private Map<String, Integer> stringIndexes = new HashMap<>();
+
+  private int[] parents = new int[INITIAL_CAPACITY];
+  private int[] names = new int[INITIAL_CAPACITY];
+  private long[] sizes = new long[INITIAL_CAPACITY];
+  private long[] timestamps = new long[INITIAL_CAPACITY];
+  private byte[] flags = new byte[INITIAL_CAPACITY];
+  private int size = 0;
+
+  private Map<Integer, Result<String, FtpFileAttributes>> irregularEntries;
+
+  @Override
+  public boolean add(Result<String, FtpFileAttributes> result) {
+    ensureCapacity(size + 1);
+    FtpFileAttributes attributes = result.getAttributes().orElse(null);
+    if (!isCompactable(result, attributes)) {
+      if (irregularEntries == null) {
+        irregularEntries = new HashMap<>();
+      }
+      irregularEntries.put(size, result);
+    } else {
+      String path = attributes.getPath();
+      String name = attributes.getName();
+      parents[size] = intern(path.substring(0, path.length() - name.length()));
+      names[size] = intern(name);
+      sizes[size] = attributes.getSize();
+      timestamps[size] = attributes.getTimestamp() != null
+          ? attributes.getTimestamp().toInstant(UTC).toEpochMilli()
+          : NO_TIMESTAMP;
+      flags[size] = (byte) ((attributes.isRegularFile() ? REGULAR_FILE : 0)
+          | (attributes.isDirectory() ? DIRECTORY : 0)
+          | (attributes.isSymbolicLink() ? SYMBOLIC_LINK : 0)
+          | (result.getOutput() != null ? HAS_OUTPUT : 0));
+    }
+    size++;
+    modCount++;
+    return true;
+  }
+
+  @Override
+  public Result<String, FtpFileAttributes> get(int index) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+    }
+    if (irregularEntries != null && irregularEntries.containsKey(index)) {
+      return irregularEntries.get(index);
+    }
+
+    String path = strings[parents[index]] + strings[names[index]];
+    FtpFileAttributes attributes = new FtpFileAttributes(createUri(path), NO_FILE);
+    attributes.setSize(sizes[index]);
+    attributes.setTimestamp(timestamps[index] != NO_TIMESTAMP
+        ? LocalDateTime.ofInstant(Instant.ofEpochMilli(timestamps[index]), UTC)
+        : null);
+    attributes.setRegularFile((flags[index] & REGULAR_FILE) != 0);
+    attributes.setDirectory((flags[index] & DIRECTORY) != 0);
+    attributes.setSymbolicLink((flags[index] & SYMBOLIC_LINK) != 0);
+
+    if ((flags[index] & HAS_OUTPUT) != 0) {
+      return Result.<String, FtpFileAttributes>builder().output(path).mediaType(MediaType.TEXT).attributes(attributes).build();
+    }
+    return Result.<String, FtpFileAttributes>builder().output(null).attributes(attributes).build();
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  /**
+   * @return the number of objects this listing holds besides its arrays, which is one per distinct file name or parent
+   *         directory plus one per entry which could not be compacted
+   */
+  int getRetainedObjectCount() {
+    return stringCount + (irregularEntries != null ? irregularEntries.size() : 0);
+  }
+
+  /**
+   * Releases the memory which was reserved to add more entries. Entries can still be added afterwards, although more slowly.
+   */
+  void trimToSize() {
+    parents = copyOf(parents, size);
+    names = copyOf(names, size);
+    sizes = copyOf(sizes, size);
+    timestamps = copyOf(timestamps, size);
+    flags = copyOf(flags, size);
+    strings = copyOf(strings, stringCount);
+    stringIndexes = null;
+  }
+
+  private boolean isCompactable(Result<String, FtpFileAttributes> result, FtpFileAttributes attributes) {
+    if (attributes == null || attributes.getClass() != FtpFileAttributes.class || result.getAttributesMediaType().isPresent()) {
+      return false;
+    }
+
+    // the path has to be rebuilt from the parent directory and the name, and the timestamp from its milliseconds
+    String path = attributes.getPath();
+    if (path == null || !attributes.getName().equals(FilenameUtils.getName(path))) {
+      return false;
+    }
+    if (attributes.getTimestamp() != null && attributes.getTimestamp().getNano() % NANOS_PER_MILLI != 0) {
+      return false;
+    }
+
+    if (result.getOutput() == null) {
+      return !result.getMediaType().isPresent();
+    }
+    return path.equals(result.getOutput()) && result.getMediaType().map(MediaType.TEXT::equals).orElse(false);
+  }
+
+  private int intern(String value) {
+    if (stringIndexes == null) {
+      stringIndexes = new HashMap<>();
+      for (int i = 0; i < stringCount; i++) {
+        stringIndexes.put(strings[i], i);
+      }
+    }
+
+    Integer index = stringIndexes.get(value);
+    if (index == null) {
+      if (stringCount == strings.length) {
+        strings = copyOf(strings, Math.max(INITIAL_CAPACITY, stringCount * 2));
+      }
+      index = stringCount;
+      strings[stringCount++] = value;
+      stringIndexes.put(value, index);
+    }
+    return index;
+  }
+
+  private void ensureCapacity(int capacity) {
+    if (capacity > flags.length) {
+      int newCapacity = Math.max(INITIAL_CAPACITY, Math.max(capacity, flags.length + (flags.length >> 1)));
+      parents = copyOf(parents, newCapacity);
+      names = copyOf(names, newCapacity);
+      sizes = copyOf(sizes, newCapacity);
+      timestamps = copyOf(timestamps, newCapacity);
+      flags = copyOf(flags, newCapacity);
+    }
+  }
+}
@@ -7,10 +7,20 @@
 package org.mule.extension.ftp.internal.command;
 
 import static java.lang.String.format;
+import static java.util.Arrays.asList;
 import static org.apache.commons.lang3.StringUtils.isBlank;
 import static org.apache.commons.lang3.StringUtils.isNotBlank;
+import static org.apache.commons.lang3.StringUtils.stripStart;
+import static org.apache.commons.net.ftp.FTPCmd.MDTM;
+import static org.apache.commons.net.ftp.FTPCmd.MKD;
 import static org.apache.commons.net.ftp.FTPCmd.MLST;
+import static org.apache.commons.net.ftp.FTPCmd.SIZE;
 import static org.apache.commons.net.ftp.FTPFile.DIRECTORY_TYPE;
+import static org.apache.commons.net.ftp.FTPFile.FILE_TYPE;
+import static org.apache.commons.net.ftp.FTPReply.COMMAND_NOT_IMPLEMENTED;
+import static org.apache.commons.net.ftp.FTPReply.COMMAND_NOT_IMPLEMENTED_FOR_PARAMETER;
+import static org.apache.commons.net.ftp.FTPReply.UNRECOGNIZED_COMMAND;
+import static org.apache.commons.net.ftp.FTPReply.isPositiveCompletion;
 import static org.mule.extension.ftp.api.UriUtils.createUri;
 import static org.mule.extension.ftp.api.UriUtils.normalizeUri;
 import static org.mule.extension.ftp.api.UriUtils.trimLastFragment;
@@ -24,24 +34,30 @@ import org.mule.extension.ftp.api.IllegalPathException;
 import org.mule.extension.ftp.api.FileAlreadyExistsException;
 import org.mule.extension.ftp.api.ftp.FtpFileAttributes;
 import org.mule.extension.ftp.internal.FtpCopyDelegate;
+import org.mule.extension.ftp.internal.connection.DirectoryListingCache;
 import org.mule.extension.ftp.internal.connection.FtpFileSystem;
+import org.mule.extension.ftp.internal.connection.PathLookupMemo;
 import org.mule.extension.ftp.internal.connection.SingleFileListingMode;
 import org.mule.runtime.api.connection.ConnectionException;
 import org.mule.runtime.api.exception.MuleRuntimeException;
 
 import java.io.IOException;
 import java.net.URI;
+import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.List;
 import java.util.Optional;
 import java.util.Stack;
 import java.util.concurrent.locks.Lock;
 import java.util.function.Predicate;
+import java.util.regex.Pattern;
 
 import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.net.MalformedServerReplyException;
 import org.apache.commons.net.ftp.FTPClient;
 import org.apache.commons.net.ftp.FTPConnectionClosedException;
 import org.apache.commons.net.ftp.FTPFile;
+import org.apache.commons.net.ftp.FTPFileEntryParser;
 import org.apache.commons.net.ftp.FTPListParseEngine;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -55,6 +71,8 @@ public abstract class FtpCommand {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(FtpCommand.class);
   private static final int FTP_LIST_PAGE_SIZE = 25;
+  private static final int MULTILINE_REPLY_PREFIX_LENGTH = 4;
+  private static final Pattern LISTING_TOTAL_LINE = Pattern.compile("total\\s+\\d+", Pattern.CASE_INSENSITIVE);
   protected static final String ROOT = "/";
   protected static final String SEPARATOR = "/";
   public static final String UNSUPPORTED_SPECIAL_CHARACTERS_SINGLEFILELISTING = ".*\\[.*";
@@ -63,6 +81,8 @@ public abstract class FtpCommand {
 
   protected final FtpFileSystem fileSystem;
 
+  protected final PipelinedCommandExecutor pipelinedCommandExecutor;
+
   protected FtpCommand(FtpFileSystem fileSystem) {
     this(fileSystem, fileSystem.getClient());
   }
@@ -76,6 +96,7 @@ public abstract class FtpCommand {
   protected FtpCommand(FtpFileSystem fileSystem, FTPClient client) {
     this.fileSystem = fileSystem;
     this.client = client;
+    this.pipelinedCommandExecutor = new PipelinedCommandExecutor(fileSystem, client);
   }
 
   /**
@@ -101,19 +122,107 @@ public abstract class FtpCommand {
     return getFile(filePath, false);
   }
 
+  /**
+   * Obtains the attributes of a file again, to tell whether its size changed. When the server can tell the size of a regular
+   * file with the {@code SIZE} command, only its size is asked for and the rest of the given attributes are kept. The server is
+   * always asked: neither the lookups of the operation nor the cached or indexed listings are used, since they may still hold
+   * the size the file had when it was listed.
+   *
+   * @param attributes the attributes previously obtained for the file
+   * @return a {@link FtpFileAttributes} or {@code null} if it doesn't exist anymore
+   */
+  public FtpFileAttributes getUpdatedFile(FtpFileAttributes attributes) {
+    if (attributes.isRegularFile() && fileSystem.isSizeAndModificationTimeLookup()) {
+      Long size;
+      try {
+        size = getSize(normalizePath(attributes.getPath()));
+      } catch (Exception e) {
+        throw exception("Found exception trying to obtain the size of path " + attributes.getPath(), e);
+      }
+
+      if (size != null) {
+        FTPFile ftpFile = new FTPFile();
+        ftpFile.setType(FILE_TYPE);
+        ftpFile.setSize(size);
+        FtpFileAttributes updatedAttributes = new FtpFileAttributes(createUri(attributes.getPath()), ftpFile);
+        updatedAttributes.setTimestamp(attributes.getTimestamp());
+        updatedAttributes.setSymbolicLink(attributes.isSymbolicLink());
+        return updatedAttributes;
+      }
+    }
+    return lookUpFile(resolveFileUri(attributes.getPath()), false);
+  }
+
+  /**
+   * Asks the server for the size and the modification time of a file with the {@code SIZE} and {@code MDTM} commands, to tell
+   * whether its content changed. Neither lookups nor listings are used, since they may be stale and the timestamps of listings
+   * are often less precise than the ones answered by {@code MDTM}, so they can't be compared with each other.
+   *
+   * @param filePath the path of the file
+   * @return a {@link FTPFile} holding the size and the timestamp of the file, or {@code null} if the server can't tell them
+   */
+  public FTPFile getSizeAndModificationTime(String filePath) {
+    if (!fileSystem.isFeatureSupported(SIZE.getCommand()) || !fileSystem.isFeatureSupported(MDTM.getCommand())) {
+      return null;
+    }
+
+    String path = normalizePath(resolveFileUri(filePath).getPath());
+    try {
+      Long size = getSize(path);
+      Calendar timestamp = size != null ? client.mdtmCalendar(path) : null;
+      if (timestamp == null) {
+        return null;
+      }
+      FTPFile ftpFile = new FTPFile();
+      ftpFile.setName(FilenameUtils.getName(path));
+      ftpFile.setType(FILE_TYPE);
+      ftpFile.setSize(size);
+      ftpFile.setTimestamp(timestamp);
+      return ftpFile;
+    } catch (IOException e) {
+      throw exception("Found exception trying to obtain the size and modification time of path " + filePath, e);
+    }
+  }
+
   protected FtpFileAttributes getFile(String filePath, boolean requireExistence) {
-    // We need to normalize the filePath because it can have a trailing separator
-    URI uri = normalizeUri(resolveUri(normalizePath(filePath)));
+    URI uri = resolveFileUri(filePath);
     if (LOGGER.isTraceEnabled()) {
       LOGGER.trace("Get file attributes for path {}", uri);
     }
     return getFileFromAbsoluteUri(uri, requireExistence);
   }
 
+  /**
+   * @param filePath the path to a file or directory
+   * @return the normalized absolute {@link URI} of the given path, which is resolved against the base path
+   */
+  protected URI resolveFileUri(String filePath) {
+    // We need to normalize the filePath because it can have a trailing separator
+    return normalizeUri(resolveUri(normalizePath(filePath)));
+  }
+
   private FtpFileAttributes getFileFromAbsoluteUri(URI uri, boolean requireExistence) {
+    PathLookupMemo lookupMemo = fileSystem.getLookupMemo();
+    FtpFileAttributes attributes;
+    if (lookupMemo != null && lookupMemo.isFileKnown(uri.getPath())) {
+      attributes = lookupMemo.getFile(uri.getPath());
+    } else {
+      attributes = lookUpFile(uri, true);
+      if (lookupMemo != null) {
+        lookupMemo.putFile(uri.getPath(), attributes);
+      }
+    }
+
+    if (attributes == null && requireExistence) {
+      throw pathNotFoundException(uri);
+    }
+    return attributes;
+  }
+
+  private FtpFileAttributes lookUpFile(URI uri, boolean useIndexedListings) {
     Optional<FTPFile> ftpFile;
     try {
-      ftpFile = doGetFileFromAbsoluteUri(uri);
+      ftpFile = doGetFileFromAbsoluteUri(uri, useIndexedListings);
     } catch (Exception e) {
       throw exception("Found exception trying to obtain path " + uri.getPath(), e);
     }
@@ -124,13 +233,8 @@ public abstract class FtpCommand {
         LOGGER.trace("Obtained file attributes {}", attributes);
       }
       return attributes;
-    } else {
-      if (requireExistence) {
-        throw pathNotFoundException(uri);
-      } else {
-        return null;
-      }
     }
+    return null;
   }
 
   /**
@@ -180,28 +284,39 @@ public abstract class FtpCommand {
    */
   protected boolean tryChangeWorkingDirectory(String path) {
     try {
-      return client.changeWorkingDirectory(normalizePath(path));
+      return fileSystem.changeWorkingDirectory(normalizePath(path));
     } catch (IOException e) {
       throw exception("Exception was found while trying to change working directory to " + path, e);
     }
   }
 
+
   /**
-   * Creates the directory of the given {@code directoryName} in the current working directory
+   * Creates the given directories, in order
    *
-   * @param directoryName the name of the directory you want to create
+   * @param directoryPaths the absolute paths of the directories to create, each one after its parent
    */
-  private void makeDirectory(String directoryName) {
+  private void makeDirectories(List<String> directoryPaths) {
+    if (directoryPaths.isEmpty()) {
+      return;
+    }
+    List<String> arguments = new ArrayList<>(directoryPaths.size());
+    directoryPaths.forEach(directoryPath -> arguments.add(normalizePath(directoryPath)));
+    int[] replies;
     try {
-      if (!client.makeDirectory(normalizePath(directoryName))) {
-        throw exception("Failed to create directory " + directoryName);
-      }
+      replies = pipelinedCommandExecutor.execute(MKD, arguments);
     } catch (Exception e) {
-      throw exception("Exception was found trying to create directory " + directoryName, e);
+      throw exception("Exception was found trying to create directory " + directoryPaths.get(0), e);
+    } finally {
+      directoryPaths.forEach(fileSystem::onPathModified);
+    }
+    for (int i = 0; i < replies.length; i++) {
+      if (!isPositiveCompletion(replies[i])) {
+        throw exception("Failed to create directory " + directoryPaths.get(i));
+      }
     }
   }
 
-
   /**
    * Renames the file at {@code filePath} to {@code newName}.
    *
@@ -232,6 +347,8 @@ public abstract class FtpCommand {
       if (!result) {
         throw new MuleRuntimeException(createStaticMessage(format("Could not rename path '%s' to '%s'", filePath, newName)));
       }
+      fileSystem.onPathModified(source.getPath());
+      fileSystem.onPathModified(target.getPath());
       LOGGER.debug("{} renamed to {}", filePath, newName);
     } catch (Exception e) {
       throw exception(format("Exception was found renaming '%s' to '%s'", source.getPath(), newName), e);
@@ -304,14 +421,23 @@ public abstract class FtpCommand {
    */
   private String getCurrentWorkingDirectory() {
     try {
-      return client.printWorkingDirectory();
+      return fileSystem.printWorkingDirectory();
     } catch (Exception e) {
       throw exception("Failed to determine current working directory");
     }
   }
 
-  private Optional<FTPFile> doGetFileFromAbsoluteUri(URI absoluteUri) throws IOException {
+  private Optional<FTPFile> doGetFileFromAbsoluteUri(URI absoluteUri, boolean useIndexedListings) throws IOException {
     String filePath = normalizeUri(absoluteUri).getPath();
+    if (useIndexedListings) {
+      Optional<FTPFile> cachedFile = findFileInCachedListing(absoluteUri);
+      if (cachedFile.isPresent()) {
+        return cachedFile;
+      }
+    } else {
+      // the listing of the parent directory no longer describes the file as it is now
+      fileSystem.onPathModified(filePath);
+    }
     if (fileSystem.isFeatureSupported(MLST.getCommand())) {
       try {
         FTPFile ftpFile = client.mlistFile(filePath);
@@ -322,9 +448,54 @@ public abstract class FtpCommand {
         LOGGER.debug(e.getMessage());
       }
     }
+    if (getParentPath(absoluteUri) != null && fileSystem.isSizeAndModificationTimeLookup()) {
+      Long size = getSize(filePath);
+      // A path without size may be a directory, on which many servers refuse MDTM as well, a file which the server won't tell
+      // the size of, as some do in ASCII mode, or a missing path. Only its parent directory's listing tells them apart
+      if (size != null) {
+        return Optional.of(getFileBySizeAndModificationTime(filePath, size));
+      }
+    }
     return getFileFromParentDirectory(absoluteUri);
   }
 
+  /**
+   * Obtains the attributes of a file with the {@code SIZE} and {@code MDTM} commands, which are answered on the control
+   * connection.
+   *
+   * @param filePath the absolute path of the file
+   * @param size     the size of the file as answered by the {@code SIZE} command
+   * @return the file
+   * @throws IOException if the commands could not be sent
+   */
+  private FTPFile getFileBySizeAndModificationTime(String filePath, long size) throws IOException {
+    FTPFile ftpFile = new FTPFile();
+    ftpFile.setName(FilenameUtils.getName(filePath));
+    ftpFile.setType(FILE_TYPE);
+    ftpFile.setSize(size);
+    ftpFile.setTimestamp(client.mdtmCalendar(filePath));
+    return ftpFile;
+  }
+
+  /**
+   * @param filePath the absolute path of a file
+   * @return the size of the file as answered by the {@code SIZE} command, or {@code null} if the server could not tell it
+   * @throws IOException if the command could not be sent
+   */
+  private Long getSize(String filePath) throws IOException {
+    String size = client.getSize(filePath);
+    if (size == null) {
+      return null;
+    }
+
+    try {
+      return Long.parseLong(size.trim());
+    } catch (NumberFormatException e) {
+      LOGGER.debug("Could not parse the reply of the SIZE command for path '{}': {}", filePath, size);
+      return null;
+    }
+  }
+
   private Optional<FTPFile> getFileFromParentDirectory(URI absoluteUri) throws IOException {
     String filePath = normalizePath(absoluteUri.getPath());
     String fileParentPath = getParentPath(absoluteUri);
@@ -333,12 +504,21 @@ public abstract class FtpCommand {
       return Optional.of(createRootFile());
     }
 
+    if (fileSystem.isControlChannelListing()) {
+      // Files are looked up by their own path only. The parent directory is not listed that way, since its whole listing would
+      // be held in a single reply, so directories and paths which are not found are looked up over a data connection as usual.
+      Optional<FTPFile> file = getFileOnControlChannel(filePath);
+      if (file.isPresent()) {
+        return file;
+      }
+    }
+
     if (tryChangeWorkingDirectory(fileParentPath)) {
       // It's a directory
       if (FilenameUtils.getExtension(filePath).isEmpty()) {
-        return findFileByListingParentDirectory(filePath);
+        return findFileByListingParentDirectory(fileParentPath, filePath);
       }
-      return findFileByPath(filePath);
+      return findFileByPath(fileParentPath, filePath);
     }
 
     return Optional.empty();
@@ -347,23 +527,24 @@ public abstract class FtpCommand {
   /**
    * This method validates if initiateClientListParsing is supported and if it is, it tries to find the file directly, if not it lists the parent directory and does a linear search
    *
+   * @param parentPath     the path of the parent directory, which is the current working directory
    * @param filePath       the path to the file to be found
    * @return Optional with the file if it was found, empty otherwise
    * @throws IOException if the parent directory could not be listed
    */
-  private Optional<FTPFile> findFileByPath(String filePath) throws IOException {
+  private Optional<FTPFile> findFileByPath(String parentPath, String filePath) throws IOException {
     SingleFileListingMode singleFileListingMode = fileSystem.getSingleFileListingMode();
 
     if (singleFileListingMode == SingleFileListingMode.UNSUPPORTED
         || hasSpecialCharacterUnsupportedForSingleFileListing(filePath)) {
-      return findFileByListingParentDirectory(filePath);
+      return findFileByListingParentDirectory(parentPath, filePath);
     }
 
     if (singleFileListingMode == SingleFileListingMode.SUPPORTED) {
       return getFtpFileByList(filePath);
     }
 
-    return tryEfficientListingFirst(filePath);
+    return tryEfficientListingFirst(parentPath, filePath);
   }
 
   /**
@@ -379,12 +560,12 @@ public abstract class FtpCommand {
     return hasSpecialCharacters;
   }
 
-  private Optional<FTPFile> tryEfficientListingFirst(String filePath) throws IOException {
+  private Optional<FTPFile> tryEfficientListingFirst(String parentPath, String filePath) throws IOException {
     Optional<FTPFile> file = getFtpFileByList(filePath);
     if (file.isPresent()) {
       fileSystem.setSingleFileListingMode(SingleFileListingMode.SUPPORTED);
     } else {
-      file = findFileByListingParentDirectory(filePath);
+      file = findFileByListingParentDirectory(parentPath, filePath);
       if (file.isPresent()) {
         fileSystem.setSingleFileListingMode(SingleFileListingMode.UNSUPPORTED);
       }
@@ -411,14 +592,26 @@ public abstract class FtpCommand {
   }
 
   /**
-   * This method does a linear search of the file by listing the parent directory and comparing the name of the file
+   * This method does a linear search of the file by listing the parent directory and comparing the name of the file. If the
+   * listings are indexed, the whole parent directory is listed and kept in the {@link FtpFileSystem#getLookupIndex() lookup
+   * index}, so that the other files of the directory are found there.
+   * @param parentPath the path of the parent directory, which is the current working directory
    * @param filePath the path to the file to be found
    * @return Optional with the file if it was found, empty otherwise
    * @throws IOException if the parent directory could not be listed
    */
-  private Optional<FTPFile> findFileByListingParentDirectory(String filePath) throws IOException {
+  private Optional<FTPFile> findFileByListingParentDirectory(String parentPath, String filePath) throws IOException {
     // If the file is a directory the list parsing can't find the directory by its name, it needs to do listParsing by current directory
     FTPListParseEngine engine = client.initiateListParsing();
+    DirectoryListingCache lookupIndex = fileSystem.getLookupIndex();
+    if (lookupIndex != null) {
+      FTPFile[] files = engine.getFiles();
+      if (isPositiveCompletion(client.getReplyCode())) {
+        lookupIndex.put(parentPath, files);
+      }
+      return findFileByName(asList(files), filePath);
+    }
+
     while (engine.hasNext()) {
       FTPFile[] files = engine.getNext(FTP_LIST_PAGE_SIZE);
       for (FTPFile file : files) {
@@ -430,7 +623,114 @@ public abstract class FtpCommand {
     return Optional.empty();
   }
 
-  private String getParentPath(URI absoluteUri) {
+  /**
+   * Looks up a file with the {@code STAT} command. Listing a directory that way returns its contents instead, which may hold a
+   * child with the same name as the directory, so an entry is only taken as the file if it is named by the full path of the
+   * file, or if it is the only entry listed and the path is not a directory.
+   *
+   * @param filePath the absolute path of the file
+   * @return Optional with the file if it was found, empty otherwise
+   * @throws IOException if the commands could not be sent
+   */
+  private Optional<FTPFile> getFileOnControlChannel(String filePath) throws IOException {
+    List<FTPFile> entries = listOnControlChannel(filePath);
+    if (entries == null || entries.isEmpty()) {
+      return Optional.empty();
+    }
+
+    String relativePath = stripStart(filePath, "/");
+    Optional<FTPFile> file = entries.stream()
+        .filter(entry -> filePath.equals(entry.getName()) || relativePath.equals(entry.getName()))
+        .findFirst();
+    if (file.isPresent()) {
+      file.get().setName(FilenameUtils.getName(filePath));
+      return file;
+    }
+
+    if (entries.size() == 1 && FilenameUtils.getName(filePath).equals(entries.get(0).getName())
+        && !tryChangeWorkingDirectory(filePath)) {
+      return Optional.of(entries.get(0));
+    }
+    return Optional.empty();
+  }
+
+  /**
+   * Lists the given {@code path} with the {@code STAT} command, which returns the listing on the control connection. The
+   * summary line with the total size of a directory is left out, so a reply which only holds it is an empty listing.
+   *
+   * @param path the path to a file or directory
+   * @return the listed entries or {@code null} if the server could not list the path that way
+   * @throws IOException if the command could not be sent
+   */
+  private List<FTPFile> listOnControlChannel(String path) throws IOException {
+    if (client.getStatus(path) == null) {
+      int replyCode = client.getReplyCode();
+      if (replyCode == COMMAND_NOT_IMPLEMENTED || replyCode == UNRECOGNIZED_COMMAND
+          || replyCode == COMMAND_NOT_IMPLEMENTED_FOR_PARAMETER) {
+        fileSystem.onControlChannelListingRejected();
+      }
+      return null;
+    }
+
+    // The first and last lines of the reply hold the reply code, while the ones in between hold the listing. Those may also be
+    // prefixed by the reply code.
+    String[] replyLines = client.getReplyStrings();
+    List<String> lines = new ArrayList<>();
+    for (int i = 1; i < replyLines.length - 1; i++) {
+      String line = replyLines[i];
+      if (line.length() > MULTILINE_REPLY_PREFIX_LENGTH && line.charAt(MULTILINE_REPLY_PREFIX_LENGTH - 1) == '-'
+          && line.substring(0, MULTILINE_REPLY_PREFIX_LENGTH - 1).chars().allMatch(Character::isDigit)) {
+        line = line.substring(MULTILINE_REPLY_PREFIX_LENGTH);
+      }
+      line = stripStart(line, null);
+      if (!line.isEmpty() && !LISTING_TOTAL_LINE.matcher(line.trim()).matches()) {
+        lines.add(line);
+      }
+    }
+
+    FTPFileEntryParser parser = fileSystem.getControlChannelEntryParser();
+    List<FTPFile> entries = new ArrayList<>(lines.size());
+    for (String line : parser.preParse(lines)) {
+      FTPFile entry = parser.parseFTPEntry(line);
+      if (entry != null) {
+        entries.add(entry);
+      }
+    }
+
+    if (entries.isEmpty() && !lines.isEmpty()) {
+      LOGGER.debug("Could not parse the reply of the STAT command for path '{}'", path);
+      fileSystem.onControlChannelListingRejected();
+      return null;
+    }
+    return entries;
+  }
+
+  /**
+   * Looks for the given file in the indexed listing of its parent directory, without accessing the server
+   *
+   * @param absoluteUri the absolute {@link URI} of the file to be found
+   * @return Optional with the file if its parent directory has an indexed listing which holds it, empty otherwise
+   */
+  private Optional<FTPFile> findFileInCachedListing(URI absoluteUri) {
+    DirectoryListingCache lookupIndex = fileSystem.getLookupIndex();
+    String fileParentPath = getParentPath(absoluteUri);
+    if (lookupIndex == null || fileParentPath == null) {
+      return Optional.empty();
+    }
+
+    return Optional.ofNullable(lookupIndex.find(fileParentPath, FilenameUtils.getName(normalizeUri(absoluteUri).getPath())));
+  }
+
+  private Optional<FTPFile> findFileByName(List<FTPFile> entries, String filePath) {
+    String fileName = FilenameUtils.getName(filePath);
+    return entries.stream().filter(file -> fileName.equals(file.getName())).findFirst();
+  }
+
+  /**
+   * @param absoluteUri the absolute {@link URI} of a file or directory
+   * @return the path of its parent directory, or {@code null} if it is the root directory
+   */
+  protected String getParentPath(URI absoluteUri) {
     URI parentPath = trimLastFragment(absoluteUri);
     if (parentPath == null || isBlank(parentPath.getPath())) {
       return isNotBlank(normalizeUri(absoluteUri).getPath()) ? ROOT : null;
@@ -458,11 +758,12 @@ public abstract class FtpCommand {
         subUri = trimLastFragment(subUri);
       }
 
+      // each directory is created by its absolute path after its parent, so they can all be sent without waiting for the replies
+      List<String> directories = new ArrayList<>(fragments.size());
       while (!fragments.isEmpty()) {
-        URI fragment = fragments.pop();
-        makeDirectory(normalizeUri(fragment).getPath());
-        changeWorkingDirectory(fragment.getPath());
+        directories.add(normalizeUri(fragments.pop()).getPath());
       }
+      makeDirectories(directories);
     } catch (Exception e) {
       throw exception("Found exception trying to recursively create directory " + directoryUri.getPath(), e);
     } finally {
@@ -482,7 +783,9 @@ public abstract class FtpCommand {
   }
 
   /**
-   * Returns a properly formatted {@link MuleRuntimeException} for the given {@code message} and {@code cause}
+   * Returns a properly formatted {@link MuleRuntimeException} for the given {@code message} and {@code cause}. Failures of the
+   * connection are given a {@link ConnectionException} as direct cause, including those which were already reported as such,
+   * so that they surface as connectivity errors and the connection is discarded.
    *
    * @param message the exception's message
    * @param cause the exception's cause
@@ -491,6 +794,8 @@ public abstract class FtpCommand {
   public RuntimeException exception(String message, Exception cause) {
     if (cause instanceof FTPConnectionClosedException) {
       cause = new ConnectionException(cause);
+    } else if (cause instanceof MuleRuntimeException && cause.getCause() instanceof ConnectionException) {
+      cause = (ConnectionException) cause.getCause();
     }
     return new MuleRuntimeException(createStaticMessage(message), cause);
   }
@@ -503,7 +808,8 @@ public abstract class FtpCommand {
    * Given a {@link String}path to a directory relative to the basePath, this method checks if the directory exists and returns an
    * {@link Optional} with the {@link URI} to it, or an empty one if the directory does not exist. To check the existance of the
    * directory it is tried to change the working directory to it. Note that if the check is successful the underlying
-   * {@link FtpFileSystem} will have its working directory changed.
+   * {@link FtpFileSystem} will have its working directory changed. Directories which the running operation already knows not to
+   * exist are not tried again, see {@link PathLookupMemo}.
    *
    * @param directory directory you want to get the path from
    * @return an {@link Optional} with the path to the directory if it exists, or an empty one if the directory does not exist.
@@ -511,12 +817,20 @@ public abstract class FtpCommand {
   protected Optional<URI> getUriToDirectory(String directory) {
     URI baseUri = createUri(SEPARATOR, fileSystem.getBasePath());
     URI uri = directory == null ? baseUri : createUri(baseUri.getPath(), directory);
+    PathLookupMemo lookupMemo = fileSystem.getLookupMemo();
+    if (lookupMemo != null && Boolean.FALSE.equals(lookupMemo.isDirectory(uri.getPath()))) {
+      return Optional.empty();
+    }
+
     boolean couldChangeWorkingDir;
     try {
-      couldChangeWorkingDir = fileSystem.getClient().changeWorkingDirectory(normalizePath(uri.getPath()));
+      couldChangeWorkingDir = fileSystem.changeWorkingDirectory(normalizePath(uri.getPath()));
     } catch (IOException e) {
       couldChangeWorkingDir = false;
     }
+    if (lookupMemo != null) {
+      lookupMemo.putDirectory(uri.getPath(), couldChangeWorkingDir);
+    }
 
     return couldChangeWorkingDir ? Optional.of(uri) : Optional.empty();
   }
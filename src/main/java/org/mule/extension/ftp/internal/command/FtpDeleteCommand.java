@@ -7,7 +7,10 @@
 package org.mule.extension.ftp.internal.command;
 
 import static java.lang.String.format;
+import static org.apache.commons.net.ftp.FTPCmd.DELE;
+import static org.apache.commons.net.ftp.FTPReply.isPositiveCompletion;
 import static org.mule.extension.ftp.api.UriUtils.createUri;
+import static org.mule.extension.ftp.api.UriUtils.trimLastFragment;
 import static org.mule.extension.ftp.internal.FtpUtils.normalizePath;
 import static org.slf4j.LoggerFactory.getLogger;
 import org.mule.extension.ftp.internal.operation.DeleteCommand;
@@ -16,6 +19,8 @@ import org.mule.extension.ftp.internal.connection.FtpFileSystem;
 
 import java.io.IOException;
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.apache.commons.net.ftp.FTPClient;
 import org.apache.commons.net.ftp.FTPFile;
@@ -41,11 +46,15 @@ public final class FtpDeleteCommand extends FtpCommand implements DeleteCommand
     boolean isDirectory = ftpFileAttributes.isDirectory();
     URI uri = createUri(ftpFileAttributes.getPath());
 
-    if (isDirectory) {
-      LOGGER.debug("Preparing to delete directory '{}'", uri.getPath());
-      deleteDirectory(uri);
-    } else {
-      deleteFile(uri);
+    try {
+      if (isDirectory) {
+        LOGGER.debug("Preparing to delete directory '{}'", uri.getPath());
+        deleteDirectory(uri);
+      } else {
+        deleteFile(uri);
+      }
+    } finally {
+      fileSystem.onPathModified(uri.getPath());
     }
   }
 
@@ -61,6 +70,35 @@ public final class FtpDeleteCommand extends FtpCommand implements DeleteCommand
     logDelete(uri);
   }
 
+  /**
+   * Deletes the given files, which are independent of each other, so that their deletions can be pipelined
+   *
+   * @param uris the absolute {@link URI URIs} of the files to delete
+   */
+  private void deleteFiles(List<URI> uris) {
+    if (uris.isEmpty()) {
+      return;
+    }
+    List<String> paths = new ArrayList<>(uris.size());
+    for (URI uri : uris) {
+      fileSystem.verifyNotLocked(uri);
+      paths.add(normalizePath(uri.getPath()));
+    }
+
+    int[] replies;
+    try {
+      replies = pipelinedCommandExecutor.execute(DELE, paths);
+    } catch (Exception e) {
+      throw exception("Found Exception while deleting files of directory " + trimLastFragment(uris.get(0)).getPath(), e);
+    }
+    for (int i = 0; i < replies.length; i++) {
+      if (!isPositiveCompletion(replies[i])) {
+        throw exception("Could not delete file " + uris.get(i).getPath());
+      }
+      logDelete(uris.get(i));
+    }
+  }
+
   private void deleteDirectory(URI uri) {
     changeWorkingDirectory(uri.getPath());
     FTPFile[] files;
@@ -70,6 +108,8 @@ public final class FtpDeleteCommand extends FtpCommand implements DeleteCommand
       throw exception(format("Could not list contents of directory '%s' while trying to delete it", uri.getPath()), e);
     }
 
+    List<URI> fileUris = new ArrayList<>();
+    List<URI> directoryUris = new ArrayList<>();
     for (FTPFile file : files) {
       if (file != null && isVirtualDirectory(file.getName())) {
         continue;
@@ -79,12 +119,15 @@ public final class FtpDeleteCommand extends FtpCommand implements DeleteCommand
 
       final URI fileUri = createUri(ftpFileAttributes.getPath());
       if (ftpFileAttributes.isDirectory()) {
-        deleteDirectory(fileUri);
+        directoryUris.add(fileUri);
       } else {
-        deleteFile(fileUri);
+        fileUris.add(fileUri);
       }
     }
 
+    deleteFiles(fileUris);
+    directoryUris.forEach(this::deleteDirectory);
+
     boolean removed;
     try {
       client.changeToParentDirectory();
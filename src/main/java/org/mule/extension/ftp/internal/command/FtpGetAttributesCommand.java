@@ -0,0 +1,173 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.extension.ftp.internal.command;
+
+import static java.lang.String.format;
+import static org.apache.commons.net.ftp.FTPCmd.MLST;
+import static org.apache.commons.net.ftp.FTPReply.isPositiveCompletion;
+import static org.mule.extension.ftp.internal.FtpUtils.normalizePath;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import org.mule.extension.ftp.api.ftp.FtpBulkFileAttributes;
+import org.mule.extension.ftp.api.ftp.FtpFileAttributes;
+import org.mule.extension.ftp.internal.connection.DirectoryListingCache;
+import org.mule.extension.ftp.internal.connection.FtpFileSystem;
+import org.mule.extension.ftp.internal.operation.GetAttributesCommand;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.net.MalformedServerReplyException;
+import org.apache.commons.net.ftp.FTPClient;
+import org.apache.commons.net.ftp.FTPFile;
+import org.slf4j.Logger;
+
+/**
+ * A {@link FtpCommand} which implements the {@link GetAttributesCommand} contract.
+ * <p>
+ * The requested paths are grouped by their parent directory, which is listed once for all of them. Directories with only a
+ * couple of requested paths have them looked up one by one instead when the server supports the {@code MLST} command, since that
+ * takes less round trips than opening a data connection.
+ *
+ * @since 3.0
+ */
+public final class FtpGetAttributesCommand extends FtpCommand implements GetAttributesCommand {
+
+  private static final Logger LOGGER = getLogger(FtpGetAttributesCommand.class);
+  private static final int MAX_INDIVIDUAL_LOOKUPS_PER_DIRECTORY = 2;
+  private static final FTPFile[] NO_ENTRIES = new FTPFile[0];
+
+  /**
+   * {@inheritDoc}
+   */
+  public FtpGetAttributesCommand(FtpFileSystem fileSystem, FTPClient client) {
+    super(fileSystem, client);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public FtpBulkFileAttributes getAttributes(List<String> filePaths) {
+    Map<String, URI> uris = new LinkedHashMap<>();
+    Map<String, List<String>> pathsByParent = new LinkedHashMap<>();
+    Map<String, FtpFileAttributes> found = new HashMap<>();
+    for (String filePath : filePaths) {
+      if (uris.containsKey(filePath)) {
+        continue;
+      }
+      URI uri = resolveFileUri(filePath);
+      uris.put(filePath, uri);
+      String parentPath = getParentPath(uri);
+      if (parentPath == null) {
+        found.put(filePath, getFile(uri.getPath()));
+      } else {
+        pathsByParent.computeIfAbsent(parentPath, parent -> new ArrayList<>()).add(filePath);
+      }
+    }
+
+    pathsByParent.forEach((parentPath, paths) -> lookUpInDirectory(parentPath, paths, uris, found));
+
+    Map<String, FtpFileAttributes> attributes = new LinkedHashMap<>();
+    List<String> missingPaths = new ArrayList<>();
+    for (String filePath : uris.keySet()) {
+      FtpFileAttributes fileAttributes = found.get(filePath);
+      if (fileAttributes != null) {
+        attributes.put(filePath, fileAttributes);
+      } else {
+        missingPaths.add(filePath);
+      }
+    }
+    LOGGER.debug("Obtained the attributes of {} paths in {} directories, {} of them don't exist", uris.size(),
+                 pathsByParent.size(), missingPaths.size());
+    return new FtpBulkFileAttributes(attributes, missingPaths);
+  }
+
+  private void lookUpInDirectory(String parentPath, List<String> filePaths, Map<String, URI> uris,
+                                 Map<String, FtpFileAttributes> found) {
+    FTPFile[] entries = null;
+    if (filePaths.size() > MAX_INDIVIDUAL_LOOKUPS_PER_DIRECTORY || !fileSystem.isFeatureSupported(MLST.getCommand())) {
+      entries = listDirectory(parentPath);
+    }
+
+    if (entries == null) {
+      filePaths.forEach(filePath -> found.put(filePath, getFile(uris.get(filePath).getPath())));
+      return;
+    }
+
+    Map<String, FTPFile> entriesByName = new HashMap<>();
+    for (FTPFile entry : entries) {
+      if (entry != null) {
+        entriesByName.putIfAbsent(entry.getName(), entry);
+      }
+    }
+    for (String filePath : filePaths) {
+      URI uri = uris.get(filePath);
+      FTPFile entry = entriesByName.get(FilenameUtils.getName(uri.getPath()));
+      if (entry != null) {
+        found.put(filePath, new FtpFileAttributes(uri, entry));
+      }
+    }
+  }
+
+  /**
+   * Lists the given directory, or reuses its indexed listing if there is one, see {@link FtpFileSystem#getLookupIndex()}
+   *
+   * @param directoryPath the absolute path of a directory
+   * @return the entries of the directory, none if it can't be changed into, or {@code null} if it could not be listed
+   */
+  private FTPFile[] listDirectory(String directoryPath) {
+    DirectoryListingCache lookupIndex = fileSystem.getLookupIndex();
+    FTPFile[] entries = lookupIndex != null ? lookupIndex.get(directoryPath) : null;
+    if (entries != null) {
+      return entries;
+    }
+
+    try {
+      // Only MLSD is guaranteed to reject a path which is not a directory, otherwise changing the working directory checks it
+      if (fileSystem.isAbsolutePathListing() && fileSystem.isFeatureSupported(MLST.getCommand())) {
+        entries = listByAbsolutePath(directoryPath);
+      }
+      if (entries == null) {
+        if (!tryChangeWorkingDirectory(directoryPath)) {
+          return NO_ENTRIES;
+        }
+        entries = client.listFiles();
+        if (!isPositiveCompletion(client.getReplyCode())) {
+          LOGGER.debug("Server rejected the listing of directory '{}'. {}", directoryPath, client.getReplyString());
+          return null;
+        }
+      }
+    } catch (IOException e) {
+      throw exception(format("Failed to list files on directory '%s'", directoryPath), e);
+    }
+
+    if (lookupIndex != null) {
+      lookupIndex.put(directoryPath, entries);
+    }
+    return entries;
+  }
+
+  private FTPFile[] listByAbsolutePath(String directoryPath) throws IOException {
+    try {
+      FTPFile[] entries = client.mlistDir(normalizePath(directoryPath));
+      if (isPositiveCompletion(client.getReplyCode())) {
+        return entries;
+      }
+    } catch (MalformedServerReplyException e) {
+      LOGGER.debug("Server answered the MLSD command for path '{}' with a MalformedServerReplyException: {}", directoryPath,
+                   e.getMessage());
+    }
+    return null;
+  }
+}
@@ -7,27 +7,38 @@
 package org.mule.extension.ftp.internal.command;
 
 import static java.lang.String.format;
+import static java.util.Optional.empty;
+import static java.util.Optional.of;
 import static org.apache.commons.net.ftp.FTPCmd.MLST;
+import static org.mule.extension.ftp.api.PredicateType.EXTERNAL_FILE_SYSTEM;
 import static org.mule.extension.ftp.api.UriUtils.createUri;
-import static org.mule.extension.ftp.api.UriUtils.trimLastFragment;
 import static org.mule.extension.ftp.internal.FtpUtils.getReplyErrorMessage;
 import static org.mule.extension.ftp.internal.FtpUtils.normalizePath;
 import static org.slf4j.LoggerFactory.getLogger;
 import static org.apache.commons.net.ftp.FTPReply.isPositiveCompletion;
 
+import org.mule.extension.ftp.internal.FtpConnector;
 import org.mule.extension.ftp.internal.config.FileConnectorConfig;
 import org.mule.extension.ftp.internal.operation.ListCommand;
 import org.mule.extension.ftp.api.ftp.FtpFileAttributes;
+import org.mule.extension.ftp.api.matchers.DescendantAwarePredicate;
+import org.mule.extension.ftp.api.matchers.FilenameGlobPredicate;
+import org.mule.extension.ftp.internal.connection.DirectoryListingCache;
 import org.mule.extension.ftp.internal.connection.FtpFileSystem;
+import org.mule.extension.ftp.internal.subset.SubsetList;
+import org.mule.extension.ftp.internal.subset.SubsetListProcessor;
 import org.mule.runtime.api.metadata.MediaType;
 import org.mule.runtime.extension.api.runtime.operation.Result;
 
 import java.io.IOException;
 import java.net.URI;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.Optional;
 import java.util.function.Predicate;
 
 import org.apache.commons.net.MalformedServerReplyException;
@@ -45,6 +56,8 @@ public final class FtpListCommand extends FtpCommand implements ListCommand {
 
   private static final Logger LOGGER = getLogger(FtpListCommand.class);
   private static final int FTP_LIST_PAGE_SIZE = 25;
+  private static final String RECURSIVE_LIST_ARGUMENT = "-R";
+  private static final String GLOB_PREFIX = "glob:";
   private final FtpReadCommand ftpReadCommand;
 
   /**
@@ -63,85 +76,157 @@ public final class FtpListCommand extends FtpCommand implements ListCommand {
                                                       String directoryPath,
                                                       boolean recursive,
                                                       Predicate<FtpFileAttributes> matcher) {
+    CompactListing accumulator = new CompactListing();
+    iterate(config, directoryPath, recursive, matcher).forEachRemaining(accumulator::add);
+    accumulator.trimToSize();
+    return accumulator;
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>
+   * Directories are listed one at a time as the returned {@link Iterator} is consumed, so only the entries of the directories
+   * which are currently being traversed are held in memory. Each of those directories is held whole, though: the client reads
+   * the complete reply of a {@code MLSD} or {@code LIST} command before its first entry is returned, see
+   * {@link #getFtpFileIterator()}. The memory used by a listing is thus bounded by its largest directories, not by the page
+   * size. The returned {@link Iterator} uses the {@link #client} on each invocation, so it <b>MUST</b> be consumed while the
+   * connection is still held.
+   * <p>
+   * When the {@code config} allows a {@link FtpConnector#getListingParallelism()} greater than 1, recursive listings are instead
+   * performed eagerly by a {@link ParallelDirectoryWalker} and the order of the results is not defined.
+   */
+  @Override
+  public Iterator<Result<String, FtpFileAttributes>> iterate(FileConnectorConfig config,
+                                                             String directoryPath,
+                                                             boolean recursive,
+                                                             Predicate<FtpFileAttributes> matcher) {
     URI uri = resolvePath(normalizePath(directoryPath));
+    boolean parallel = recursive && isParallelListingEnabled(config);
+    boolean serverSideRecursive = recursive && !parallel && fileSystem.isServerSideRecursiveListing();
+
+    DirectoryListingCache listingCache = fileSystem.getListingCache();
+    if (listingCache != null && !parallel && !serverSideRecursive) {
+      FTPFile[] cachedListing = listingCache.get(uri.getPath());
+      if (cachedListing != null) {
+        return new FtpListingIterator(uri, new SingleItemIterator<>(cachedListing), recursive, matcher);
+      }
+    }
 
-    if (!tryChangeWorkingDirectory(uri.getPath())) {
+    // Only MLSD is guaranteed to reject a path which is not a directory, so the root of the listing is only listed by its
+    // absolute path when that command is available. Otherwise, changing the working directory also checks that it is a directory.
+    Optional<String> filenameGlob = recursive ? empty() : getFilenameGlobToPushDown(matcher);
+    boolean listRootByAbsolutePath = !parallel && !serverSideRecursive && !filenameGlob.isPresent()
+        && fileSystem.isAbsolutePathListing() && fileSystem.isFeatureSupported(MLST.getCommand());
+    Iterator<FTPFile[]> rootPages = null;
+    if (listRootByAbsolutePath) {
+      try {
+        rootPages = listByAbsolutePath(uri.getPath()).orElse(null);
+      } catch (Exception e) {
+        throw exception(format("Failed to list files on directory '%s'", uri.getPath()), e);
+      }
+    }
 
-      FtpFileAttributes directoryAttributes = getExistingFile(directoryPath);
+    if (rootPages == null) {
+      if (!tryChangeWorkingDirectory(uri.getPath())) {
+
+        FtpFileAttributes directoryAttributes = getExistingFile(directoryPath);
+
+        if (!directoryAttributes.isDirectory()) {
+          throw cannotListFileException(uri);
+        }
 
-      if (!directoryAttributes.isDirectory()) {
-        throw cannotListFileException(uri);
+        throw exception(format("Could not change working directory to '%s' while trying to list that directory",
+                               uri.getPath()));
       }
 
-      throw exception(format("Could not change working directory to '%s' while trying to list that directory", uri.getPath()));
+      if (listRootByAbsolutePath) {
+        fileSystem.onAbsolutePathListingRejected();
+      }
     }
 
-    List<Result<String, FtpFileAttributes>> accumulator = new LinkedList<>();
-
-    try {
-      doList(config, uri, accumulator, recursive, matcher);
+    if (filenameGlob.isPresent()) {
+      try {
+        rootPages = listByFilenameGlob(filenameGlob.get());
+      } catch (Exception e) {
+        throw exception(format("Failed to list files on directory '%s'", uri.getPath()), e);
+      }
+    }
 
-      if (!isPositiveCompletion(client.getReplyCode())) {
-        throw exception(format("Failed to list files on directory '%s'", uri.getPath()));
+    if (serverSideRecursive) {
+      try {
+        Iterator<Result<String, FtpFileAttributes>> sectionedListing = listRecursivelyOnServer(uri, matcher);
+        if (sectionedListing != null) {
+          return sectionedListing;
+        }
+      } catch (Exception e) {
+        throw exception(format("Failed to list files on directory '%s'", uri.getPath()), e);
       }
+    }
 
+    if (parallel) {
+      List<Result<String, FtpFileAttributes>> results;
+      try {
+        results = new ParallelDirectoryWalker((FtpConnector) config, matcher).walk(fileSystem, uri.getPath());
+      } catch (Exception e) {
+        throw exception(format("Failed to list files on directory '%s'", uri.getPath()), e);
+      }
       changeWorkingDirectory(uri.getPath());
-    } catch (Exception e) {
-      throw exception(format("Failed to list files on directory '%s'", uri.getPath()), e);
+      return results.iterator();
     }
 
-    return accumulator;
+    // listings filtered by a file name pattern are not complete, so they are never cached
+    if (listingCache != null && !filenameGlob.isPresent()) {
+      try {
+        rootPages = cacheListing(uri, rootPages != null ? rootPages : getFtpFileIterator());
+      } catch (Exception e) {
+        throw exception(format("Failed to list files on directory '%s'", uri.getPath()), e);
+      }
+    }
+    return new FtpListingIterator(uri, rootPages, recursive, matcher);
   }
 
-  private void doList(FileConnectorConfig config,
-                      URI uri,
-                      List<Result<String, FtpFileAttributes>> accumulator,
-                      boolean recursive,
-                      Predicate<FtpFileAttributes> matcher)
-      throws IOException {
-    LOGGER.debug("Listing directory {}", uri.getPath());
-
-    Iterator<FTPFile[]> iterator = getFtpFileIterator();
-    while (iterator.hasNext()) {
-      FTPFile[] files = iterator.next();
-      if (files == null || files.length == 0) {
-        return;
-      }
+  /**
+   * @param matcher       the {@link Predicate} used to filter a listing
+   * @param directoryPath the absolute path of a directory
+   * @return whether the given directory has to be walked through because it may contain entries accepted by the
+   *         {@code matcher}, see {@link DescendantAwarePredicate}
+   */
+  static boolean mayContainMatches(Predicate<FtpFileAttributes> matcher, String directoryPath) {
+    return !(matcher instanceof DescendantAwarePredicate)
+        || ((DescendantAwarePredicate<FtpFileAttributes>) matcher).mayAcceptDescendantsOf(directoryPath);
+  }
 
-      for (FTPFile file : files) {
-        if (file != null) {
-          final URI fileUri = createUri(uri.getPath(), file.getName());
-          FtpFileAttributes attributes = new FtpFileAttributes(fileUri, file);
+  private boolean isParallelListingEnabled(FileConnectorConfig config) {
+    return config instanceof FtpConnector && ((FtpConnector) config).getListingParallelism() > 1;
+  }
 
-          if (isVirtualDirectory(attributes.getName())) {
-            continue;
-          }
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public List<Result<String, FtpFileAttributes>> list(FileConnectorConfig config,
+                                                      String directoryPath,
+                                                      boolean recursive,
+                                                      Predicate<FtpFileAttributes> matcher,
+                                                      SubsetList subsetList) {
+    CompactListing accumulator = new CompactListing();
+    iterate(config, directoryPath, recursive, matcher, subsetList).forEachRemaining(accumulator::add);
+    accumulator.trimToSize();
+    return accumulator;
+  }
 
-          if (attributes.isDirectory()) {
-            if (matcher.test(attributes)) {
-              accumulator.add(Result.<String, FtpFileAttributes>builder().output(null).attributes(attributes).build());
-            }
-
-            if (recursive) {
-              URI recursionUri = createUri(uri.getPath(), normalizePath(attributes.getName()));
-              if (!client.changeWorkingDirectory(attributes.getName())) {
-                throw exception(format("Could not change working directory to '%s' while performing recursion on list operation",
-                                       recursionUri.getPath()));
-              }
-              doList(config, recursionUri, accumulator, recursive, matcher);
-              if (!client.changeToParentDirectory()) {
-                throw exception(format("Could not return to parent working directory '%s' while performing recursion on list operation",
-                                       trimLastFragment(recursionUri).getPath()));
-              }
-            }
-          } else {
-            if (matcher.test(attributes)) {
-              accumulator.add(getFilePath(fileUri, attributes));
-            }
-          }
-        }
-      }
-    }
+  /**
+   * {@inheritDoc}
+   * <p>
+   * The {@code subsetList} is evaluated while the directories are being traversed, see {@link SubsetListProcessor}.
+   */
+  @Override
+  public Iterator<Result<String, FtpFileAttributes>> iterate(FileConnectorConfig config,
+                                                             String directoryPath,
+                                                             boolean recursive,
+                                                             Predicate<FtpFileAttributes> matcher,
+                                                             SubsetList subsetList) {
+    return SubsetListProcessor.apply(iterate(config, directoryPath, recursive, matcher), subsetList);
   }
 
   private Result<String, FtpFileAttributes> getFilePath(URI fileUri, FtpFileAttributes attributes) {
@@ -150,6 +235,15 @@ public final class FtpListCommand extends FtpCommand implements ListCommand {
         .attributes(attributes).build();
   }
 
+  /**
+   * Lists the current working directory. The client reads the whole listing of the directory before returning, since the data
+   * connection has to be drained and the command completed before the control connection can be used again, and the
+   * directories of a listing are traversed with it. Entries of a {@code LIST} reply are kept as raw lines and parsed
+   * {@link #FTP_LIST_PAGE_SIZE} at a time as the pages are consumed, while a {@code MLSD} reply is parsed at once.
+   *
+   * @return the pages of the listing
+   * @throws IOException if the listing could not be obtained
+   */
   private Iterator<FTPFile[]> getFtpFileIterator() throws IOException {
     // Check for MLST feature in accordance with rfc-3659, which states that
     // the presence of the MLST feature indicates that both MLST and MLSD are supported.
@@ -173,6 +267,483 @@ public final class FtpListCommand extends FtpCommand implements ListCommand {
     return new FtpListEngineIterator(client.initiateListParsing());
   }
 
+  /**
+   * When listings are cached, reads the whole listing of a directory and keeps it in the {@link DirectoryListingCache}.
+   *
+   * @param directoryUri the {@link URI} of the listed directory
+   * @param pages        the pages of the listing
+   * @return the pages of the listing, which are read in advance if listings are cached
+   */
+  private Iterator<FTPFile[]> cacheListing(URI directoryUri, Iterator<FTPFile[]> pages) {
+    DirectoryListingCache listingCache = fileSystem.getListingCache();
+    if (listingCache == null) {
+      return pages;
+    }
+
+    List<FTPFile> files = new ArrayList<>();
+    while (pages.hasNext()) {
+      FTPFile[] page = pages.next();
+      if (page == null || page.length == 0) {
+        break;
+      }
+      for (FTPFile file : page) {
+        if (file != null) {
+          files.add(file);
+        }
+      }
+    }
+
+    if (!isPositiveCompletion(client.getReplyCode())) {
+      throw exception(format("Failed to list files on directory '%s'", directoryUri.getPath()));
+    }
+    FTPFile[] listing = files.toArray(new FTPFile[0]);
+    listingCache.put(directoryUri.getPath(), listing);
+    return new SingleItemIterator<>(listing);
+  }
+
+  private Optional<String> getFilenameGlobToPushDown(Predicate<FtpFileAttributes> matcher) {
+    if (fileSystem.isFilenamePatternPushdown() && matcher instanceof FilenameGlobPredicate) {
+      // servers expand globs as shells do, so a leading wildcard does not match the names starting with a dot which the
+      // matcher accepts, and such entries would be silently missing from the listing
+      return ((FilenameGlobPredicate<FtpFileAttributes>) matcher).getFilenameGlob().filter(glob -> !mayMatchLeadingDot(glob));
+    }
+    return empty();
+  }
+
+  private static boolean mayMatchLeadingDot(String filenameGlob) {
+    return filenameGlob.startsWith("*") || filenameGlob.startsWith("?");
+  }
+
+  /**
+   * Lists the entries of the current working directory which match the given glob, by passing it as the argument of the
+   * {@code LIST} command. The server's answer is only trusted if all the entries match the glob and none of them was
+   * unparseable, since some servers also list the contents of the matching directories. Otherwise, the whole directory is
+   * listed.
+   *
+   * @param filenameGlob a simple glob as given by {@link FilenameGlobPredicate#getFilenameGlob()}
+   * @return the pages of the listing
+   */
+  private Iterator<FTPFile[]> listByFilenameGlob(String filenameGlob) throws IOException {
+    Predicate<String> globMatcher = EXTERNAL_FILE_SYSTEM.getPredicate(GLOB_PREFIX + filenameGlob, true);
+    List<FTPFile> files = new ArrayList<>();
+    boolean honored = true;
+
+    FTPListParseEngine engine = client.initiateListParsing(filenameGlob);
+    if (isPositiveCompletion(client.getReplyCode())) {
+      while (engine.hasNext() && honored) {
+        for (FTPFile file : engine.getNext(FTP_LIST_PAGE_SIZE)) {
+          if (file == null || !globMatcher.test(file.getName())) {
+            honored = false;
+            break;
+          }
+          files.add(file);
+        }
+      }
+    }
+
+    if (!honored) {
+      fileSystem.onFilenamePatternPushdownRejected();
+      return getFtpFileIterator();
+    }
+
+    if (!files.isEmpty()) {
+      fileSystem.onFilenamePatternPushdownHonored();
+      return new SingleItemIterator<>(files.toArray(new FTPFile[0]));
+    }
+
+    if (fileSystem.isFilenamePatternPushdownHonored()) {
+      return new SingleItemIterator<>(new FTPFile[0]);
+    }
+
+    // Until the server has proven to honor the glob, an empty answer may also mean that it looked for an entry literally named
+    // as the glob, so the whole directory is listed to check that nothing was missed.
+    Iterator<FTPFile[]> pages = getFtpFileIterator();
+    while (pages.hasNext()) {
+      FTPFile[] page = pages.next();
+      if (page == null || page.length == 0) {
+        break;
+      }
+      for (FTPFile file : page) {
+        if (file != null) {
+          files.add(file);
+          if (honored && !isVirtualDirectory(file.getName()) && globMatcher.test(file.getName())) {
+            honored = false;
+            fileSystem.onFilenamePatternPushdownRejected();
+          }
+        }
+      }
+    }
+    return new SingleItemIterator<>(files.toArray(new FTPFile[0]));
+  }
+
+  /**
+   * Lists the current working directory and all its sub-directories with one single {@code LIST -R} command.
+   *
+   * @param uri     the {@link URI} of the current working directory
+   * @param matcher the {@link Predicate} used to filter the output
+   * @return an {@link Iterator} over the listed entries or {@code null} if the server rejected the command
+   */
+  private Iterator<Result<String, FtpFileAttributes>> listRecursivelyOnServer(URI uri, Predicate<FtpFileAttributes> matcher)
+      throws IOException {
+    SectionedListingParserFactory parserFactory = fileSystem.getSectionedListingParserFactory();
+    FTPListParseEngine engine;
+    List<SectionedListingParserFactory.Section> sections;
+    parserFactory.arm();
+    try {
+      engine = client.initiateListParsing(RECURSIVE_LIST_ARGUMENT);
+    } finally {
+      sections = parserFactory.disarm();
+    }
+
+    if (!isPositiveCompletion(client.getReplyCode())) {
+      if (LOGGER.isDebugEnabled()) {
+        LOGGER.debug(format("Server answered the LIST -R command with a negative completion code. %s",
+                            getReplyErrorMessage(client.getReplyCode(), client.getReplyString())));
+      }
+      fileSystem.onServerSideRecursiveListingRejected();
+      return null;
+    }
+
+    if (sections.isEmpty()) {
+      FTPFile[] files = engine.getFiles();
+      if (files.length == 0) {
+        // Some servers take the flag for the name of an entry which doesn't exist and successfully list nothing, which cannot
+        // be told apart from an empty directory, so the listing is not trusted
+        LOGGER.debug("Server answered the LIST -R command with an empty listing, walking the directory tree instead");
+        fileSystem.onServerSideRecursiveListingRejected();
+        return null;
+      }
+      // Either the server ignored the flag, and only listed the current directory, or it has no sub-directories. It is only
+      // possible to tell one case from the other by looking for directories in the listing, which is then walked as usual.
+      for (FTPFile file : files) {
+        if (file.isDirectory() && !isVirtualDirectory(file.getName())) {
+          fileSystem.onServerSideRecursiveListingRejected();
+          break;
+        }
+      }
+      return new FtpListingIterator(uri, new SingleItemIterator<>(files), true, matcher);
+    }
+
+    return new SectionedListingIterator(uri, engine, sections, matcher);
+  }
+
+  /**
+   * Lists the directory at the given absolute path without changing the working directory.
+   *
+   * @param path the absolute path of a directory
+   * @return the pages of the listing or an empty {@link Optional} if the server rejected the path argument
+   */
+  private Optional<Iterator<FTPFile[]>> listByAbsolutePath(String path) throws IOException {
+    if (fileSystem.isFeatureSupported(MLST.getCommand())) {
+      try {
+        FTPFile[] files = client.mlistDir(path);
+        if (isPositiveCompletion(client.getReplyCode())) {
+          return of(new SingleItemIterator<>(files));
+        }
+      } catch (MalformedServerReplyException e) {
+        LOGGER.debug("Server answered the MLSD command for path '{}' with a MalformedServerReplyException: {}", path,
+                     e.getMessage());
+      }
+    } else {
+      FTPListParseEngine engine = client.initiateListParsing(path);
+      if (isPositiveCompletion(client.getReplyCode())) {
+        return of(new FtpListEngineIterator(engine));
+      }
+    }
+
+    if (LOGGER.isDebugEnabled()) {
+      LOGGER.debug(format("Server rejected the listing of path '%s'. %s", path,
+                          getReplyErrorMessage(client.getReplyCode(), client.getReplyString())));
+    }
+    return empty();
+  }
+
+  /**
+   * Lazily walks a directory tree, listing each directory only when the entries of its parent have been consumed up to it. The
+   * order of the results is the same as the one of a depth first traversal: the contents of a directory are returned
+   * immediately after the directory itself.
+   * <p>
+   * Sub-directories in which the {@code matcher} can never accept an entry are not walked through. When
+   * {@link FtpFileSystem#isAbsolutePathListing()}, sub-directories are listed by their absolute path and the working
+   * directory is only changed for those which the server refuses to list that way.
+   */
+  private class FtpListingIterator implements Iterator<Result<String, FtpFileAttributes>> {
+
+    private final URI uri;
+    private final boolean recursive;
+    private final Predicate<FtpFileAttributes> matcher;
+    private final Deque<DirectoryCursor> cursors = new ArrayDeque<>();
+    private boolean descended = false;
+    private Result<String, FtpFileAttributes> next;
+
+    private FtpListingIterator(URI uri, Iterator<FTPFile[]> rootPages, boolean recursive,
+                               Predicate<FtpFileAttributes> matcher) {
+      this.uri = uri;
+      this.recursive = recursive;
+      this.matcher = matcher;
+
+      LOGGER.debug("Listing directory {}", uri.getPath());
+      try {
+        cursors.push(new DirectoryCursor(uri, rootPages != null ? rootPages : getFtpFileIterator()));
+      } catch (Exception e) {
+        throw exception(format("Failed to list files on directory '%s'", uri.getPath()), e);
+      }
+    }
+
+    @Override
+    public boolean hasNext() {
+      if (next == null && !cursors.isEmpty()) {
+        try {
+          next = advance();
+        } catch (Exception e) {
+          cursors.clear();
+          throw exception(format("Failed to list files on directory '%s'", uri.getPath()), e);
+        }
+      }
+      return next != null;
+    }
+
+    @Override
+    public Result<String, FtpFileAttributes> next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      Result<String, FtpFileAttributes> result = next;
+      next = null;
+      return result;
+    }
+
+    private Result<String, FtpFileAttributes> advance() throws IOException {
+      while (!cursors.isEmpty()) {
+        DirectoryCursor cursor = cursors.peek();
+        FTPFile file = cursor.nextFile();
+        if (file == null) {
+          cursors.pop();
+          if (cursors.isEmpty()) {
+            onListingCompleted();
+          }
+          continue;
+        }
+
+        final URI fileUri = createUri(cursor.getUri().getPath(), file.getName());
+        FtpFileAttributes attributes = new FtpFileAttributes(fileUri, file);
+
+        if (isVirtualDirectory(attributes.getName())) {
+          continue;
+        }
+
+        if (attributes.isDirectory()) {
+          if (recursive && mayContainMatches(matcher, attributes.getPath())) {
+            cursors.push(openDirectory(createUri(cursor.getUri().getPath(), normalizePath(attributes.getName()))));
+          }
+          if (matcher.test(attributes)) {
+            return Result.<String, FtpFileAttributes>builder().output(null).attributes(attributes).build();
+          }
+        } else if (matcher.test(attributes)) {
+          return getFilePath(fileUri, attributes);
+        }
+      }
+      return null;
+    }
+
+    private DirectoryCursor openDirectory(URI directoryUri) throws IOException {
+      DirectoryListingCache listingCache = fileSystem.getListingCache();
+      FTPFile[] cachedListing = listingCache != null ? listingCache.get(directoryUri.getPath()) : null;
+      if (cachedListing != null) {
+        return new DirectoryCursor(directoryUri, new SingleItemIterator<>(cachedListing));
+      }
+
+      LOGGER.debug("Listing directory {}", directoryUri.getPath());
+      if (fileSystem.isAbsolutePathListing()) {
+        Optional<Iterator<FTPFile[]>> pages = listByAbsolutePath(normalizePath(directoryUri.getPath()));
+        if (pages.isPresent()) {
+          return new DirectoryCursor(directoryUri, cacheListing(directoryUri, pages.get()));
+        }
+        fileSystem.onAbsolutePathListingRejected();
+      }
+
+      if (!fileSystem.changeWorkingDirectory(normalizePath(directoryUri.getPath()))) {
+        throw exception(format("Could not change working directory to '%s' while performing recursion on list operation",
+                               directoryUri.getPath()));
+      }
+      descended = true;
+      return new DirectoryCursor(directoryUri, cacheListing(directoryUri, getFtpFileIterator()));
+    }
+
+    private void onListingCompleted() {
+      // cached listings are checked as soon as they are read, and may not have been read from the server at all
+      if (fileSystem.getListingCache() == null && !isPositiveCompletion(client.getReplyCode())) {
+        throw exception(format("Failed to list files on directory '%s'", uri.getPath()));
+      }
+
+      if (descended) {
+        changeWorkingDirectory(uri.getPath());
+      }
+    }
+  }
+
+  /**
+   * Iterates over the output of a {@code LIST -R} command, resolving each entry against the directory of the section in which it
+   * was listed. Entries are parsed and filtered as the iterator is consumed. The order of the results is the one in which the
+   * server listed them.
+   */
+  private class SectionedListingIterator implements Iterator<Result<String, FtpFileAttributes>> {
+
+    private final URI uri;
+    private final Predicate<FtpFileAttributes> matcher;
+    private final Iterator<SectionedListingParserFactory.Section> sections;
+    private final DirectoryCursor cursor;
+    private SectionedListingParserFactory.Section nextSection;
+    private URI directoryUri;
+    private int position = 0;
+    private Result<String, FtpFileAttributes> next;
+
+    private SectionedListingIterator(URI uri, FTPListParseEngine engine, List<SectionedListingParserFactory.Section> sections,
+                                     Predicate<FtpFileAttributes> matcher) {
+      this.uri = uri;
+      this.matcher = matcher;
+      this.sections = sections.iterator();
+      this.cursor = new DirectoryCursor(uri, new FtpListEngineIterator(engine));
+      this.nextSection = this.sections.next();
+      this.directoryUri = uri;
+    }
+
+    @Override
+    public boolean hasNext() {
+      while (next == null) {
+        FTPFile file = nextEntry();
+        if (file == null) {
+          return false;
+        }
+
+        if (isVirtualDirectory(file.getName())) {
+          continue;
+        }
+
+        URI fileUri = createUri(directoryUri.getPath(), file.getName());
+        FtpFileAttributes attributes = new FtpFileAttributes(fileUri, file);
+        if (matcher.test(attributes)) {
+          next = attributes.isDirectory()
+              ? Result.<String, FtpFileAttributes>builder().output(null).attributes(attributes).build()
+              : getFilePath(fileUri, attributes);
+        }
+      }
+      return true;
+    }
+
+    @Override
+    public Result<String, FtpFileAttributes> next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      Result<String, FtpFileAttributes> result = next;
+      next = null;
+      return result;
+    }
+
+    /**
+     * @return the next parsed entry, updating {@link #directoryUri} to the directory in which it was listed
+     */
+    private FTPFile nextEntry() {
+      FTPFile file;
+      // unparseable entries are returned as null, but they still count for the positions of the sections
+      do {
+        if (!cursor.hasMoreEntries()) {
+          return null;
+        }
+        while (nextSection != null && nextSection.getStart() <= position) {
+          directoryUri = resolveSection(nextSection.getHeader());
+          nextSection = sections.hasNext() ? sections.next() : null;
+        }
+        file = cursor.nextEntry();
+        position++;
+      } while (file == null);
+      return file;
+    }
+
+    private URI resolveSection(String header) {
+      String path = header.trim();
+      if (path.equals(".") || path.isEmpty() || path.equals(uri.getPath())) {
+        return uri;
+      }
+      if (path.startsWith("./")) {
+        path = path.substring(2);
+      }
+      return path.startsWith(SEPARATOR) ? createUri(path) : createUri(uri.getPath(), path);
+    }
+  }
+
+  /**
+   * Keeps track of the position of a {@link FtpListingIterator} inside the listing of one directory
+   */
+  private static class DirectoryCursor {
+
+    private final URI uri;
+    private final Iterator<FTPFile[]> pages;
+    private FTPFile[] page = new FTPFile[0];
+    private int index = 0;
+    private boolean exhausted = false;
+
+    private DirectoryCursor(URI uri, Iterator<FTPFile[]> pages) {
+      this.uri = uri;
+      this.pages = pages;
+    }
+
+    private URI getUri() {
+      return uri;
+    }
+
+    /**
+     * @return whether there are more entries, including unparseable ones, to be returned by {@link #nextEntry()}
+     */
+    private boolean hasMoreEntries() {
+      while (!exhausted && index >= page.length) {
+        if (!pages.hasNext()) {
+          exhausted = true;
+        } else {
+          page = pages.next();
+          index = 0;
+          if (page == null || page.length == 0) {
+            exhausted = true;
+          }
+        }
+      }
+      return !exhausted;
+    }
+
+    /**
+     * @return the next entry of the listing, which is {@code null} if the server's answer for it could not be parsed
+     */
+    private FTPFile nextEntry() {
+      return page[index++];
+    }
+
+    /**
+     * @return the next listed {@link FTPFile} or {@code null} if the directory has no more entries
+     */
+    private FTPFile nextFile() {
+      while (!exhausted) {
+        while (index < page.length) {
+          FTPFile file = page[index++];
+          if (file != null) {
+            return file;
+          }
+        }
+
+        if (!pages.hasNext()) {
+          exhausted = true;
+        } else {
+          page = pages.next();
+          index = 0;
+          if (page == null || page.length == 0) {
+            exhausted = true;
+          }
+        }
+      }
+      return null;
+    }
+  }
+
   private class SingleItemIterator<T> implements Iterator<T> {
 
     private T item;
@@ -6,7 +6,9 @@
  */
 package org.mule.extension.ftp.internal.command;
 
+import static java.lang.Math.min;
 import static java.lang.String.format;
+import static org.mule.extension.ftp.api.ftp.FtpTransferMode.ASCII;
 import static org.mule.extension.ftp.api.UriUtils.createUri;
 import static org.mule.runtime.core.api.util.IOUtils.closeQuietly;
 
@@ -55,6 +57,32 @@ public final class FtpReadCommand extends FtpCommand implements ReadCommand {
     return read(config, attributes, lock, timeBetweenSizeCheck, true);
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Result<InputStream, FtpFileAttributes> read(FileConnectorConfig config, String filePath, boolean lock,
+                                                     Long timeBetweenSizeCheck, long offset, Long length) {
+    if (offset < 0 || (length != null && length < 0)) {
+      throw new IllegalArgumentException(format("The range to read cannot be negative but offset '%d' and length '%d' "
+          + "were provided", offset, length));
+    }
+    if (fileSystem.getTransferMode() == ASCII) {
+      throw new IllegalArgumentException(format("A range of file '%s' cannot be read in ASCII mode, since its offset and "
+          + "length would not match the converted content. Use BINARY mode instead", filePath));
+    }
+
+    FtpFileAttributes attributes = getExistingFile(filePath);
+    if (attributes.isDirectory()) {
+      throw cannotReadDirectoryException(createUri(attributes.getPath()));
+    }
+
+    long rangeOffset = min(offset, attributes.getSize());
+    long remaining = attributes.getSize() - rangeOffset;
+    return read(config, attributes.withRange(rangeOffset, length != null ? min(length, remaining) : remaining), lock,
+                timeBetweenSizeCheck, true);
+  }
+
   /**
    * {@inheritDoc}
    */
@@ -86,7 +114,7 @@ public final class FtpReadCommand extends FtpCommand implements ReadCommand {
                                          Long timeBetweenSizeCheck, boolean useCurrentConnection)
       throws ConnectionException {
     if (useCurrentConnection) {
-      return ClassicFtpInputStream.newInstance(fileSystem, attributes, uriLock, timeBetweenSizeCheck);
+      return ClassicFtpInputStream.newInstance(fileSystem, attributes, uriLock, timeBetweenSizeCheck, config);
     } else {
       return ClassicFtpInputStream.newInstance(config, attributes, uriLock, timeBetweenSizeCheck);
     }
@@ -86,7 +86,7 @@ public final class FtpWriteCommand extends FtpCommand implements WriteCommand {
         if (!outputStreamObtained) {
           outputStream = getOutputStream(normalizedPath, mode);
         }
-        IOUtils.copy(content, outputStream);
+        fileSystem.onDataTransferred(IOUtils.copyLarge(content, outputStream));
         LOGGER.debug("Successfully wrote to path {}", normalizedPath);
       } catch (Exception e) {
         throw exception(format("Exception was found writing to file '%s'", normalizedPath), e);
@@ -95,6 +95,7 @@ public final class FtpWriteCommand extends FtpCommand implements WriteCommand {
         fileSystem.awaitCommandCompletion();
       }
     } finally {
+      fileSystem.onPathModified(uri.getPath());
       uriLock.release();
     }
   }
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.extension.ftp.internal.command;
+
+import static java.lang.Thread.currentThread;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import org.mule.extension.ftp.api.ftp.FtpFileAttributes;
+import org.mule.extension.ftp.internal.FtpConnector;
+import org.mule.extension.ftp.internal.connection.FtpFileSystem;
+import org.mule.runtime.api.connection.ConnectionException;
+import org.mule.runtime.api.connection.ConnectionHandler;
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.runtime.extension.api.runtime.operation.Result;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
+
+import org.slf4j.Logger;
+
+/**
+ * Walks a directory tree listing its sub-directories concurrently over several connections.
+ * <p>
+ * The directories which are pending to be listed are kept in a shared queue. The connection of the thread which started the
+ * walk always takes part in it, while up to {@link FtpConnector#getListingParallelism()} - 1 additional connections are
+ * borrowed from the {@link FtpConnector#getConnectionManager()} and used from the {@link FtpConnector#getScheduler()}. Each
+ * worker takes a directory from the queue, lists it and puts back the sub-directories it finds, so idle workers always pick up
+ * the pending work of the busy ones. If an additional connection cannot be obtained, the walk simply goes on with fewer
+ * workers.
+ * <p>
+ * Unlike the sequential listing, the order of the results is not defined.
+ *
+ * @since 3.0
+ */
+final class ParallelDirectoryWalker {
+
+  private static final Logger LOGGER = getLogger(ParallelDirectoryWalker.class);
+  private static final Predicate<FtpFileAttributes> ACCEPT_ALL = attributes -> true;
+  private static final long POLL_INTERVAL_MILLIS = 50;
+
+  private final FtpConnector config;
+  private final Predicate<FtpFileAttributes> matcher;
+  private final BlockingQueue<String> pendingDirectories = new LinkedBlockingQueue<>();
+  private final AtomicInteger remainingDirectories = new AtomicInteger();
+  private final Queue<Result<String, FtpFileAttributes>> results = new ConcurrentLinkedQueue<>();
+  private final AtomicReference<Exception> failure = new AtomicReference<>();
+
+  ParallelDirectoryWalker(FtpConnector config, Predicate<FtpFileAttributes> matcher) {
+    this.config = config;
+    this.matcher = matcher;
+  }
+
+  /**
+   * Lists the contents of the given directory and all its sub-directories.
+   *
+   * @param fileSystem    the connection of the calling thread
+   * @param directoryPath the absolute path of the directory to walk
+   * @return the entries accepted by the {@code matcher}
+   * @throws Exception the first exception found by any of the workers
+   */
+  List<Result<String, FtpFileAttributes>> walk(FtpFileSystem fileSystem, String directoryPath) throws Exception {
+    remainingDirectories.incrementAndGet();
+    pendingDirectories.add(directoryPath);
+
+    Scheduler scheduler = config.getScheduler();
+    if (scheduler != null) {
+      for (int i = 1; i < config.getListingParallelism(); i++) {
+        try {
+          scheduler.submit(this::borrowConnectionAndWork);
+        } catch (RejectedExecutionException e) {
+          LOGGER.debug("Could not schedule an additional worker for a parallel listing, continuing without it", e);
+          break;
+        }
+      }
+    }
+
+    work(fileSystem);
+
+    if (failure.get() != null) {
+      throw failure.get();
+    }
+    if (remainingDirectories.get() > 0) {
+      throw new InterruptedException("Interrupted while listing directory " + directoryPath);
+    }
+    return new ArrayList<>(results);
+  }
+
+  private void borrowConnectionAndWork() {
+    if (isFinished()) {
+      return;
+    }
+
+    ConnectionHandler<FtpFileSystem> connectionHandler;
+    try {
+      connectionHandler = config.getConnectionManager().getConnection(config);
+    } catch (ConnectionException e) {
+      LOGGER.debug("Could not obtain an additional connection for a parallel listing, continuing without it", e);
+      return;
+    }
+
+    try {
+      work(connectionHandler.getConnection());
+    } catch (ConnectionException e) {
+      LOGGER.debug("Could not obtain an additional connection for a parallel listing, continuing without it", e);
+    } finally {
+      connectionHandler.release();
+    }
+  }
+
+  private void work(FtpFileSystem fileSystem) {
+    while (!isFinished()) {
+      String directoryPath;
+      try {
+        directoryPath = pendingDirectories.poll(POLL_INTERVAL_MILLIS, MILLISECONDS);
+      } catch (InterruptedException e) {
+        currentThread().interrupt();
+        return;
+      }
+
+      if (directoryPath == null) {
+        continue;
+      }
+
+      try {
+        listDirectory(fileSystem, directoryPath);
+      } catch (Exception e) {
+        failure.compareAndSet(null, e);
+      } finally {
+        remainingDirectories.decrementAndGet();
+      }
+    }
+  }
+
+  private void listDirectory(FtpFileSystem fileSystem, String directoryPath) {
+    LOGGER.debug("Listing directory {}", directoryPath);
+    Iterator<Result<String, FtpFileAttributes>> entries = fileSystem.iterate(config, directoryPath, false, ACCEPT_ALL);
+    while (entries.hasNext() && failure.get() == null) {
+      Result<String, FtpFileAttributes> entry = entries.next();
+      FtpFileAttributes attributes = entry.getAttributes().get();
+      if (attributes.isDirectory() && FtpListCommand.mayContainMatches(matcher, attributes.getPath())) {
+        remainingDirectories.incrementAndGet();
+        pendingDirectories.add(attributes.getPath());
+      }
+      if (matcher.test(attributes)) {
+        results.add(entry);
+      }
+    }
+  }
+
+  private boolean isFinished() {
+    return failure.get() != null || remainingDirectories.get() == 0;
+  }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.extension.ftp.internal.command;
+
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.lang.String.format;
+import static org.apache.commons.net.ftp.FTPReply.UNRECOGNIZED_COMMAND;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import org.mule.extension.ftp.internal.connection.FtpFileSystem;
+import org.mule.extension.ftp.internal.connection.FtpServerCapabilities;
+import org.mule.extension.ftp.internal.connection.PipeliningClient;
+import org.mule.runtime.api.connection.ConnectionException;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.util.List;
+
+import org.apache.commons.net.MalformedServerReplyException;
+import org.apache.commons.net.ftp.FTPClient;
+import org.apache.commons.net.ftp.FTPCmd;
+import org.slf4j.Logger;
+
+/**
+ * Executes a sequence of independent commands, such as the deletion of the files of a directory, on the control connection.
+ * <p>
+ * When the client is a {@link PipeliningClient}, a window of commands is written before their replies are read, in the same
+ * order. Otherwise, each command is written once the reply of the previous one was read.
+ * <p>
+ * Once pipelined commands were written, their replies can't be trusted to match them if the server mishandled any of them, so
+ * the control connection is reported as broken with a {@link ConnectionException} for it to be discarded, instead of executing
+ * any command again. That is the case if the replies can't be read, or if a command is answered as unrecognized, usually
+ * because the server read several commands as one. Unrecognized commands, malformed replies and replies which never arrive
+ * also stop pipelining, see {@link FtpServerCapabilities#onCommandPipeliningRejected()}, so that later commands are sent one at
+ * a time, while other failures, such as a dropped connection, happen to commands sent one at a time as well.
+ *
+ * @since 3.0
+ */
+final class PipelinedCommandExecutor {
+
+  private static final Logger LOGGER = getLogger(PipelinedCommandExecutor.class);
+
+  private final FtpFileSystem fileSystem;
+  private final FTPClient client;
+
+  PipelinedCommandExecutor(FtpFileSystem fileSystem, FTPClient client) {
+    this.fileSystem = fileSystem;
+    this.client = client;
+  }
+
+  /**
+   * Executes the given command once per argument
+   *
+   * @param command   the command to execute
+   * @param arguments the argument of each execution of the command
+   * @return the reply code of each execution, in the same order as the arguments
+   * @throws IOException         if a command could not be sent one at a time
+   * @throws ConnectionException if the replies of pipelined commands could not be matched to them
+   */
+  int[] execute(FTPCmd command, List<String> arguments) throws IOException, ConnectionException {
+    int[] replies = new int[arguments.size()];
+    int next = 0;
+    while (next < arguments.size()) {
+      int end = min(arguments.size(), next + getPipelineWindow());
+      if (end - next > 1) {
+        executePipelined(command, arguments, replies, next, end);
+      } else {
+        replies[next] = client.sendCommand(command, arguments.get(next));
+      }
+      next = end;
+    }
+    return replies;
+  }
+
+  private void executePipelined(FTPCmd command, List<String> arguments, int[] replies, int from, int to)
+      throws ConnectionException {
+    PipeliningClient pipeliningClient = (PipeliningClient) client;
+    try {
+      for (int i = from; i < to; i++) {
+        pipeliningClient.writeCommand(command, arguments.get(i));
+      }
+      pipeliningClient.flushCommands();
+      for (int i = from; i < to; i++) {
+        replies[i] = client.getReply();
+      }
+    } catch (IOException e) {
+      if (isPipeliningFailure(e)) {
+        LOGGER.debug("Server mishandled pipelined {} commands, commands will be sent one at a time", command.getCommand());
+        fileSystem.getCapabilities().onCommandPipeliningRejected();
+      }
+      throw new ConnectionException(format("Failed to read the replies of the pipelined %s commands", command.getCommand()), e,
+                                    null, client);
+    }
+
+    for (int i = from; i < to; i++) {
+      if (replies[i] == UNRECOGNIZED_COMMAND) {
+        LOGGER.debug("Server did not recognize a pipelined {} command, commands will be sent one at a time",
+                     command.getCommand());
+        fileSystem.getCapabilities().onCommandPipeliningRejected();
+        throw new ConnectionException(format("Server did not recognize the pipelined %s command for '%s', its replies can't be "
+            + "matched to the commands anymore", command.getCommand(), arguments.get(i)), null, null, client);
+      }
+    }
+  }
+
+  /**
+   * @param e the failure to execute pipelined commands
+   * @return whether the failure is caused by the server mishandling the pipelined commands: it answered something which is not
+   *         a reply, or it stopped answering before all of them were replied, as when it reads several commands as one. Other
+   *         failures, such as the connection being closed, are not told apart from those of commands sent one at a time.
+   */
+  private static boolean isPipeliningFailure(IOException e) {
+    return e instanceof MalformedServerReplyException || e instanceof SocketTimeoutException;
+  }
+
+  private int getPipelineWindow() {
+    if (client instanceof PipeliningClient && !fileSystem.getCapabilities().isCommandPipeliningRejected()) {
+      return max(1, ((PipeliningClient) client).getPipelineWindow());
+    }
+    return 1;
+  }
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.extension.ftp.internal.command;
+
+import static java.util.Collections.emptyList;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.net.ftp.FTPClientConfig;
+import org.apache.commons.net.ftp.FTPFile;
+import org.apache.commons.net.ftp.FTPFileEntryParser;
+import org.apache.commons.net.ftp.parser.DefaultFTPFileEntryParserFactory;
+import org.apache.commons.net.ftp.parser.FTPFileEntryParserFactory;
+
+/**
+ * A {@link FTPFileEntryParserFactory} which creates the same parsers as the {@link DefaultFTPFileEntryParserFactory}, but which
+ * are also able to understand the output of a recursive {@code LIST -R} command.
+ * <p>
+ * That output is split in sections, one per directory, each one starting with a header line which holds the path of the
+ * directory followed by a colon. While {@link #arm() armed}, the created parsers remove those headers from the listing before it
+ * is parsed and record where each section starts, so that the parsed entries can be traced back to their directory.
+ *
+ * @since 3.0
+ */
+public final class SectionedListingParserFactory implements FTPFileEntryParserFactory {
+
+  private static final String SECTION_HEADER_SUFFIX = ":";
+
+  private final FTPFileEntryParserFactory parserFactory = new DefaultFTPFileEntryParserFactory();
+  private boolean armed = false;
+  private List<Section> sections;
+
+  @Override
+  public FTPFileEntryParser createFileEntryParser(String key) {
+    return new SectionedListingParser(parserFactory.createFileEntryParser(key));
+  }
+
+  @Override
+  public FTPFileEntryParser createFileEntryParser(FTPClientConfig config) {
+    return new SectionedListingParser(parserFactory.createFileEntryParser(config));
+  }
+
+  /**
+   * Makes the parsers record the sections of the next listing.
+   */
+  void arm() {
+    armed = true;
+    sections = null;
+  }
+
+  /**
+   * Stops recording sections.
+   *
+   * @return the sections recorded since the last invocation of {@link #arm()}, empty if the listing had no section headers
+   */
+  List<Section> disarm() {
+    armed = false;
+    List<Section> recorded = sections != null ? sections : emptyList();
+    sections = null;
+    return recorded;
+  }
+
+  /**
+   * The section of a recursive listing which holds the entries of one directory
+   */
+  static final class Section {
+
+    private final String header;
+    private final int start;
+
+    private Section(String header, int start) {
+      this.header = header;
+      this.start = start;
+    }
+
+    /**
+     * @return the path of the directory as written by the server, without the trailing colon
+     */
+    String getHeader() {
+      return header;
+    }
+
+    /**
+     * @return the position of the first entry of this section among all the entries of the listing
+     */
+    int getStart() {
+      return start;
+    }
+  }
+
+  private class SectionedListingParser implements FTPFileEntryParser {
+
+    private final FTPFileEntryParser delegate;
+
+    private SectionedListingParser(FTPFileEntryParser delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public FTPFile parseFTPEntry(String listEntry) {
+      return delegate.parseFTPEntry(listEntry);
+    }
+
+    @Override
+    public String readNextEntry(BufferedReader reader) throws IOException {
+      return delegate.readNextEntry(reader);
+    }
+
+    @Override
+    public List<String> preParse(List<String> original) {
+      if (!armed) {
+        return delegate.preParse(original);
+      }
+
+      List<Section> recorded = new ArrayList<>();
+      List<String> entries = new ArrayList<>(original.size());
+      List<String> section = new ArrayList<>();
+      for (String line : original) {
+        if (line.trim().isEmpty()) {
+          continue;
+        }
+        if (isSectionHeader(line)) {
+          entries.addAll(delegate.preParse(section));
+          section = new ArrayList<>();
+          recorded.add(new Section(line.substring(0, line.length() - SECTION_HEADER_SUFFIX.length()), entries.size()));
+        } else {
+          section.add(line);
+        }
+      }
+      entries.addAll(delegate.preParse(section));
+
+      // the listing engine keeps using the list it passed, so it has to be modified in place
+      original.clear();
+      original.addAll(entries);
+      sections = recorded;
+      return original;
+    }
+
+    private boolean isSectionHeader(String line) {
+      return line.endsWith(SECTION_HEADER_SUFFIX) && delegate.parseFTPEntry(line) == null;
+    }
+  }
+}
@@ -28,4 +28,10 @@ public interface ConnectionSource<T extends FileSystem> {
    */
   void releaseConnection();
 
+  /**
+   * Invalidates, if needed, the last instance retrieved by calling {@link ConnectionSource#getConnection()}, so that it is not
+   * reused. To be called instead of {@link ConnectionSource#releaseConnection()} when the instance was left in an unknown state.
+   */
+  void invalidateConnection();
+
 }
@@ -0,0 +1,229 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.extension.ftp.internal.connection;
+
+import static org.mule.extension.ftp.api.UriUtils.createUri;
+import static org.mule.extension.ftp.api.UriUtils.normalizeUri;
+import static org.mule.extension.ftp.api.UriUtils.trimLastFragment;
+
+import java.net.URI;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import org.apache.commons.net.ftp.FTPFile;
+
+/**
+ * Keeps the listings of the directories of a remote server, so that directories which are listed repeatedly by different
+ * operations of the same config are only transferred once.
+ * <p>
+ * Listings are kept by the absolute path of their directory for a fixed amount of time, along with an index of their entries
+ * by name so that looking up a single entry doesn't scan the whole listing. The least recently used ones are evicted as soon as
+ * the cache exceeds its maximum amount of entries or its maximum estimated size. The commands which modify the remote server
+ * are responsible for {@link #invalidate(String) invalidating} the listings they affect.
+ * <p>
+ * Instances are thread safe and shared by all the connections of a config.
+ *
+ * @since 3.0
+ */
+public final class DirectoryListingCache {
+
+  private static final String SEPARATOR = "/";
+  private static final long ENTRY_OVERHEAD_BYTES = 64;
+  private static final long FILE_OVERHEAD_BYTES = 160;
+  private static final long INDEX_ENTRY_OVERHEAD_BYTES = 48;
+
+  private final long ttlNanos;
+  private final int maxEntries;
+  private final long maxBytes;
+  private final LongSupplier clock;
+  private final LinkedHashMap<String, CachedListing> listings = new LinkedHashMap<>(16, 0.75f, true);
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+  private long bytes = 0;
+
+  /**
+   * Creates a new instance
+   *
+   * @param ttlMillis  the amount of milliseconds during which a listing is valid
+   * @param maxEntries the maximum amount of listings to keep
+   * @param maxBytes   the maximum estimated size in bytes of the kept listings
+   */
+  public DirectoryListingCache(long ttlMillis, int maxEntries, long maxBytes) {
+    this(ttlMillis, maxEntries, maxBytes, System::nanoTime);
+  }
+
+  DirectoryListingCache(long ttlMillis, int maxEntries, long maxBytes, LongSupplier clock) {
+    this.ttlNanos = ttlMillis * 1000000;
+    this.maxEntries = maxEntries;
+    this.maxBytes = maxBytes;
+    this.clock = clock;
+  }
+
+  /**
+   * @param directoryPath the absolute path of a directory
+   * @return the entries of the directory or {@code null} if it has no valid listing. The returned array <b>MUST NOT</b> be
+   *         modified
+   */
+  public synchronized FTPFile[] get(String directoryPath) {
+    CachedListing listing = getValidListing(directoryPath);
+    return listing != null ? listing.files : null;
+  }
+
+  /**
+   * @param directoryPath the absolute path of a directory
+   * @param name          the name of an entry of the directory
+   * @return the entry of the directory with the given name, or {@code null} if the directory has no valid listing or its
+   *         listing has no such entry. The returned entry <b>MUST NOT</b> be modified
+   */
+  public synchronized FTPFile find(String directoryPath, String name) {
+    CachedListing listing = getValidListing(directoryPath);
+    return listing != null ? listing.filesByName.get(name) : null;
+  }
+
+  /**
+   * Keeps the complete listing of a directory, replacing any previous one
+   *
+   * @param directoryPath the absolute path of the directory
+   * @param files         all the entries of the directory
+   */
+  public synchronized void put(String directoryPath, FTPFile[] files) {
+    String key = toKey(directoryPath);
+    long size = estimateSize(key, files);
+    remove(key);
+    if (size > maxBytes) {
+      return;
+    }
+
+    CachedListing listing = new CachedListing(files, clock.getAsLong(), size);
+    listings.put(key, listing);
+    bytes += listing.size;
+
+    Iterator<CachedListing> eldest = listings.values().iterator();
+    while (listings.size() > maxEntries || bytes > maxBytes) {
+      bytes -= eldest.next().size;
+      eldest.remove();
+    }
+  }
+
+  /**
+   * Invalidates the listings affected by a change on the given path: the one of its parent directory, the one of the path itself
+   * and the ones of all the directories below it.
+   *
+   * @param path the absolute path of a file or directory which was created, modified or removed
+   */
+  public synchronized void invalidate(String path) {
+    String key = toKey(path);
+    URI parent = trimLastFragment(createUri(key));
+    remove(parent != null ? toKey(parent.getPath()) : SEPARATOR);
+
+    String prefix = key.endsWith(SEPARATOR) ? key : key + SEPARATOR;
+    Iterator<Map.Entry<String, CachedListing>> entries = listings.entrySet().iterator();
+    while (entries.hasNext()) {
+      Map.Entry<String, CachedListing> entry = entries.next();
+      if (entry.getKey().equals(key) || entry.getKey().startsWith(prefix)) {
+        bytes -= entry.getValue().size;
+        entries.remove();
+      }
+    }
+  }
+
+  /**
+   * Discards all the listings
+   */
+  public synchronized void clear() {
+    listings.clear();
+    bytes = 0;
+  }
+
+  /**
+   * @return the amount of lookups which were answered with a valid listing
+   */
+  public long getHitCount() {
+    return hits.get();
+  }
+
+  /**
+   * @return the amount of lookups which found no valid listing
+   */
+  public long getMissCount() {
+    return misses.get();
+  }
+
+  /**
+   * @return the amount of listings currently kept
+   */
+  public synchronized int size() {
+    return listings.size();
+  }
+
+  private CachedListing getValidListing(String directoryPath) {
+    String key = toKey(directoryPath);
+    CachedListing listing = listings.get(key);
+    if (listing != null && clock.getAsLong() - listing.created >= ttlNanos) {
+      remove(key);
+      listing = null;
+    }
+
+    if (listing == null) {
+      misses.incrementAndGet();
+      return null;
+    }
+    hits.incrementAndGet();
+    return listing;
+  }
+
+  private void remove(String key) {
+    CachedListing removed = listings.remove(key);
+    if (removed != null) {
+      bytes -= removed.size;
+    }
+  }
+
+  private static String toKey(String path) {
+    String key = normalizeUri(createUri(SEPARATOR, path)).getPath();
+    return key.isEmpty() ? SEPARATOR : key;
+  }
+
+  private static long estimateSize(String key, FTPFile[] files) {
+    long size = ENTRY_OVERHEAD_BYTES + 2L * key.length();
+    for (FTPFile file : files) {
+      if (file != null) {
+        size += FILE_OVERHEAD_BYTES + INDEX_ENTRY_OVERHEAD_BYTES + 2L * length(file.getName()) + 2L * length(file.getRawListing())
+            + 2L * length(file.getUser()) + 2L * length(file.getGroup()) + 2L * length(file.getLink());
+      }
+    }
+    return size;
+  }
+
+  private static int length(String value) {
+    return value != null ? value.length() : 0;
+  }
+
+  private static final class CachedListing {
+
+    private final FTPFile[] files;
+    private final Map<String, FTPFile> filesByName;
+    private final long created;
+    private final long size;
+
+    private CachedListing(FTPFile[] files, long created, long size) {
+      this.files = files;
+      this.filesByName = new HashMap<>(files.length * 4 / 3 + 1);
+      for (FTPFile file : files) {
+        if (file != null && file.getName() != null) {
+          filesByName.putIfAbsent(file.getName(), file);
+        }
+      }
+      this.created = created;
+      this.size = size;
+    }
+  }
+}
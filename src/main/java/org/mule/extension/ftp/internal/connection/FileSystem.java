@@ -12,12 +12,14 @@ import org.mule.extension.ftp.internal.lock.UriLock;
 import org.mule.extension.ftp.internal.operation.CopyCommand;
 import org.mule.extension.ftp.internal.operation.CreateDirectoryCommand;
 import org.mule.extension.ftp.internal.operation.DeleteCommand;
+import org.mule.extension.ftp.internal.operation.GetAttributesCommand;
 import org.mule.extension.ftp.internal.operation.ListCommand;
 import org.mule.extension.ftp.internal.operation.MoveCommand;
 import org.mule.extension.ftp.internal.operation.ReadCommand;
 import org.mule.extension.ftp.internal.operation.RenameCommand;
 import org.mule.extension.ftp.internal.operation.WriteCommand;
 import org.mule.extension.ftp.internal.subset.SubsetList;
+import org.mule.extension.ftp.api.ftp.FtpBulkFileAttributes;
 import org.mule.extension.ftp.api.ftp.FtpFileAttributes;
 import org.mule.extension.ftp.internal.config.FileConnectorConfig;
 import org.mule.runtime.api.message.Message;
@@ -88,6 +90,46 @@ public interface FileSystem {
                                                Predicate<FtpFileAttributes> matcher,
                                                SubsetList subsetList);
 
+  /**
+   * Lazily lists all the files in the {@code directoryPath} which match the given {@code matcher}.
+   * <p>
+   * Behaves like {@link #list(FileConnectorConfig, String, boolean, Predicate)} but instead of fetching the whole listing up
+   * front, the entries are obtained from the server as the returned {@link Iterator} is consumed. Because of that, the returned
+   * {@link Iterator} is bound to {@code this} connection and <b>MUST</b> be consumed while it is still held.
+   *
+   * @param config        the config that is parameterizing this operation
+   * @param directoryPath the path to the directory to be listed
+   * @param recursive     whether to include the contents of sub-directories
+   * @param matcher       a {@link Predicate} of {@link FtpFileAttributes} used to filter the output
+   * @return an {@link Iterator} of {@link Result} objects, each one containing each file's content in the payload and metadata in
+   * the attributes
+   * @throws IllegalArgumentException if {@code directoryPath} points to a file which doesn't exist or is not a directory
+   */
+  Iterator<Result<String, FtpFileAttributes>> iterate(FileConnectorConfig config,
+                                                      String directoryPath,
+                                                      boolean recursive,
+                                                      Predicate<FtpFileAttributes> matcher);
+
+  /**
+   * Lazily lists all the files in the {@code directoryPath} which match the given {@code matcher}, as described in
+   * {@link #iterate(FileConnectorConfig, String, boolean, Predicate)}, returning only the subset described by the given
+   * {@code subsetList}.
+   *
+   * @param config        the config that is parameterizing this operation
+   * @param directoryPath the path to the directory to be listed
+   * @param recursive     whether to include the contents of sub-directories
+   * @param matcher       a {@link Predicate} of {@link FtpFileAttributes} used to filter the output
+   * @param subsetList    parameter group that lets you obtain a subset of the results
+   * @return an {@link Iterator} of {@link Result} objects, each one containing each file's content in the payload and metadata in
+   * the attributes
+   * @throws IllegalArgumentException if {@code directoryPath} points to a file which doesn't exist or is not a directory
+   */
+  Iterator<Result<String, FtpFileAttributes>> iterate(FileConnectorConfig config,
+                                                      String directoryPath,
+                                                      boolean recursive,
+                                                      Predicate<FtpFileAttributes> matcher,
+                                                      SubsetList subsetList);
+
   /**
    * Obtains the content and metadata of a file at a given path.
    * <p>
@@ -112,6 +154,25 @@ public interface FileSystem {
   Result<InputStream, FtpFileAttributes> read(FileConnectorConfig config, String filePath, boolean lock,
                                               Long timeBetweenSizeCheck);
 
+  /**
+   * Obtains a range of the content of a file, under the same considerations as
+   * {@link #read(FileConnectorConfig, String, boolean, Long)}. The range is clipped to the size of the file, and the
+   * {@link FtpFileAttributes} of the result report the range which was actually served.
+   *
+   * @param config                the config that is parameterizing this operation
+   * @param filePath              the path of the file you want to read
+   * @param lock                  whether or not to lock the file
+   * @param timeBetweenSizeCheck  wait time between size checks to determine if a file is ready to be read in milliseconds.
+   * @param offset                the position of the first byte to read
+   * @param length                the maximum number of bytes to read, or {@code null} to read up to the end of the file
+   * @return An {@link Result} with an {@link InputStream} with the range of the file's content as payload and a
+   *         {@link FtpFileAttributes} object as {@link Message#getAttributes()}
+   * @throws IllegalArgumentException if the file at the given path doesn't exist
+   * @since 3.0
+   */
+  Result<InputStream, FtpFileAttributes> read(FileConnectorConfig config, String filePath, boolean lock,
+                                              Long timeBetweenSizeCheck, long offset, Long length);
+
   /**
    * Writes the {@code content} into the file pointed by {@code filePath}.
    * <p>
@@ -228,6 +289,14 @@ public interface FileSystem {
    */
   void createDirectory(String directoryPath);
 
+  /**
+   * Obtains the attributes of all the given paths, looking up the paths which share a parent directory together
+   *
+   * @param filePaths the paths to the files or directories whose attributes are wanted
+   * @return a {@link FtpBulkFileAttributes} with the attributes of the paths which exist and the paths which don't
+   */
+  FtpBulkFileAttributes getAttributes(List<String> filePaths);
+
   Lock createMuleLock(String id);
 
   /**
@@ -471,6 +540,19 @@ public interface FileSystem {
    */
   CreateDirectoryCommand getCreateDirectoryCommand();
 
+  /**
+   * Retrieves the command responsible for obtaining the attributes of several paths at once.
+   *
+   * <p>
+   * The returned {@link GetAttributesCommand} obtains the attributes under the considerations of
+   * {@link FileSystem#getAttributes(List)}. Paths which share a parent directory are looked up together, so that the
+   * directory is listed once instead of once per path.
+   * </p>
+   *
+   * @return a {@link GetAttributesCommand} that can be used to obtain the attributes of files within the file system.
+   */
+  GetAttributesCommand getGetAttributesCommand();
+
   /**
    * Acquires and returns lock over the given {@code uri}.
    * <p>
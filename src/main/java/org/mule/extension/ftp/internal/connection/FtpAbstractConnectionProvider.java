@@ -7,6 +7,7 @@
 package org.mule.extension.ftp.internal.connection;
 
 import static java.lang.String.format;
+import static java.lang.management.ManagementFactory.getPlatformMBeanServer;
 import static org.mule.extension.ftp.api.FileError.CANNOT_REACH;
 import static org.mule.extension.ftp.api.FileError.CONNECTION_TIMEOUT;
 import static org.mule.extension.ftp.api.FileError.CONNECTIVITY;
@@ -21,11 +22,13 @@ import org.mule.extension.ftp.internal.connection.provider.FileSystemProvider;
 import org.mule.extension.ftp.api.FileError;
 import org.mule.extension.ftp.api.FTPConnectionException;
 import org.mule.extension.ftp.api.ftp.FtpTransferMode;
+import org.mule.extension.ftp.api.ftp.FtpValidationStrategy;
 import org.mule.extension.ftp.internal.TimeoutSettings;
 import org.mule.extension.ftp.internal.logging.LoggingOutputStream;
 import org.mule.runtime.api.connection.ConnectionException;
 import org.mule.runtime.api.connection.ConnectionValidationResult;
 import org.mule.runtime.api.connection.PoolingConnectionProvider;
+import org.mule.runtime.api.lifecycle.Disposable;
 import org.mule.runtime.api.lifecycle.Initialisable;
 import org.mule.runtime.api.lock.LockFactory;
 import org.mule.runtime.extension.api.annotation.param.Optional;
@@ -37,17 +40,21 @@ import org.mule.runtime.extension.api.annotation.param.display.Summary;
 import org.mule.runtime.extension.api.annotation.values.OfValues;
 import org.mule.sdk.api.annotation.semantics.connectivity.ExcludeFromConnectivitySchema;
 
+import java.io.IOException;
 import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
 import java.io.UnsupportedEncodingException;
 import java.net.ConnectException;
 import java.net.SocketTimeoutException;
 import java.net.UnknownHostException;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
 
 import javax.inject.Inject;
+import javax.management.JMException;
+import javax.management.ObjectName;
 
 import org.apache.commons.net.PrintCommandListener;
 import org.apache.commons.net.ftp.FTPClient;
@@ -62,7 +69,7 @@ import org.slf4j.Logger;
 @DisplayName("FTP Connection")
 @Summary("Connection to connect against an FTP server")
 public abstract class FtpAbstractConnectionProvider extends FileSystemProvider<FtpFileSystem> implements
-    PoolingConnectionProvider<FtpFileSystem>, Initialisable {
+    PoolingConnectionProvider<FtpFileSystem>, Initialisable, Disposable {
 
   private static final Logger LOGGER = getLogger(FtpAbstractConnectionProvider.class);
   private static final String FTP_ERROR_MESSAGE_MASK =
@@ -73,7 +80,9 @@ public abstract class FtpAbstractConnectionProvider extends FileSystemProvider<F
   private LockFactory lockFactory;
 
   private static final String TIMEOUT_CONFIGURATION = "Timeout Configuration";
+  private static final String LISTING_CONFIGURATION = "Listing Configuration";
   private static final String DEFAULT_CONTROL_ENCODING = "ISO-8859-1";
+  private static final String STATISTICS_OBJECT_NAME = "org.mule.extension.ftp:type=Statistics,name=";
 
   private static AtomicBoolean alreadyLoggedConnectionTimeoutWarning = new AtomicBoolean(false);
   private static AtomicBoolean alreadyLoggedResponseTimeoutWarning = new AtomicBoolean(false);
@@ -91,6 +100,9 @@ public abstract class FtpAbstractConnectionProvider extends FileSystemProvider<F
   @ParameterGroup(name = TIMEOUT_CONFIGURATION)
   private TimeoutSettings timeoutSettings = new TimeoutSettings();
 
+  @ParameterGroup(name = LISTING_CONFIGURATION)
+  private FtpListingSettings listingSettings = new FtpListingSettings();
+
   /**
    * Invokes the {@link FtpFileSystem#disconnect()} method on the given {@code ftpFileSystem}
    *
@@ -102,14 +114,15 @@ public abstract class FtpAbstractConnectionProvider extends FileSystemProvider<F
   }
 
   /**
-   * Validates the connection by delegating into {@link FtpFileSystem#validateConnection()}
+   * Validates the connection by delegating into {@link FtpFileSystem#validateConnection(FtpValidationStrategy, long)}
    *
    * @param ftpFileSystem the connection to validate
    * @return a {@link ConnectionValidationResult}
    */
   @Override
   public ConnectionValidationResult validate(FtpFileSystem ftpFileSystem) {
-    return ftpFileSystem.validateConnection();
+    // a connection which is no longer valid does not mean that the server changed, see FtpServerCapabilities#onConnected
+    return ftpFileSystem.validateConnection(validationStrategy, validationIdleTimeUnit.toMillis(validationIdleTime));
   }
 
   /**
@@ -171,7 +184,88 @@ public abstract class FtpAbstractConnectionProvider extends FileSystemProvider<F
   @ExcludeFromConnectivitySchema
   private String controlEncoding;
 
-  private SingleFileListingMode singleFileListingMode = SingleFileListingMode.UNSET;
+  /**
+   * The features supported by the remote server, as announced by its {@code FEAT} command. When provided, the server is never
+   * asked for its features and those which are not listed are considered unsupported.
+   */
+  @Parameter
+  @Optional
+  @Placement(tab = ADVANCED_TAB)
+  @Summary("Features supported by the server, as announced by the FEAT command. When provided, the server is not asked for them")
+  @ExcludeFromConnectivitySchema
+  private List<String> serverFeatures;
+
+  /**
+   * The system type of the remote server, as returned by its {@code SYST} command, which determines how listings are parsed.
+   * When provided, the server is never asked for it.
+   */
+  @Parameter
+  @Optional
+  @Placement(tab = ADVANCED_TAB)
+  @Summary("System type of the server, as returned by the SYST command. When provided, the server is not asked for it")
+  @ExcludeFromConnectivitySchema
+  private String serverSystemType;
+
+  /**
+   * How pooled connections are validated before being used. {@code WORKING_DIRECTORY} changes to the working directory,
+   * {@code NOOP} sends a {@code NOOP} command and {@code RECENT_REPLY} only sends it if the server didn't answer the connection
+   * successfully within the {@link #validationIdleTime}.
+   * <p>
+   * Defaults to {@code WORKING_DIRECTORY}.
+   */
+  @Parameter
+  @Optional(defaultValue = "WORKING_DIRECTORY")
+  @Placement(tab = ADVANCED_TAB)
+  @Summary("How pooled connections are validated before being used")
+  @ExcludeFromConnectivitySchema
+  private FtpValidationStrategy validationStrategy = FtpValidationStrategy.WORKING_DIRECTORY;
+
+  /**
+   * For how long after the last successful reply of the server a connection is considered valid without asking the server again,
+   * when the validation strategy is {@code RECENT_REPLY}.
+   */
+  @Parameter
+  @Optional(defaultValue = "1000")
+  @Placement(tab = ADVANCED_TAB)
+  @Summary("For how long after the last successful reply a connection is considered valid, with the RECENT_REPLY validation")
+  @ExcludeFromConnectivitySchema
+  private long validationIdleTime = 1000;
+
+  /**
+   * A {@link TimeUnit} which qualifies the {@link #validationIdleTime} attribute.
+   * <p>
+   * Defaults to {@code MILLISECONDS}
+   */
+  @Parameter
+  @Optional(defaultValue = "MILLISECONDS")
+  @Placement(tab = ADVANCED_TAB)
+  @Summary("Time unit to be used in the validation idle time")
+  @ExcludeFromConnectivitySchema
+  private TimeUnit validationIdleTimeUnit = TimeUnit.MILLISECONDS;
+
+  /**
+   * How many independent commands, such as the deletions of the files of a directory, are sent to the server before reading
+   * their replies. A value of 1 sends each command once the reply of the previous one was read. When a server mishandles pipelined
+   * commands, the operation which sent them fails with a connectivity error and later commands are sent to it one at a time.
+   * <p>
+   * Defaults to 1.
+   */
+  @Parameter
+  @Optional(defaultValue = "1")
+  @Placement(tab = ADVANCED_TAB)
+  @Summary("How many independent commands are sent to the server before reading their replies")
+  @ExcludeFromConnectivitySchema
+  private int commandPipelineWindow = 1;
+
+  private FtpServerCapabilities capabilities;
+
+  private DirectoryListingCache listingCache;
+
+  private DirectoryListingCache lookupIndex;
+
+  private FtpStatistics statistics;
+
+  private ObjectName statisticsObjectName;
 
   /**
    * Creates and returns a new instance of {@link FtpFileSystem}
@@ -180,7 +274,110 @@ public abstract class FtpAbstractConnectionProvider extends FileSystemProvider<F
    */
   @Override
   public FtpFileSystem connect() throws ConnectionException {
-    return new FtpFileSystem(setupClient(), getWorkingDir(), lockFactory, singleFileListingMode);
+    FTPClient client;
+    try {
+      client = setupClient();
+    } catch (ConnectionException e) {
+      // the server may be a different one once it is reachable again
+      getCapabilities().refresh();
+      throw e;
+    }
+    learnSystemType(client);
+    FtpFileSystemCollaborators collaborators = new FtpFileSystemCollaborators(getCapabilities(), listingSettings);
+    collaborators.setListingCache(getListingCache());
+    collaborators.setLookupIndex(getLookupIndex());
+    collaborators.setStatistics(getStatistics());
+    return new FtpFileSystem(client, getWorkingDir(), lockFactory, collaborators);
+  }
+
+  /**
+   * Asks the server for its system type through the first connection, so that the following ones choose their listing parser
+   * without sending the {@code SYST} command again.
+   *
+   * @param client a connected {@link FTPClient}
+   */
+  private void learnSystemType(FTPClient client) {
+    FtpServerCapabilities capabilities = getCapabilities();
+    if (capabilities.getSystemType() == null) {
+      try {
+        capabilities.getSystemType(client);
+      } catch (IOException e) {
+        LOGGER.debug("Could not obtain the system type of the server, it will be asked for when listing", e);
+      }
+    }
+  }
+
+  /**
+   * @return the {@link FtpServerCapabilities} shared by all the connections of this provider
+   */
+  private synchronized FtpServerCapabilities getCapabilities() {
+    if (capabilities == null) {
+      capabilities = new FtpServerCapabilities(SingleFileListingMode.UNSET, serverFeatures, serverSystemType);
+    }
+    return capabilities;
+  }
+
+  /**
+   * @return the {@link DirectoryListingCache} shared by all the connections of this provider, or {@code null} if it is disabled
+   */
+  private synchronized DirectoryListingCache getListingCache() {
+    if (listingCache == null && listingSettings.getListingCacheTtl() > 0) {
+      listingCache = new DirectoryListingCache(listingSettings.getListingCacheTtlUnit().toMillis(listingSettings
+          .getListingCacheTtl()), listingSettings.getListingCacheMaxEntries(), listingSettings.getListingCacheMaxSize());
+    }
+    return listingCache;
+  }
+
+  /**
+   * @return the {@link DirectoryListingCache} in which the connections of this provider index the directories listed to look up
+   *         files, or {@code null} if it is disabled or the listing cache is used instead
+   */
+  private synchronized DirectoryListingCache getLookupIndex() {
+    if (lookupIndex == null && listingSettings.getLookupIndexTtl() > 0 && listingSettings.getListingCacheTtl() <= 0) {
+      lookupIndex = new DirectoryListingCache(listingSettings.getLookupIndexTtlUnit().toMillis(listingSettings
+          .getLookupIndexTtl()), listingSettings.getLookupIndexMaxEntries(), listingSettings.getLookupIndexMaxSize());
+    }
+    return lookupIndex;
+  }
+
+  /**
+   * @return the {@link FtpStatistics} shared by all the connections of this provider, which is published over JMX under the
+   *         name of the config the first time it is requested
+   */
+  private synchronized FtpStatistics getStatistics() {
+    if (statistics == null) {
+      statistics = new FtpStatistics();
+      registerStatistics();
+    }
+    return statistics;
+  }
+
+  private void registerStatistics() {
+    if (getConfigName() == null) {
+      return;
+    }
+    try {
+      ObjectName objectName = new ObjectName(STATISTICS_OBJECT_NAME + ObjectName.quote(getConfigName()));
+      getPlatformMBeanServer().registerMBean(statistics, objectName);
+      statisticsObjectName = objectName;
+    } catch (JMException e) {
+      LOGGER.warn("Could not publish the statistics of config '{}' over JMX. {}", getConfigName(), e.getMessage());
+    }
+  }
+
+  /**
+   * Stops publishing the {@link FtpStatistics} of this provider over JMX
+   */
+  @Override
+  public synchronized void dispose() {
+    if (statisticsObjectName != null) {
+      try {
+        getPlatformMBeanServer().unregisterMBean(statisticsObjectName);
+      } catch (JMException e) {
+        LOGGER.debug("Could not stop publishing the statistics of config '{}' over JMX", getConfigName(), e);
+      }
+      statisticsObjectName = null;
+    }
   }
 
   private FTPClient setupClient() throws ConnectionException {
@@ -188,6 +385,9 @@ public abstract class FtpAbstractConnectionProvider extends FileSystemProvider<F
     checkResponseTimeoutPrecision();
 
     FTPClient client = createClient();
+    if (client instanceof PipeliningClient) {
+      ((PipeliningClient) client).setPipelineWindow(commandPipelineWindow);
+    }
     client.setControlEncoding(controlEncoding);
     if (getConnectionTimeout() != null && getConnectionTimeoutUnit() != null) {
       client.setConnectTimeout(new Long(getConnectionTimeoutUnit().toMillis(getConnectionTimeout())).intValue());
@@ -207,9 +407,11 @@ public abstract class FtpAbstractConnectionProvider extends FileSystemProvider<F
       if (!FTPReply.isPositiveCompletion(client.getReplyCode())) {
         throw handleClientReplyCode(client.getReplyCode());
       }
+      String greeting = client.getReplyString();
       if (!client.login(connectionSettings.getUsername(), connectionSettings.getPassword())) {
         throw handleClientReplyCode(client.getReplyCode());
       }
+      getCapabilities().onConnected(greeting != null ? greeting.trim() : null);
     } catch (SocketTimeoutException e) {
       throw new FTPConnectionException(getErrorMessage(connectionSettings, e.getMessage()), e, CONNECTION_TIMEOUT);
     } catch (ConnectException e) {
@@ -47,7 +47,7 @@ public class FtpConnectionProvider extends FtpAbstractConnectionProvider {
   protected FTPClient createClient() {
     FTPClient client;
     if (proxy == null)
-      client = new FTPClient();
+      client = new PipeliningFtpClient();
     else {
       try {
         client = new MuleFTPHTTPClient(proxy);
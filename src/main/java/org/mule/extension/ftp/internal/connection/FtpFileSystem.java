@@ -7,7 +7,18 @@
 package org.mule.extension.ftp.internal.connection;
 
 import static java.lang.String.format;
+import static java.lang.System.nanoTime;
+import static java.util.Arrays.asList;
+import static java.util.Locale.ENGLISH;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static org.apache.commons.lang3.StringUtils.isBlank;
+import static org.apache.commons.net.ftp.FTPCmd.MDTM;
+import static org.apache.commons.net.ftp.FTPCmd.MLST;
+import static org.apache.commons.net.ftp.FTPCmd.SIZE;
+import static org.apache.commons.net.ftp.FTPReply.SERVICE_NOT_AVAILABLE;
+import static org.apache.commons.net.ftp.FTPReply.isNegativePermanent;
+import static org.apache.commons.net.ftp.FTPReply.isNegativeTransient;
+import static org.mule.extension.ftp.api.ftp.FtpListingStrategy.WORKING_DIRECTORY;
 import static org.mule.extension.ftp.api.FileError.DISCONNECTED;
 import static org.mule.extension.ftp.api.UriUtils.createUri;
 import static org.mule.extension.ftp.internal.FtpUtils.createUrl;
@@ -24,6 +35,7 @@ import org.mule.extension.ftp.internal.exception.FileLockedException;
 import org.mule.extension.ftp.internal.operation.CopyCommand;
 import org.mule.extension.ftp.internal.operation.CreateDirectoryCommand;
 import org.mule.extension.ftp.internal.operation.DeleteCommand;
+import org.mule.extension.ftp.internal.operation.GetAttributesCommand;
 import org.mule.extension.ftp.internal.operation.ListCommand;
 import org.mule.extension.ftp.internal.operation.MoveCommand;
 import org.mule.extension.ftp.internal.operation.ReadCommand;
@@ -34,16 +46,22 @@ import org.mule.extension.ftp.internal.lock.UriLock;
 import org.mule.extension.ftp.internal.subset.SubsetList;
 import org.mule.extension.ftp.api.UriUtils;
 import org.mule.extension.ftp.api.FTPConnectionException;
+import org.mule.extension.ftp.api.ftp.FtpBulkFileAttributes;
 import org.mule.extension.ftp.api.ftp.FtpFileAttributes;
+import org.mule.extension.ftp.api.ftp.FtpListingStrategy;
+import org.mule.extension.ftp.api.ftp.FtpMetadataStrategy;
 import org.mule.extension.ftp.api.ftp.FtpTransferMode;
+import org.mule.extension.ftp.api.ftp.FtpValidationStrategy;
 import org.mule.extension.ftp.internal.command.FtpCopyCommand;
 import org.mule.extension.ftp.internal.command.FtpCreateDirectoryCommand;
 import org.mule.extension.ftp.internal.command.FtpDeleteCommand;
+import org.mule.extension.ftp.internal.command.FtpGetAttributesCommand;
 import org.mule.extension.ftp.internal.command.FtpListCommand;
 import org.mule.extension.ftp.internal.command.FtpMoveCommand;
 import org.mule.extension.ftp.internal.command.FtpReadCommand;
 import org.mule.extension.ftp.internal.command.FtpRenameCommand;
 import org.mule.extension.ftp.internal.command.FtpWriteCommand;
+import org.mule.extension.ftp.internal.command.SectionedListingParserFactory;
 import org.mule.runtime.api.connection.ConnectionException;
 import org.mule.runtime.api.connection.ConnectionValidationResult;
 import org.mule.runtime.api.exception.MuleRuntimeException;
@@ -57,16 +75,27 @@ import java.io.InputStream;
 import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URL;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
 
 import javax.activation.MimetypesFileTypeMap;
 import javax.inject.Inject;
 
+import org.apache.commons.io.input.CountingInputStream;
+import org.apache.commons.net.ProtocolCommandEvent;
+import org.apache.commons.net.ProtocolCommandListener;
 import org.apache.commons.net.ftp.FTPClient;
+import org.apache.commons.net.ftp.FTPClientConfig;
 import org.apache.commons.net.ftp.FTPConnectionClosedException;
+import org.apache.commons.net.ftp.FTPFile;
+import org.apache.commons.net.ftp.FTPFileEntryParser;
+import org.apache.commons.net.ftp.parser.DefaultFTPFileEntryParserFactory;
 import org.slf4j.Logger;
 
 /**
@@ -77,7 +106,10 @@ import org.slf4j.Logger;
 public class FtpFileSystem implements FileSystem {
 
   private static final Logger LOGGER = getLogger(FtpFileSystem.class);
-  private SingleFileListingMode singleFileListingMode = SingleFileListingMode.UNSET;
+  private static final String SEPARATOR = "/";
+  private static final Set<String> WORKING_DIRECTORY_COMMANDS = new HashSet<>(asList("CWD", "XCWD", "CDUP", "XCUP", "REIN",
+                                                                                    "USER"));
+  private static final Set<String> SESSION_STATE_COMMANDS = new HashSet<>(asList("TYPE", "REIN", "USER"));
   private final MimetypesFileTypeMap mimetypesFileTypeMap = new MimetypesFileTypeMap();
 
   private static String resolveBasePath(String basePath, FTPClient client) {
@@ -97,6 +129,7 @@ public class FtpFileSystem implements FileSystem {
   private final CopyCommand copyCommand;
   private final CreateDirectoryCommand createDirectoryCommand;
   private final DeleteCommand deleteCommand;
+  private final GetAttributesCommand getAttributesCommand;
   private final ListCommand listCommand;
   private final MoveCommand moveCommand;
   private final ReadCommand readCommand;
@@ -106,20 +139,64 @@ public class FtpFileSystem implements FileSystem {
   private final LockFactory lockFactory;
   private final String basePath;
 
+  private final FtpServerCapabilities capabilities;
+  private final FtpListingSettings listingSettings;
+  private final DirectoryListingCache listingCache;
+  private final DirectoryListingCache lookupIndex;
+  private final SectionedListingParserFactory sectionedListingParserFactory;
+  private FTPFileEntryParser controlChannelEntryParser;
+  private String workingDirectory;
+  // the transfer type of the session, which starts unknown on each connection created by the provider
+  private FtpTransferMode transferMode;
+  private PathLookupMemo lookupMemo;
+  private FtpOperationStatistics statistics;
+  private FtpOperationStatistics lastOperationStatistics;
+  private final FtpStatistics totalStatistics;
+  private volatile long lastSuccessfulReplyNanos = nanoTime();
+
   /**
-   * Creates a new instance
+   * Creates a new instance which lists directories by changing the working directory into each of them
    *
    * @param client a ready to use {@link FTPClient}
    */
   public FtpFileSystem(FTPClient client, String basePath, LockFactory lockFactory, SingleFileListingMode singleFileListingMode) {
+    this(client, basePath, lockFactory,
+         new FtpFileSystemCollaborators(new FtpServerCapabilities(singleFileListingMode), workingDirectoryListingSettings()));
+  }
+
+  /**
+   * Creates a new instance
+   *
+   * @param client        a ready to use {@link FTPClient}
+   * @param collaborators the {@link FtpFileSystemCollaborators} shared with the other connections of the config
+   */
+  public FtpFileSystem(FTPClient client, String basePath, LockFactory lockFactory, FtpFileSystemCollaborators collaborators) {
+    this.totalStatistics = collaborators.getStatistics();
     this.basePath = resolveBasePath(basePath, client);
     this.client = client;
     this.lockFactory = lockFactory;
-    this.singleFileListingMode = singleFileListingMode;
+    this.capabilities = collaborators.getCapabilities();
+    this.listingSettings = collaborators.getListingSettings();
+    this.listingCache = collaborators.getListingCache();
+    this.lookupIndex = collaborators.getLookupIndex();
+    if (listingSettings.isServerSideRecursiveListing()) {
+      sectionedListingParserFactory = new SectionedListingParserFactory();
+      client.setParserFactory(sectionedListingParserFactory);
+    } else {
+      sectionedListingParserFactory = null;
+    }
+    client.addProtocolCommandListener(new SessionStateListener());
+    client.addProtocolCommandListener(new SuccessfulReplyListener());
+    client.addProtocolCommandListener(new StatisticsListener());
+    if (capabilities.getSystemType() != null) {
+      // the listing parser is chosen from the system type which is already known, without sending another SYST command
+      client.configure(new FTPClientConfig(capabilities.getSystemType()));
+    }
 
     copyCommand = new FtpCopyCommand(this, client);
     createDirectoryCommand = new FtpCreateDirectoryCommand(this, client);
     deleteCommand = new FtpDeleteCommand(this, client);
+    getAttributesCommand = new FtpGetAttributesCommand(this, client);
     moveCommand = new FtpMoveCommand(this, client);
     readCommand = new FtpReadCommand(this, client);
     listCommand = new FtpListCommand(this, client, (FtpReadCommand) readCommand);
@@ -135,6 +212,8 @@ public class FtpFileSystem implements FileSystem {
    * throw exception. Any errors will be logged.
    */
   public void disconnect() {
+    workingDirectory = null;
+    transferMode = null;
     try {
       client.logout();
     } catch (FTPConnectionClosedException e) {
@@ -152,9 +231,275 @@ public class FtpFileSystem implements FileSystem {
     }
   }
 
+  private static FtpListingSettings workingDirectoryListingSettings() {
+    FtpListingSettings listingSettings = new FtpListingSettings();
+    listingSettings.setListingStrategy(WORKING_DIRECTORY);
+    return listingSettings;
+  }
+
+  /**
+   * @return the {@link FtpServerCapabilities} of the server this connection is connected to
+   */
+  public FtpServerCapabilities getCapabilities() {
+    return capabilities;
+  }
+
+  public FtpListingSettings getListingSettings() {
+    return listingSettings;
+  }
+
+  /**
+   * @return the {@link DirectoryListingCache} in which the listings of directories are kept, or {@code null} if they are not
+   *         cached
+   */
+  public DirectoryListingCache getListingCache() {
+    return listingCache;
+  }
+
+  /**
+   * @return the {@link DirectoryListingCache} in which the directories listed to look up files are indexed, which is the listing
+   *         cache when it is enabled, or {@code null} if they are not reused
+   */
+  public DirectoryListingCache getLookupIndex() {
+    return listingCache != null ? listingCache : lookupIndex;
+  }
+
+  /**
+   * Invalidates what is known about the given path and its parent directory: the cached listings affected by the change, see
+   * {@link DirectoryListingCache#invalidate(String)}, the lookups of the operation being executed, see
+   * {@link PathLookupMemo#invalidate(String)}, and the working directory, if it was at or below the given path.
+   *
+   * @param path the absolute path of a file or directory which was created, modified or removed
+   */
+  public void onPathModified(String path) {
+    if (listingCache != null) {
+      listingCache.invalidate(path);
+    }
+    if (lookupIndex != null) {
+      lookupIndex.invalidate(path);
+    }
+    if (lookupMemo != null) {
+      lookupMemo.invalidate(path);
+    }
+    String modified = toAbsoluteDirectory(path);
+    if (workingDirectory != null && modified != null && (workingDirectory.equals(modified)
+        || workingDirectory.startsWith(modified.endsWith(SEPARATOR) ? modified : modified + SEPARATOR))) {
+      workingDirectory = null;
+    }
+  }
+
+  /**
+   * @return the {@link PathLookupMemo} of the operation being executed, or {@code null} if no operation is being executed
+   */
+  public PathLookupMemo getLookupMemo() {
+    return lookupMemo;
+  }
+
+  /**
+   * @return the {@link FtpOperationStatistics} of the last operation which finished on this connection, or {@code null} if none
+   *         did yet
+   */
+  public FtpOperationStatistics getLastOperationStatistics() {
+    return lastOperationStatistics;
+  }
+
+  /**
+   * @return the {@link FtpStatistics} to which the costs of the operations executed on this connection are added
+   */
+  public FtpStatistics getStatistics() {
+    return totalStatistics;
+  }
+
+  /**
+   * Counts bytes transferred through a data connection as part of the operation being executed, if any
+   *
+   * @param bytes the amount of bytes transferred
+   */
+  public void onDataTransferred(long bytes) {
+    if (statistics != null) {
+      statistics.onDataTransferred(bytes);
+    }
+  }
+
+  /**
+   * Changes the working directory of the {@link #client}, unless it is already known to be the given one. The working directory
+   * is tracked from the commands sent through this connection and forgotten whenever it becomes uncertain, for example after a
+   * failed command.
+   *
+   * @param path the path of a directory
+   * @return whether the working directory is the given one
+   * @throws IOException if the command could not be sent
+   */
+  public boolean changeWorkingDirectory(String path) throws IOException {
+    String directory = toAbsoluteDirectory(path);
+    if (directory != null && directory.equals(workingDirectory)) {
+      LOGGER.trace("Working directory is already {}, skipping CWD", directory);
+      return true;
+    }
+
+    boolean changed;
+    try {
+      changed = client.changeWorkingDirectory(path);
+    } catch (IOException e) {
+      workingDirectory = null;
+      throw e;
+    }
+    workingDirectory = changed ? directory : null;
+    return changed;
+  }
+
+  /**
+   * @return the path of the working directory of the {@link #client}, which is only asked to the server if it is not already
+   *         known
+   * @throws IOException if the command could not be sent
+   */
+  public String printWorkingDirectory() throws IOException {
+    if (workingDirectory != null) {
+      return workingDirectory;
+    }
+    String directory = client.printWorkingDirectory();
+    workingDirectory = directory != null ? toAbsoluteDirectory(directory) : null;
+    return directory;
+  }
+
+  /**
+   * @return the normalized form of the given path if it is absolute, {@code null} otherwise
+   */
+  private static String toAbsoluteDirectory(String path) {
+    if (path == null || !path.startsWith(SEPARATOR)) {
+      return null;
+    }
+    String directory = UriUtils.normalizeUri(createUri(path)).getPath();
+    return directory.isEmpty() ? SEPARATOR : directory;
+  }
+
+  /**
+   * @return whether directories should be listed by passing their absolute path to the listing command instead of changing the
+   *         working directory into them, according to the configured {@link FtpListingStrategy}
+   */
+  public boolean isAbsolutePathListing() {
+    switch (listingSettings.getListingStrategy()) {
+      case ABSOLUTE_PATH:
+        return !capabilities.isAbsolutePathListingRejected();
+      case AUTO:
+        return !capabilities.isAbsolutePathListingRejected() && isFeatureSupported(MLST.getCommand());
+      default:
+        return false;
+    }
+  }
+
+  /**
+   * Records that the server rejected a listing command with an absolute path argument, so that the following listings on the
+   * connections to this server change the working directory instead.
+   */
+  public void onAbsolutePathListingRejected() {
+    if (!capabilities.isAbsolutePathListingRejected()) {
+      LOGGER.debug("Server rejected a listing by absolute path. Falling back to changing the working directory");
+      capabilities.onAbsolutePathListingRejected();
+    }
+  }
+
+  /**
+   * @return whether recursive listings should be requested in one single {@code LIST -R} command
+   */
+  public boolean isServerSideRecursiveListing() {
+    return sectionedListingParserFactory != null && !capabilities.isServerSideRecursiveListingRejected();
+  }
+
+  /**
+   * @return the {@link SectionedListingParserFactory} used by the {@link #client} if {@link #isServerSideRecursiveListing()}
+   */
+  public SectionedListingParserFactory getSectionedListingParserFactory() {
+    return sectionedListingParserFactory;
+  }
+
+  /**
+   * Records that the server rejected or ignored the {@code LIST -R} command, so that the following recursive listings on
+   * the connections to this server list each directory separately.
+   */
+  public void onServerSideRecursiveListingRejected() {
+    if (!capabilities.isServerSideRecursiveListingRejected()) {
+      LOGGER.debug("Server does not support LIST -R. Falling back to listing each directory separately");
+      capabilities.onServerSideRecursiveListingRejected();
+    }
+  }
+
+  /**
+   * @return whether file lookups should be answered with the {@code STAT} command
+   */
+  public boolean isControlChannelListing() {
+    return listingSettings.isControlChannelListing() && !capabilities.isControlChannelListingRejected();
+  }
+
+  /**
+   * @return whether the attributes of single files should be asked for with the {@code SIZE} and {@code MDTM} commands, see
+   *         {@link FtpMetadataStrategy#AUTO}
+   */
+  public boolean isSizeAndModificationTimeLookup() {
+    return listingSettings.getMetadataStrategy() == FtpMetadataStrategy.AUTO && isFeatureSupported(SIZE.getCommand())
+        && isFeatureSupported(MDTM.getCommand());
+  }
+
+  /**
+   * Records that the server does not support listings through the {@code STAT} command, so that the following lookups on the
+   * connections to this server open a data connection instead.
+   */
+  public void onControlChannelListingRejected() {
+    if (!capabilities.isControlChannelListingRejected()) {
+      LOGGER.debug("Server does not support listing through STAT. Falling back to listing over data connections");
+      capabilities.onControlChannelListingRejected();
+    }
+  }
+
+  /**
+   * @return the {@link FTPFileEntryParser} for the listings returned by the {@code STAT} command, which is the same one the
+   *         {@link #client} would use for the {@code LIST} command
+   * @throws IOException if the system type of the server could not be obtained
+   */
+  public FTPFileEntryParser getControlChannelEntryParser() throws IOException {
+    if (controlChannelEntryParser == null) {
+      controlChannelEntryParser =
+          new DefaultFTPFileEntryParserFactory().createFileEntryParser(capabilities.getSystemType(client));
+    }
+    return controlChannelEntryParser;
+  }
+
+  /**
+   * @return whether simple file name patterns should be passed to the server as the argument of non recursive listings
+   */
+  public boolean isFilenamePatternPushdown() {
+    return listingSettings.isFilenamePatternPushdown() && !capabilities.isFilenamePatternPushdownRejected();
+  }
+
+  /**
+   * @return whether the server has already proven to filter listings by the given file name pattern, so that an empty result can
+   *         be trusted
+   */
+  public boolean isFilenamePatternPushdownHonored() {
+    return capabilities.isFilenamePatternPushdownHonored();
+  }
+
+  /**
+   * Records that the server filtered a listing by the given file name pattern.
+   */
+  public void onFilenamePatternPushdownHonored() {
+    capabilities.onFilenamePatternPushdownHonored();
+  }
+
+  /**
+   * Records that the server does not filter listings by the given file name pattern, so that the following listings on the
+   * connections to this server transfer all the entries.
+   */
+  public void onFilenamePatternPushdownRejected() {
+    if (!capabilities.isFilenamePatternPushdownRejected()) {
+      LOGGER.debug("Server does not honor wildcards in the listing argument. Falling back to client side filtering");
+      capabilities.onFilenamePatternPushdownRejected();
+    }
+  }
+
   public boolean isFeatureSupported(String command) {
     try {
-      return client.hasFeature(command);
+      return capabilities.isFeatureSupported(command, client);
     } catch (IOException exception) {
       LOGGER.error(format("Unable to resolve if feature {} is supported.", command), exception);
       return false;
@@ -169,19 +514,61 @@ public class FtpFileSystem implements FileSystem {
   }
 
   /**
-   * Validates the underlying connection to the remote server
+   * Validates the underlying connection to the remote server by changing to the base directory
    *
    * @return a {@link ConnectionValidationResult}
    */
   public ConnectionValidationResult validateConnection() {
+    return validateConnection(FtpValidationStrategy.WORKING_DIRECTORY, 0);
+  }
+
+  /**
+   * Validates the underlying connection to the remote server
+   *
+   * @param strategy      the {@link FtpValidationStrategy} to use
+   * @param maxIdleMillis for how long after the last successful reply the connection is considered valid without asking the
+   *                      server, when the strategy is {@link FtpValidationStrategy#RECENT_REPLY}
+   * @return a {@link ConnectionValidationResult}
+   */
+  public ConnectionValidationResult validateConnection(FtpValidationStrategy strategy, long maxIdleMillis) {
     if (!isConnected()) {
       LOGGER.trace("Connection validation failed.");
 
       return failure("Connection is stale", new FTPConnectionException("Connection is stale", DISCONNECTED));
     }
 
+    switch (strategy) {
+      case RECENT_REPLY:
+        if (nanoTime() - lastSuccessfulReplyNanos <= MILLISECONDS.toNanos(maxIdleMillis)) {
+          return success();
+        }
+        return validateWithNoop();
+      case NOOP:
+        return validateWithNoop();
+      default:
+        return validateWithBaseDir();
+    }
+  }
+
+  private ConnectionValidationResult validateWithNoop() {
+    try {
+      if (!client.sendNoOp()) {
+        String message = format("Server rejected the NOOP command. %s", getReplyCodeErrorMessage(client.getReplyCode()));
+        LOGGER.trace("Connection validation failed. {}", message);
+        return failure(message, new FTPConnectionException(message, DISCONNECTED));
+      }
+    } catch (IOException e) {
+      LOGGER.trace("Connection validation failed.", e);
+      return failure("Connection is stale", new FTPConnectionException("Connection is stale", e, DISCONNECTED));
+    }
+    return success();
+  }
+
+  private ConnectionValidationResult validateWithBaseDir() {
     try {
-      changeToBaseDir();
+      // the working directory is changed even if it is already the base one, to check that it still exists
+      workingDirectory = null;
+      changeToBaseDirectory();
     } catch (Exception e) {
       LOGGER.error("Error occurred while changing to base directory {}", getBasePath(), e);
       return failure("Configured workingDir is unavailable", e);
@@ -190,16 +577,22 @@ public class FtpFileSystem implements FileSystem {
   }
 
   /**
-   * Sets the transfer mode on the {@link #client}
+   * Sets the transfer mode on the {@link #client}. The {@code TYPE} command is only sent if the session is not already on the
+   * given mode. The mode of the session is forgotten when the connection is closed, since the server starts a new session in
+   * its default mode.
    *
    * @param mode a {@link FtpTransferMode}
    */
   public void setTransferMode(FtpTransferMode mode) {
+    if (mode == transferMode) {
+      return;
+    }
     try {
       if (!client.setFileType(mode.getCode())) {
         throw new IOException(format("Failed to set %s transfer type. %s", mode.getDescription(),
                                      getReplyCodeErrorMessage(client.getReplyCode())));
       }
+      transferMode = mode;
     } catch (Exception e) {
       LOGGER.error(format("Found exception trying to change transfer mode to %s. %s",
                           mode.getClass(),
@@ -212,6 +605,13 @@ public class FtpFileSystem implements FileSystem {
     }
   }
 
+  /**
+   * @return the transfer mode the session is known to be on, or {@code null} if it is unknown
+   */
+  public FtpTransferMode getTransferMode() {
+    return transferMode;
+  }
+
   /**
    * Sets the data timeout property on the underlying {@link #client}
    *
@@ -246,14 +646,39 @@ public class FtpFileSystem implements FileSystem {
    * @return an {@link InputStream}
    */
   public InputStream retrieveFileContent(FtpFileAttributes filePayload) {
+    return retrieveFileContent(filePayload, 0);
+  }
+
+  /**
+   * Returns an InputStream which obtains the content for the file of the given {@code filePayload} from the given
+   * {@code offset} on, which is sent to the server through the {@code REST} command before retrieving it.
+   * <p>
+   * The invoked <b>MUST</b> make sure that the returned stream is closed in order for the underlying connection to be closed.
+   *
+   * @param filePayload a {@link FtpFileAttributes} referencing to a FTP file
+   * @param offset      the position of the first byte to retrieve
+   * @return an {@link InputStream}
+   */
+  public InputStream retrieveFileContent(FtpFileAttributes filePayload, long offset) {
     try {
+      client.setRestartOffset(offset);
       InputStream inputStream = client.retrieveFileStream(normalizePath(filePayload.getPath()));
       if (inputStream == null) {
         throw new FileNotFoundException(format("Could not retrieve content of file '%s' because it doesn't exist",
                                                filePayload.getPath()));
       }
 
-      return inputStream;
+      return new CountingInputStream(inputStream) {
+
+        @Override
+        public void close() throws IOException {
+          try {
+            super.close();
+          } finally {
+            onDataTransferred(getByteCount());
+          }
+        }
+      };
     } catch (Exception e) {
       LOGGER.error(format("Exception was found trying to retrieve the contents of file '%s'. %s",
                           filePayload.getPath(),
@@ -285,6 +710,24 @@ public class FtpFileSystem implements FileSystem {
     }
   }
 
+  /**
+   * Awaits for the server to acknowledge a transfer which was stopped before the end of the file by closing its data
+   * connection. Depending on how much of the file it had already sent, the server acknowledges it either as completed or as
+   * aborted, so both replies are accepted.
+   */
+  public void awaitStoppedTransferCompletion() {
+    try {
+      if (!client.completePendingCommand()) {
+        LOGGER.debug("Stopped transfer was acknowledged as aborted. {}", getReplyCodeErrorMessage(client.getReplyCode()));
+      }
+    } catch (IOException e) {
+      LOGGER.error(format("Failed to complete pending command. %s", getReplyCodeErrorMessage(client.getReplyCode())), e);
+      throw new MuleRuntimeException(createStaticMessage(format("Failed to complete pending command. %s",
+                                                                getReplyCodeErrorMessage(client.getReplyCode()))),
+                                     e);
+    }
+  }
+
   private UriLock createLock(URI uri) {
     return new URLPathLock(toURL(uri), lockFactory);
   }
@@ -301,53 +744,127 @@ public class FtpFileSystem implements FileSystem {
   @Override
   public List<Result<String, FtpFileAttributes>> list(FileConnectorConfig config, String directoryPath,
                                                       boolean recursive, Predicate<FtpFileAttributes> matcher) {
-    return getListCommand().list(config, directoryPath, recursive, matcher);
+    return inOperation("list", () -> getListCommand().list(config, directoryPath, recursive, matcher));
   }
 
   @Override
   public List<Result<String, FtpFileAttributes>> list(FileConnectorConfig config, String directoryPath,
                                                       boolean recursive, Predicate<FtpFileAttributes> matcher,
                                                       SubsetList subsetList) {
-    return getListCommand().list(config, directoryPath, recursive, matcher);
+    return inOperation("list", () -> getListCommand().list(config, directoryPath, recursive, matcher, subsetList));
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>
+   * The {@link FtpOperationStatistics} of the listing only count the commands sent until the iterator is returned, since the
+   * rest of the directory tree is listed as it is consumed.
+   */
+  @Override
+  public Iterator<Result<String, FtpFileAttributes>> iterate(FileConnectorConfig config, String directoryPath,
+                                                             boolean recursive, Predicate<FtpFileAttributes> matcher) {
+    return inOperation("list", () -> getListCommand().iterate(config, directoryPath, recursive, matcher));
+  }
+
+  @Override
+  public Iterator<Result<String, FtpFileAttributes>> iterate(FileConnectorConfig config, String directoryPath,
+                                                             boolean recursive, Predicate<FtpFileAttributes> matcher,
+                                                             SubsetList subsetList) {
+    return inOperation("list", () -> getListCommand().iterate(config, directoryPath, recursive, matcher, subsetList));
   }
 
   @Override
   public Result<InputStream, FtpFileAttributes> read(FileConnectorConfig config, String filePath,
                                                      boolean lock, Long timeBetweenSizeCheck) {
-    return getReadCommand().read(config, filePath, lock, timeBetweenSizeCheck);
+    return inOperation("read", () -> getReadCommand().read(config, filePath, lock, timeBetweenSizeCheck));
+  }
+
+  @Override
+  public Result<InputStream, FtpFileAttributes> read(FileConnectorConfig config, String filePath, boolean lock,
+                                                     Long timeBetweenSizeCheck, long offset, Long length) {
+    return inOperation("read", () -> getReadCommand().read(config, filePath, lock, timeBetweenSizeCheck, offset, length));
   }
 
   @Override
   public void write(String filePath, InputStream content, FileWriteMode mode,
                     boolean lock, boolean createParentDirectories) {
-    getWriteCommand().write(filePath, content, mode, lock, createParentDirectories);
+    inOperation("write", () -> getWriteCommand().write(filePath, content, mode, lock, createParentDirectories));
   }
 
   @Override
   public void copy(FileConnectorConfig config, String sourcePath, String targetPath, boolean overwrite,
                    boolean createParentDirectories, String renameTo) {
-    getCopyCommand().copy(config, sourcePath, targetPath, overwrite, createParentDirectories, renameTo);
+    inOperation("copy",
+                () -> getCopyCommand().copy(config, sourcePath, targetPath, overwrite, createParentDirectories, renameTo));
   }
 
   @Override
   public void move(FileConnectorConfig config, String sourcePath, String targetPath, boolean overwrite,
                    boolean createParentDirectories, String renameTo) {
-    getMoveCommand().move(config, sourcePath, targetPath, overwrite, createParentDirectories, renameTo);
+    inOperation("move",
+                () -> getMoveCommand().move(config, sourcePath, targetPath, overwrite, createParentDirectories, renameTo));
   }
 
   @Override
   public void delete(String filePath) {
-    getDeleteCommand().delete(filePath);
+    inOperation("delete", () -> getDeleteCommand().delete(filePath));
   }
 
   @Override
   public void rename(String filePath, String newName, boolean overwrite) {
-    getRenameCommand().rename(filePath, newName, overwrite);
+    inOperation("rename", () -> getRenameCommand().rename(filePath, newName, overwrite));
   }
 
   @Override
   public void createDirectory(String directoryPath) {
-    getCreateDirectoryCommand().createDirectory(directoryPath);
+    inOperation("createDirectory", () -> getCreateDirectoryCommand().createDirectory(directoryPath));
+  }
+
+  @Override
+  public FtpBulkFileAttributes getAttributes(List<String> filePaths) {
+    return inOperation("getAttributes", () -> getGetAttributesCommand().getAttributes(filePaths));
+  }
+
+  private void inOperation(String name, Runnable operation) {
+    inOperation(name, () -> {
+      operation.run();
+      return null;
+    });
+  }
+
+  /**
+   * Runs the given operation with a {@link PathLookupMemo} and a {@link FtpOperationStatistics} which live until the operation
+   * finishes. Operations invoked from within it, such as the delete done by a copy which overwrites its target, share the same
+   * ones. The statistics are added to the {@link #getStatistics()} and logged at debug level once the operation finishes. They
+   * include the change to the base directory which the operation was preceded by, see {@link #changeToBaseDir()}.
+   *
+   * @param name      the name of the operation
+   * @param operation the operation to run
+   * @return the result of the operation
+   */
+  private <T> T inOperation(String name, Supplier<T> operation) {
+    if (lookupMemo != null) {
+      return operation.get();
+    }
+
+    lookupMemo = new PathLookupMemo();
+    if (statistics == null) {
+      statistics = new FtpOperationStatistics(name);
+    } else {
+      statistics.onStarted(name);
+    }
+    try {
+      return operation.get();
+    } finally {
+      lookupMemo = null;
+      statistics.onCompleted();
+      lastOperationStatistics = statistics;
+      statistics = null;
+      totalStatistics.record(lastOperationStatistics);
+      if (LOGGER.isDebugEnabled()) {
+        LOGGER.debug(lastOperationStatistics.toString());
+      }
+    }
   }
 
   @Override
@@ -361,14 +878,22 @@ public class FtpFileSystem implements FileSystem {
   }
 
   /**
-   * Changes the {@link #client}'s current working directory to the base path
+   * Changes the {@link #client}'s current working directory to the base path. Since operations are preceded by this change, its
+   * commands are counted as part of the next operation when no operation is being executed.
    */
   @Override
   public void changeToBaseDir() {
+    if (statistics == null) {
+      statistics = new FtpOperationStatistics("changeToBaseDir");
+    }
+    changeToBaseDirectory();
+  }
+
+  private void changeToBaseDirectory() {
     String basePath = getBasePath();
     if (basePath != null) {
       try {
-        client.changeWorkingDirectory(normalizePath(createUri("/", getBasePath()).getPath()));
+        changeWorkingDirectory(normalizePath(createUri("/", getBasePath()).getPath()));
       } catch (IOException e) {
         LOGGER.error(format("Failed to perform CWD to the base directory '%s'", basePath), e);
         ConnectionException ce = new ConnectionException(e, client);
@@ -452,6 +977,14 @@ public class FtpFileSystem implements FileSystem {
     return createDirectoryCommand;
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public GetAttributesCommand getGetAttributesCommand() {
+    return getAttributesCommand;
+  }
+
   /**
    * Obtains a {@link FtpFileAttributes} for the given {@code filePath}
    *
@@ -462,14 +995,37 @@ public class FtpFileSystem implements FileSystem {
     return ((FtpReadCommand) readCommand).getFile(filePath);
   }
 
+  /**
+   * Obtains the attributes of a file again, to tell whether its size changed. When the server can tell the size of the file with
+   * the {@code SIZE} command, see {@link #isSizeAndModificationTimeLookup()}, only its size is asked for.
+   *
+   * @param attributes the attributes previously obtained for the file
+   * @return the updated {@link FtpFileAttributes} or {@code null} if the file doesn't exist anymore
+   */
+  public FtpFileAttributes getUpdatedFileAttributes(FtpFileAttributes attributes) {
+    return ((FtpReadCommand) readCommand).getUpdatedFile(attributes);
+  }
+
+  /**
+   * Asks the server for the size and the modification time of a file with the {@code SIZE} and {@code MDTM} commands, without
+   * using any listing.
+   *
+   * @param filePath the path of the file
+   * @return a {@link FTPFile} holding the size and the timestamp of the file, or {@code null} if the server can't tell them
+   */
+  public FTPFile getSizeAndModificationTime(String filePath) {
+    return ((FtpReadCommand) readCommand).getSizeAndModificationTime(filePath);
+  }
+
   public void setSingleFileListingMode(SingleFileListingMode singleFileListingMode) {
     LOGGER.debug("Setting singleFileListingMode = {}", singleFileListingMode);
-    this.singleFileListingMode = singleFileListingMode;
+    capabilities.setSingleFileListingMode(singleFileListingMode);
   }
 
   public SingleFileListingMode getSingleFileListingMode() {
+    SingleFileListingMode singleFileListingMode = capabilities.getSingleFileListingMode();
     LOGGER.debug("Current singleFileListingMode = {}", singleFileListingMode);
-    return this.singleFileListingMode;
+    return singleFileListingMode;
   }
 
   /**
@@ -529,4 +1085,71 @@ public class FtpFileSystem implements FileSystem {
       lock.release();
     }
   }
+
+  /**
+   * Counts the commands and replies of the operation being executed, see {@link FtpOperationStatistics}
+   */
+  private class StatisticsListener implements ProtocolCommandListener {
+
+    @Override
+    public void protocolCommandSent(ProtocolCommandEvent event) {
+      if (statistics != null && event.getCommand() != null) {
+        statistics.onCommandSent(event.getCommand());
+      }
+    }
+
+    @Override
+    public void protocolReplyReceived(ProtocolCommandEvent event) {
+      if (statistics != null) {
+        statistics.onReplyReceived(event.getReplyCode());
+      }
+    }
+  }
+
+  /**
+   * Keeps the time of the last successful reply from the server, which tells whether the connection was recently alive
+   */
+  private class SuccessfulReplyListener implements ProtocolCommandListener {
+
+    @Override
+    public void protocolCommandSent(ProtocolCommandEvent event) {}
+
+    @Override
+    public void protocolReplyReceived(ProtocolCommandEvent event) {
+      int replyCode = event.getReplyCode();
+      if (!isNegativeTransient(replyCode) && !isNegativePermanent(replyCode)) {
+        lastSuccessfulReplyNanos = nanoTime();
+      }
+    }
+  }
+
+  /**
+   * Forgets the working directory and the transfer mode of the session whenever they may have been changed by commands which
+   * were not sent through this class, or the server is closing the connection
+   */
+  private class SessionStateListener implements ProtocolCommandListener {
+
+    @Override
+    public void protocolCommandSent(ProtocolCommandEvent event) {
+      String command = event.getCommand();
+      if (command == null) {
+        return;
+      }
+      command = command.toUpperCase(ENGLISH);
+      if (WORKING_DIRECTORY_COMMANDS.contains(command)) {
+        workingDirectory = null;
+      }
+      if (SESSION_STATE_COMMANDS.contains(command)) {
+        transferMode = null;
+      }
+    }
+
+    @Override
+    public void protocolReplyReceived(ProtocolCommandEvent event) {
+      if (event.getReplyCode() == SERVICE_NOT_AVAILABLE) {
+        workingDirectory = null;
+        transferMode = null;
+      }
+    }
+  }
 }
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.extension.ftp.internal.connection;
+
+/**
+ * What a {@link FtpFileSystem} shares with the other connections created by the same connection provider, along with the
+ * {@link FtpListingSettings} which tune how it lists directories.
+ * <p>
+ * An instance is built by {@link FtpAbstractConnectionProvider} for each connection it creates. The optional collaborators
+ * which are not set are disabled, except for the {@link FtpStatistics}, which then are only those of the connection.
+ *
+ * @since 3.0
+ */
+public final class FtpFileSystemCollaborators {
+
+  private final FtpServerCapabilities capabilities;
+  private final FtpListingSettings listingSettings;
+  private DirectoryListingCache listingCache;
+  private DirectoryListingCache lookupIndex;
+  private FtpStatistics statistics = new FtpStatistics();
+
+  /**
+   * Creates a new instance without listing cache nor lookup index
+   *
+   * @param capabilities    the {@link FtpServerCapabilities} shared with the other connections to the same server
+   * @param listingSettings the {@link FtpListingSettings} which tune how directories are listed
+   */
+  public FtpFileSystemCollaborators(FtpServerCapabilities capabilities, FtpListingSettings listingSettings) {
+    this.capabilities = capabilities;
+    this.listingSettings = listingSettings;
+  }
+
+  public FtpServerCapabilities getCapabilities() {
+    return capabilities;
+  }
+
+  public FtpListingSettings getListingSettings() {
+    return listingSettings;
+  }
+
+  public DirectoryListingCache getListingCache() {
+    return listingCache;
+  }
+
+  /**
+   * @param listingCache the {@link DirectoryListingCache} shared with the other connections of the config, or {@code null} if
+   *                     listings should not be cached
+   */
+  public void setListingCache(DirectoryListingCache listingCache) {
+    this.listingCache = listingCache;
+  }
+
+  public DirectoryListingCache getLookupIndex() {
+    return lookupIndex;
+  }
+
+  /**
+   * @param lookupIndex the {@link DirectoryListingCache} in which the directories listed to look up files are indexed, or
+   *                    {@code null} if they should not be reused
+   */
+  public void setLookupIndex(DirectoryListingCache lookupIndex) {
+    this.lookupIndex = lookupIndex;
+  }
+
+  public FtpStatistics getStatistics() {
+    return statistics;
+  }
+
+  /**
+   * @param statistics the {@link FtpStatistics} shared with the other connections of the config, to which the costs of the
+   *                   operations executed on the connection are added
+   */
+  public void setStatistics(FtpStatistics statistics) {
+    this.statistics = statistics;
+  }
+}
@@ -0,0 +1,292 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.extension.ftp.internal.connection;
+
+import static org.mule.runtime.extension.api.annotation.param.display.Placement.ADVANCED_TAB;
+
+import org.mule.extension.ftp.api.ftp.FtpListingStrategy;
+import org.mule.extension.ftp.api.ftp.FtpMetadataStrategy;
+import org.mule.runtime.extension.api.annotation.param.Optional;
+import org.mule.runtime.extension.api.annotation.param.Parameter;
+import org.mule.runtime.extension.api.annotation.param.display.Placement;
+import org.mule.runtime.extension.api.annotation.param.display.Summary;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Groups the parameters which tune how directories are listed on the remote server
+ *
+ * @since 3.0
+ */
+public final class FtpListingSettings {
+
+  /**
+   * How the directories are walked through while listing. {@code AUTO} lists directories by their absolute path when the server
+   * supports it, avoiding a change of working directory per listed directory.
+   * <p>
+   * Defaults to {@code AUTO}
+   */
+  @Parameter
+  @Optional(defaultValue = "AUTO")
+  @Placement(tab = ADVANCED_TAB, order = 1)
+  @Summary("How the directories are walked through while listing")
+  private FtpListingStrategy listingStrategy = FtpListingStrategy.AUTO;
+
+  /**
+   * Whether recursive listings should be requested to the server in one single {@code LIST -R} command instead of listing each
+   * directory separately. Servers which ignore or reject the flag are transparently listed directory by directory.
+   * <p>
+   * Defaults to {@code false}
+   */
+  @Parameter
+  @Optional(defaultValue = "false")
+  @Placement(tab = ADVANCED_TAB, order = 2)
+  @Summary("Whether recursive listings should be requested to the server in one single LIST -R command")
+  private boolean serverSideRecursiveListing = false;
+
+  /**
+   * Whether file lookups should be answered with the {@code STAT} command, which returns the listing inline on the control
+   * connection instead of opening a data connection. Servers which do not support it are transparently queried as usual.
+   * <p>
+   * Defaults to {@code false}
+   */
+  @Parameter
+  @Optional(defaultValue = "false")
+  @Placement(tab = ADVANCED_TAB, order = 3)
+  @Summary("Whether file lookups should be answered with the STAT command, without opening a data connection")
+  private boolean controlChannelListing = false;
+
+  /**
+   * Whether simple file name patterns of the matchers, such as {@code report-*.xml}, should be passed to the server as the
+   * argument of non recursive listings, so that only the matching entries are transferred. The listed entries are still checked
+   * against the matcher, and servers which do not honor wildcards are transparently listed as usual. Patterns starting with a
+   * wildcard are never passed, since servers don't match it against the names starting with a dot.
+   * <p>
+   * Defaults to {@code false}
+   */
+  @Parameter
+  @Optional(defaultValue = "false")
+  @Placement(tab = ADVANCED_TAB, order = 4)
+  @Summary("Whether simple file name patterns should be passed to the server to filter non recursive listings")
+  private boolean filenamePatternPushdown = false;
+
+  /**
+   * A scalar value representing the amount of time during which the listing of a directory is reused by all the operations and
+   * sources of the config, instead of being transferred again. Directories modified through the connector are listed again
+   * right away, but changes done by other clients may go unnoticed for that long. This attribute works in tandem with
+   * {@link #listingCacheTtlUnit}.
+   * <p>
+   * Defaults to {@code 0}, which disables the cache
+   */
+  @Parameter
+  @Optional(defaultValue = "0")
+  @Placement(tab = ADVANCED_TAB, order = 5)
+  @Summary("Amount of time during which directory listings are reused. 0 disables the listing cache")
+  private long listingCacheTtl = 0;
+
+  /**
+   * A {@link TimeUnit} which qualifies the {@link #listingCacheTtl} attribute.
+   * <p>
+   * Defaults to {@code SECONDS}
+   */
+  @Parameter
+  @Optional(defaultValue = "SECONDS")
+  @Placement(tab = ADVANCED_TAB, order = 6)
+  @Summary("Time unit to be used in the Listing Cache TTL")
+  private TimeUnit listingCacheTtlUnit = TimeUnit.SECONDS;
+
+  /**
+   * The maximum amount of directory listings to keep in the listing cache. The least recently used ones are discarded first.
+   * <p>
+   * Defaults to {@code 1000}
+   */
+  @Parameter
+  @Optional(defaultValue = "1000")
+  @Placement(tab = ADVANCED_TAB, order = 7)
+  @Summary("Maximum amount of directory listings to keep in the listing cache")
+  private int listingCacheMaxEntries = 1000;
+
+  /**
+   * The maximum estimated size, in bytes, of the directory listings kept in the listing cache. The least recently used ones are
+   * discarded first.
+   * <p>
+   * Defaults to {@code 16777216} (16 MB)
+   */
+  @Parameter
+  @Optional(defaultValue = "16777216")
+  @Placement(tab = ADVANCED_TAB, order = 8)
+  @Summary("Maximum estimated size in bytes of the directory listings kept in the listing cache")
+  private long listingCacheMaxSize = 16777216;
+
+  /**
+   * A scalar value representing the amount of time during which the listing of a directory, obtained to look up one of its
+   * files, is indexed by file name and reused to look up other files of the same directory. This only applies to servers on
+   * which files can't be looked up individually, and lets a directory with many files be listed once instead of once per file.
+   * Changes done by other clients may go unnoticed by lookups for that long, although the size checks done before reading a
+   * file always ask the server. When the listing cache is enabled, it is used instead. This attribute works in tandem with
+   * {@link #lookupIndexTtlUnit}.
+   * <p>
+   * Defaults to {@code 0}, which disables the index
+   */
+  @Parameter
+  @Optional(defaultValue = "0")
+  @Placement(tab = ADVANCED_TAB, order = 9)
+  @Summary("Amount of time during which a directory listed to look up a file is reused to look up its other files. 0 disables it")
+  private long lookupIndexTtl = 0;
+
+  /**
+   * A {@link TimeUnit} which qualifies the {@link #lookupIndexTtl} attribute.
+   * <p>
+   * Defaults to {@code SECONDS}
+   */
+  @Parameter
+  @Optional(defaultValue = "SECONDS")
+  @Placement(tab = ADVANCED_TAB, order = 10)
+  @Summary("Time unit to be used in the Lookup Index TTL")
+  private TimeUnit lookupIndexTtlUnit = TimeUnit.SECONDS;
+
+  /**
+   * The maximum amount of directory listings kept to look up files. The least recently used ones are discarded first.
+   * <p>
+   * Defaults to {@code 1000}
+   */
+  @Parameter
+  @Optional(defaultValue = "1000")
+  @Placement(tab = ADVANCED_TAB, order = 11)
+  @Summary("Maximum amount of directory listings kept to look up files")
+  private int lookupIndexMaxEntries = 1000;
+
+  /**
+   * The maximum estimated size, in bytes, of the directory listings kept to look up files. The least recently used ones are
+   * discarded first.
+   * <p>
+   * Defaults to {@code 4194304} (4 MB)
+   */
+  @Parameter
+  @Optional(defaultValue = "4194304")
+  @Placement(tab = ADVANCED_TAB, order = 12)
+  @Summary("Maximum estimated size in bytes of the directory listings kept to look up files")
+  private long lookupIndexMaxSize = 4194304;
+
+  /**
+   * How the attributes of a single file are obtained from servers which don't support the {@code MLST} command. {@code AUTO}
+   * uses the {@code SIZE} and {@code MDTM} commands when the server supports them, which don't need a data connection. It also
+   * lets the size checks done before reading a file only ask for its size. The size is the one the server reports for the
+   * transfer mode in use, and symbolic links are reported as the files they point to.
+   * <p>
+   * Defaults to {@code LISTING}
+   */
+  @Parameter
+  @Optional(defaultValue = "LISTING")
+  @Placement(tab = ADVANCED_TAB, order = 13)
+  @Summary("How the attributes of a single file are obtained from servers which don't support the MLST command")
+  private FtpMetadataStrategy metadataStrategy = FtpMetadataStrategy.LISTING;
+
+  public FtpListingStrategy getListingStrategy() {
+    return listingStrategy;
+  }
+
+  public void setListingStrategy(FtpListingStrategy listingStrategy) {
+    this.listingStrategy = listingStrategy;
+  }
+
+  public boolean isServerSideRecursiveListing() {
+    return serverSideRecursiveListing;
+  }
+
+  public void setServerSideRecursiveListing(boolean serverSideRecursiveListing) {
+    this.serverSideRecursiveListing = serverSideRecursiveListing;
+  }
+
+  public boolean isControlChannelListing() {
+    return controlChannelListing;
+  }
+
+  public void setControlChannelListing(boolean controlChannelListing) {
+    this.controlChannelListing = controlChannelListing;
+  }
+
+  public boolean isFilenamePatternPushdown() {
+    return filenamePatternPushdown;
+  }
+
+  public void setFilenamePatternPushdown(boolean filenamePatternPushdown) {
+    this.filenamePatternPushdown = filenamePatternPushdown;
+  }
+
+  public long getListingCacheTtl() {
+    return listingCacheTtl;
+  }
+
+  public void setListingCacheTtl(long listingCacheTtl) {
+    this.listingCacheTtl = listingCacheTtl;
+  }
+
+  public TimeUnit getListingCacheTtlUnit() {
+    return listingCacheTtlUnit;
+  }
+
+  public void setListingCacheTtlUnit(TimeUnit listingCacheTtlUnit) {
+    this.listingCacheTtlUnit = listingCacheTtlUnit;
+  }
+
+  public int getListingCacheMaxEntries() {
+    return listingCacheMaxEntries;
+  }
+
+  public void setListingCacheMaxEntries(int listingCacheMaxEntries) {
+    this.listingCacheMaxEntries = listingCacheMaxEntries;
+  }
+
+  public long getListingCacheMaxSize() {
+    return listingCacheMaxSize;
+  }
+
+  public void setListingCacheMaxSize(long listingCacheMaxSize) {
+    this.listingCacheMaxSize = listingCacheMaxSize;
+  }
+
+  public long getLookupIndexTtl() {
+    return lookupIndexTtl;
+  }
+
+  public void setLookupIndexTtl(long lookupIndexTtl) {
+    this.lookupIndexTtl = lookupIndexTtl;
+  }
+
+  public TimeUnit getLookupIndexTtlUnit() {
+    return lookupIndexTtlUnit;
+  }
+
+  public void setLookupIndexTtlUnit(TimeUnit lookupIndexTtlUnit) {
+    this.lookupIndexTtlUnit = lookupIndexTtlUnit;
+  }
+
+  public int getLookupIndexMaxEntries() {
+    return lookupIndexMaxEntries;
+  }
+
+  public void setLookupIndexMaxEntries(int lookupIndexMaxEntries) {
+    this.lookupIndexMaxEntries = lookupIndexMaxEntries;
+  }
+
+  public long getLookupIndexMaxSize() {
+    return lookupIndexMaxSize;
+  }
+
+  public void setLookupIndexMaxSize(long lookupIndexMaxSize) {
+    this.lookupIndexMaxSize = lookupIndexMaxSize;
+  }
+
+  public FtpMetadataStrategy getMetadataStrategy() {
+    return metadataStrategy;
+  }
+
+  public void setMetadataStrategy(FtpMetadataStrategy metadataStrategy) {
+    this.metadataStrategy = metadataStrategy;
+  }
+}
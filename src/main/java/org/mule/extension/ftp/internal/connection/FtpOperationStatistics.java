@@ -0,0 +1,192 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.extension.ftp.internal.connection;
+
+import static java.lang.System.nanoTime;
+import static java.util.Arrays.asList;
+import static java.util.Collections.unmodifiableMap;
+import static java.util.Locale.ENGLISH;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.apache.commons.net.ftp.FTPReply.isPositivePreliminary;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Counts what a single operation costs on the connection to the server: the commands sent on the control connection, by verb,
+ * the time spent waiting for their replies, the data connections opened and the bytes transferred through them.
+ * <p>
+ * The wait for a reply is measured from the moment its command is sent until its first reply arrives, so the time spent
+ * transferring the content of a file is not part of it. Commands which were pipelined are matched with their replies in order.
+ * <p>
+ * Instances live only as long as the operation which created them and, like the connection on which the operation is executed,
+ * are not thread safe. Counting may start before the operation itself, with the change to the base directory which precedes
+ * it, see {@link #onStarted(String)}.
+ *
+ * @since 3.0
+ */
+public final class FtpOperationStatistics {
+
+  private static final Set<String> DATA_CONNECTION_COMMANDS =
+      new HashSet<>(asList("LIST", "NLST", "MLSD", "RETR", "STOR", "STOU", "APPE"));
+
+  private String operation;
+  private final long startNanos = nanoTime();
+  private final Map<String, Integer> commands = new TreeMap<>();
+  private final Deque<Long> pendingReplies = new ArrayDeque<>();
+  private boolean firstPendingReplyReceived = false;
+  private int commandCount = 0;
+  private int dataConnectionCount = 0;
+  private long dataBytes = 0;
+  private long replyWaitNanos = 0;
+  private long durationNanos = -1;
+
+  /**
+   * Creates a new instance
+   *
+   * @param operation the name of the operation whose costs are counted
+   */
+  public FtpOperationStatistics(String operation) {
+    this.operation = operation;
+  }
+
+  /**
+   * Marks the start of the operation, when counting started before it
+   *
+   * @param operation the name of the operation whose costs are counted
+   */
+  void onStarted(String operation) {
+    this.operation = operation;
+  }
+
+  /**
+   * Counts a command sent on the control connection
+   *
+   * @param command the verb of the command
+   */
+  void onCommandSent(String command) {
+    String verb = command.toUpperCase(ENGLISH);
+    commands.merge(verb, 1, Integer::sum);
+    commandCount++;
+    if (DATA_CONNECTION_COMMANDS.contains(verb)) {
+      dataConnectionCount++;
+    }
+    pendingReplies.addLast(nanoTime());
+  }
+
+  /**
+   * Counts the time waited for a reply on the control connection
+   *
+   * @param replyCode the code of the reply
+   */
+  void onReplyReceived(int replyCode) {
+    if (pendingReplies.isEmpty()) {
+      // such as the greeting of the server, which is not the reply to any command
+      return;
+    }
+    if (!firstPendingReplyReceived) {
+      replyWaitNanos += nanoTime() - pendingReplies.peekFirst();
+    }
+    // a preliminary reply is followed by another one once the data transfer finishes
+    firstPendingReplyReceived = isPositivePreliminary(replyCode);
+    if (!firstPendingReplyReceived) {
+      pendingReplies.removeFirst();
+    }
+  }
+
+  /**
+   * Counts bytes transferred through a data connection
+   *
+   * @param bytes the amount of bytes transferred
+   */
+  void onDataTransferred(long bytes) {
+    dataBytes += bytes;
+  }
+
+  /**
+   * Marks the operation as finished
+   */
+  void onCompleted() {
+    durationNanos = nanoTime() - startNanos;
+  }
+
+  /**
+   * @return the name of the operation
+   */
+  public String getOperation() {
+    return operation;
+  }
+
+  /**
+   * @return the amount of commands sent on the control connection
+   */
+  public int getCommandCount() {
+    return commandCount;
+  }
+
+  /**
+   * @param verb the verb of a command, such as {@code CWD}
+   * @return the amount of commands with the given verb sent on the control connection
+   */
+  public int getCommandCount(String verb) {
+    return commands.getOrDefault(verb.toUpperCase(ENGLISH), 0);
+  }
+
+  /**
+   * @return the amount of commands sent on the control connection, by verb
+   */
+  public Map<String, Integer> getCommands() {
+    return unmodifiableMap(commands);
+  }
+
+  /**
+   * @return the amount of data connections opened
+   */
+  public int getDataConnectionCount() {
+    return dataConnectionCount;
+  }
+
+  /**
+   * @return the amount of bytes transferred through data connections
+   */
+  public long getDataBytes() {
+    return dataBytes;
+  }
+
+  /**
+   * @return the time spent waiting for the replies of the server, in milliseconds
+   */
+  public long getReplyWaitMillis() {
+    return NANOSECONDS.toMillis(replyWaitNanos);
+  }
+
+  /**
+   * @return how long the operation took, in milliseconds, or how long it has been running if it didn't finish yet
+   */
+  public long getDurationMillis() {
+    return NANOSECONDS.toMillis(getDurationNanos());
+  }
+
+  long getReplyWaitNanos() {
+    return replyWaitNanos;
+  }
+
+  long getDurationNanos() {
+    return durationNanos >= 0 ? durationNanos : nanoTime() - startNanos;
+  }
+
+  @Override
+  public String toString() {
+    return operation + " took " + getDurationMillis() + " ms: " + commandCount + " commands " + commands + ", "
+        + dataConnectionCount + " data connections, " + dataBytes + " bytes transferred, " + getReplyWaitMillis()
+        + " ms waiting for replies";
+  }
+}
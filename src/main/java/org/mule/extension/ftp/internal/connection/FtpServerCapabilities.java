@@ -0,0 +1,222 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.extension.ftp.internal.connection;
+
+import static java.util.Locale.ENGLISH;
+import static org.slf4j.LoggerFactory.getLogger;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.net.ftp.FTPClient;
+import org.slf4j.Logger;
+
+/**
+ * What a remote server is capable of, as learned from the connections to it.
+ * <p>
+ * A single instance is owned by the connection provider and shared by all the connections it creates, so that each capability
+ * is only discovered once instead of once per pooled connection. That includes the features announced by the {@code FEAT}
+ * command (such as {@code MLST}, {@code SIZE}, {@code MDTM}, {@code REST} or {@code EPSV}), the system type returned by the
+ * {@code SYST} command, whether single file listings work, which of the optional listing commands the server rejected and
+ * whether it mishandles pipelined commands.
+ * <p>
+ * Everything which was learned is forgotten on {@link #refresh()}, which happens when there are signs that the server was
+ * replaced by a different one: it can't be reached, or it greets new connections differently than before, see
+ * {@link #onConnected(String)}. The features and the system type may also be pinned, in which case the server is never asked
+ * for them.
+ *
+ * @since 3.0
+ */
+public final class FtpServerCapabilities {
+
+  private static final Logger LOGGER = getLogger(FtpServerCapabilities.class);
+
+  private final Map<String, Boolean> features = new ConcurrentHashMap<>();
+  private final boolean featuresPinned;
+  private final String pinnedSystemType;
+  private final SingleFileListingMode initialSingleFileListingMode;
+
+  private volatile String systemType;
+  private volatile String greeting;
+  private volatile SingleFileListingMode singleFileListingMode;
+  private volatile boolean absolutePathListingRejected = false;
+  private volatile boolean serverSideRecursiveListingRejected = false;
+  private volatile boolean controlChannelListingRejected = false;
+  private volatile boolean filenamePatternPushdownHonored = false;
+  private volatile boolean filenamePatternPushdownRejected = false;
+  private volatile boolean commandPipeliningRejected = false;
+
+  /**
+   * Creates a new instance which learns every capability from the server
+   */
+  public FtpServerCapabilities() {
+    this(SingleFileListingMode.UNSET, null, null);
+  }
+
+  /**
+   * Creates a new instance which learns every capability from the server
+   *
+   * @param singleFileListingMode whether single file listings are already known to work
+   */
+  public FtpServerCapabilities(SingleFileListingMode singleFileListingMode) {
+    this(singleFileListingMode, null, null);
+  }
+
+  /**
+   * Creates a new instance
+   *
+   * @param singleFileListingMode whether single file listings are already known to work
+   * @param pinnedFeatures        the features the server supports, or {@code null} if they should be asked to the server
+   * @param pinnedSystemType      the system type of the server, or {@code null} if it should be asked to the server
+   */
+  public FtpServerCapabilities(SingleFileListingMode singleFileListingMode, Collection<String> pinnedFeatures,
+                               String pinnedSystemType) {
+    this.initialSingleFileListingMode = singleFileListingMode;
+    this.singleFileListingMode = singleFileListingMode;
+    this.featuresPinned = pinnedFeatures != null;
+    this.pinnedSystemType = pinnedSystemType;
+    this.systemType = pinnedSystemType;
+    if (pinnedFeatures != null) {
+      pinnedFeatures.forEach(feature -> features.put(toKey(feature), true));
+    }
+  }
+
+  /**
+   * @param feature the name of a feature, as announced by the {@code FEAT} command
+   * @param client  the {@link FTPClient} through which the server is asked, if the feature was not learned yet
+   * @return whether the server supports the given feature
+   * @throws IOException if the server could not be asked
+   */
+  public boolean isFeatureSupported(String feature, FTPClient client) throws IOException {
+    String key = toKey(feature);
+    Boolean supported = features.get(key);
+    if (supported == null) {
+      if (featuresPinned) {
+        return false;
+      }
+      supported = client.hasFeature(feature);
+      features.put(key, supported);
+    }
+    return supported;
+  }
+
+  /**
+   * @return the system type of the server, or {@code null} if it was not learned yet
+   */
+  public String getSystemType() {
+    return systemType;
+  }
+
+  /**
+   * @param client the {@link FTPClient} through which the server is asked, if the system type was not learned yet
+   * @return the system type of the server
+   * @throws IOException if the server could not be asked
+   */
+  public String getSystemType(FTPClient client) throws IOException {
+    String known = systemType;
+    if (known == null) {
+      known = client.getSystemType();
+      systemType = known;
+    }
+    return known;
+  }
+
+  /**
+   * Notifies that a new connection to the server was established. If the server greeted it differently than the previous
+   * connections, it may have been replaced by a different one, so everything which was learned is forgotten.
+   *
+   * @param greeting the reply of the server to the new connection
+   */
+  public void onConnected(String greeting) {
+    String known = this.greeting;
+    if (known != null && !known.equals(greeting)) {
+      LOGGER.debug("The server greeted a new connection with '{}' instead of '{}', it may have been replaced", greeting, known);
+      refresh();
+    }
+    this.greeting = greeting;
+  }
+
+  public SingleFileListingMode getSingleFileListingMode() {
+    return singleFileListingMode;
+  }
+
+  public void setSingleFileListingMode(SingleFileListingMode singleFileListingMode) {
+    this.singleFileListingMode = singleFileListingMode;
+  }
+
+  public boolean isAbsolutePathListingRejected() {
+    return absolutePathListingRejected;
+  }
+
+  public void onAbsolutePathListingRejected() {
+    absolutePathListingRejected = true;
+  }
+
+  public boolean isServerSideRecursiveListingRejected() {
+    return serverSideRecursiveListingRejected;
+  }
+
+  public void onServerSideRecursiveListingRejected() {
+    serverSideRecursiveListingRejected = true;
+  }
+
+  public boolean isControlChannelListingRejected() {
+    return controlChannelListingRejected;
+  }
+
+  public void onControlChannelListingRejected() {
+    controlChannelListingRejected = true;
+  }
+
+  public boolean isFilenamePatternPushdownHonored() {
+    return filenamePatternPushdownHonored;
+  }
+
+  public void onFilenamePatternPushdownHonored() {
+    filenamePatternPushdownHonored = true;
+  }
+
+  public boolean isFilenamePatternPushdownRejected() {
+    return filenamePatternPushdownRejected;
+  }
+
+  public void onFilenamePatternPushdownRejected() {
+    filenamePatternPushdownRejected = true;
+  }
+
+  public boolean isCommandPipeliningRejected() {
+    return commandPipeliningRejected;
+  }
+
+  public void onCommandPipeliningRejected() {
+    commandPipeliningRejected = true;
+  }
+
+  /**
+   * Forgets everything which was learned from the server, keeping only what was pinned
+   */
+  public void refresh() {
+    LOGGER.debug("Refreshing the capabilities of the server");
+    if (!featuresPinned) {
+      features.clear();
+    }
+    systemType = pinnedSystemType;
+    singleFileListingMode = initialSingleFileListingMode;
+    absolutePathListingRejected = false;
+    serverSideRecursiveListingRejected = false;
+    controlChannelListingRejected = false;
+    filenamePatternPushdownHonored = false;
+    filenamePatternPushdownRejected = false;
+    commandPipeliningRejected = false;
+  }
+
+  private static String toKey(String feature) {
+    return feature.trim().toUpperCase(ENGLISH);
+  }
+}
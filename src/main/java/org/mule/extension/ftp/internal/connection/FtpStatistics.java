@@ -0,0 +1,113 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.extension.ftp.internal.connection;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Adds up the {@link FtpOperationStatistics} of the operations which finished on all the connections of a config.
+ * <p>
+ * A single instance is owned by the connection provider and shared by all the connections it creates, like the
+ * {@link FtpServerCapabilities}. It is published over JMX as {@link FtpStatisticsMXBean}, so the costs of the config can be
+ * followed while it runs. Operations are recorded from several connections at once, so instances are thread safe.
+ *
+ * @since 3.0
+ */
+public final class FtpStatistics implements FtpStatisticsMXBean {
+
+  private final Map<String, LongAdder> operations = new ConcurrentHashMap<>();
+  private final Map<String, LongAdder> commands = new ConcurrentHashMap<>();
+  private final LongAdder operationCount = new LongAdder();
+  private final LongAdder commandCount = new LongAdder();
+  private final LongAdder dataConnectionCount = new LongAdder();
+  private final LongAdder dataBytes = new LongAdder();
+  private final LongAdder replyWaitNanos = new LongAdder();
+  private final LongAdder operationNanos = new LongAdder();
+
+  /**
+   * Adds the costs of an operation which finished
+   *
+   * @param statistics the {@link FtpOperationStatistics} of the operation
+   */
+  void record(FtpOperationStatistics statistics) {
+    operations.computeIfAbsent(statistics.getOperation(), operation -> new LongAdder()).increment();
+    statistics.getCommands().forEach((verb, count) -> commands.computeIfAbsent(verb, v -> new LongAdder()).add(count));
+    operationCount.increment();
+    commandCount.add(statistics.getCommandCount());
+    dataConnectionCount.add(statistics.getDataConnectionCount());
+    dataBytes.add(statistics.getDataBytes());
+    replyWaitNanos.add(statistics.getReplyWaitNanos());
+    operationNanos.add(statistics.getDurationNanos());
+  }
+
+  @Override
+  public long getOperationCount() {
+    return operationCount.sum();
+  }
+
+  /**
+   * @param operation the name of an operation, such as {@code read}
+   * @return the amount of operations with the given name which finished
+   */
+  public long getOperationCount(String operation) {
+    LongAdder count = operations.get(operation);
+    return count != null ? count.sum() : 0;
+  }
+
+  @Override
+  public Map<String, Long> getOperationCounts() {
+    return snapshot(operations);
+  }
+
+  @Override
+  public long getCommandCount() {
+    return commandCount.sum();
+  }
+
+  @Override
+  public Map<String, Long> getCommandCounts() {
+    return snapshot(commands);
+  }
+
+  @Override
+  public long getDataConnectionCount() {
+    return dataConnectionCount.sum();
+  }
+
+  @Override
+  public long getDataBytes() {
+    return dataBytes.sum();
+  }
+
+  @Override
+  public long getReplyWaitMillis() {
+    return NANOSECONDS.toMillis(replyWaitNanos.sum());
+  }
+
+  @Override
+  public long getOperationMillis() {
+    return NANOSECONDS.toMillis(operationNanos.sum());
+  }
+
+  private static Map<String, Long> snapshot(Map<String, LongAdder> counts) {
+    Map<String, Long> snapshot = new TreeMap<>();
+    counts.forEach((key, count) -> snapshot.put(key, count.sum()));
+    return snapshot;
+  }
+
+  @Override
+  public String toString() {
+    return getOperationCount() + " operations " + getOperationCounts() + " took " + getOperationMillis() + " ms: "
+        + getCommandCount() + " commands " + getCommandCounts() + ", " + getDataConnectionCount() + " data connections, "
+        + getDataBytes() + " bytes transferred, " + getReplyWaitMillis() + " ms waiting for replies";
+  }
+}
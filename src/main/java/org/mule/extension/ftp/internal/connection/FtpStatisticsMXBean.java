@@ -0,0 +1,57 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.extension.ftp.internal.connection;
+
+import java.util.Map;
+
+/**
+ * The management interface through which the {@link FtpStatistics} of a config are published over JMX.
+ *
+ * @since 3.0
+ */
+public interface FtpStatisticsMXBean {
+
+  /**
+   * @return the amount of operations which finished
+   */
+  long getOperationCount();
+
+  /**
+   * @return the amount of operations which finished, by operation name
+   */
+  Map<String, Long> getOperationCounts();
+
+  /**
+   * @return the amount of commands sent on the control connections
+   */
+  long getCommandCount();
+
+  /**
+   * @return the amount of commands sent on the control connections, by verb
+   */
+  Map<String, Long> getCommandCounts();
+
+  /**
+   * @return the amount of data connections opened
+   */
+  long getDataConnectionCount();
+
+  /**
+   * @return the amount of bytes transferred through data connections
+   */
+  long getDataBytes();
+
+  /**
+   * @return the time spent waiting for the replies of the server, in milliseconds
+   */
+  long getReplyWaitMillis();
+
+  /**
+   * @return the time spent executing operations, in milliseconds
+   */
+  long getOperationMillis();
+}
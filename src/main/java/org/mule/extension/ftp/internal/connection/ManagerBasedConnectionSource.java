@@ -50,4 +50,16 @@ public class ManagerBasedConnectionSource<T extends FileSystem> implements Conne
       connectionHandler = null;
     }
   }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void invalidateConnection() {
+    fileSystem = null;
+    if (connectionHandler != null) {
+      connectionHandler.invalidate();
+      connectionHandler = null;
+    }
+  }
 }
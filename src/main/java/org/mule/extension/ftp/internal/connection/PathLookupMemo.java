@@ -0,0 +1,106 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.extension.ftp.internal.connection;
+
+import static org.mule.extension.ftp.api.UriUtils.createUri;
+import static org.mule.extension.ftp.api.UriUtils.normalizeUri;
+import static org.mule.extension.ftp.api.UriUtils.trimLastFragment;
+
+import org.mule.extension.ftp.api.ftp.FtpFileAttributes;
+
+import java.net.URI;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Remembers the answers to the path lookups done by a single operation, so that a path which was already looked up is not
+ * asked again to the server. Operations such as copy or write check the same source, target and parent paths several times.
+ * <p>
+ * Both the attributes of a path, or the fact that it doesn't exist, and whether a path is a directory which can be changed into
+ * are kept. The operation is responsible for {@link #invalidate(String) invalidating} the paths it modifies.
+ * <p>
+ * Instances live only as long as the operation which created them and, like the connection on which the operation is executed,
+ * are not thread safe.
+ *
+ * @since 3.0
+ */
+public final class PathLookupMemo {
+
+  private static final String SEPARATOR = "/";
+
+  private final Map<String, FtpFileAttributes> files = new HashMap<>();
+  private final Map<String, Boolean> directories = new HashMap<>();
+
+  /**
+   * @param path the absolute path of a file or directory
+   * @return whether the given path was already looked up
+   */
+  public boolean isFileKnown(String path) {
+    return files.containsKey(toKey(path));
+  }
+
+  /**
+   * @param path the absolute path of a file or directory
+   * @return the attributes of the given path or {@code null} if it doesn't exist or was not looked up yet
+   */
+  public FtpFileAttributes getFile(String path) {
+    return files.get(toKey(path));
+  }
+
+  /**
+   * Remembers the answer to the lookup of the given path. The attributes of a path also tell whether it is a directory.
+   *
+   * @param path       the absolute path of a file or directory
+   * @param attributes the attributes of the given path or {@code null} if it doesn't exist
+   */
+  public void putFile(String path, FtpFileAttributes attributes) {
+    String key = toKey(path);
+    files.put(key, attributes);
+    if (attributes != null) {
+      directories.put(key, attributes.isDirectory());
+    }
+  }
+
+  /**
+   * @param path the absolute path of a directory
+   * @return whether the given path is a directory or {@code null} if it is not known yet
+   */
+  public Boolean isDirectory(String path) {
+    return directories.get(toKey(path));
+  }
+
+  /**
+   * Remembers whether the given path is a directory
+   *
+   * @param path      the absolute path of a directory
+   * @param directory whether the given path is a directory
+   */
+  public void putDirectory(String path, boolean directory) {
+    directories.put(toKey(path), directory);
+  }
+
+  /**
+   * Forgets everything which is known about the given path, about the paths below it and about the attributes of its parent
+   * directory.
+   *
+   * @param path the absolute path of a file or directory which was created, modified or removed
+   */
+  public void invalidate(String path) {
+    String key = toKey(path);
+    URI parent = trimLastFragment(createUri(key));
+    files.remove(parent != null ? toKey(parent.getPath()) : SEPARATOR);
+
+    String prefix = key.endsWith(SEPARATOR) ? key : key + SEPARATOR;
+    files.keySet().removeIf(known -> known.equals(key) || known.startsWith(prefix));
+    directories.keySet().removeIf(known -> known.equals(key) || known.startsWith(prefix));
+  }
+
+  private static String toKey(String path) {
+    String key = normalizeUri(createUri(SEPARATOR, path)).getPath();
+    return key.isEmpty() ? SEPARATOR : key;
+  }
+}
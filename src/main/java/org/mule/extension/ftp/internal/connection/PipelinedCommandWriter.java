@@ -0,0 +1,61 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.extension.ftp.internal.connection;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.function.BiConsumer;
+
+import org.apache.commons.net.ftp.FTPCmd;
+
+/**
+ * Writes commands to the control connection of a {@link PipeliningClient}, so that the clients which extend different
+ * {@link org.apache.commons.net.ftp.FTPClient} implementations share the same behavior.
+ *
+ * @since 3.0
+ */
+public final class PipelinedCommandWriter {
+
+  private static final String CRLF = "\r\n";
+
+  private PipelinedCommandWriter() {}
+
+  /**
+   * Writes a command without flushing it, see {@link PipeliningClient#writeCommand(FTPCmd, String)}
+   *
+   * @param controlOutput the writer of the control connection, or {@code null} if it is not open
+   * @param command       the command to write
+   * @param argument      the argument of the command, or {@code null} if it has none
+   * @param commandSent   notified with the verb and the full message of the command once it was written
+   * @throws IOException if the command could not be written
+   */
+  public static void writeCommand(Writer controlOutput, FTPCmd command, String argument,
+                                  BiConsumer<String, String> commandSent)
+      throws IOException {
+    checkOpen(controlOutput);
+    String message = argument != null ? command.getCommand() + " " + argument + CRLF : command.getCommand() + CRLF;
+    controlOutput.write(message);
+    commandSent.accept(command.getCommand(), message);
+  }
+
+  /**
+   * Sends the commands written so far, see {@link PipeliningClient#flushCommands()}
+   *
+   * @param controlOutput the writer of the control connection, or {@code null} if it is not open
+   * @throws IOException if the commands could not be sent
+   */
+  public static void flushCommands(Writer controlOutput) throws IOException {
+    checkOpen(controlOutput);
+    controlOutput.flush();
+  }
+
+  private static void checkOpen(Writer controlOutput) throws IOException {
+    if (controlOutput == null) {
+      throw new IOException("Connection is not open");
+    }
+  }
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.extension.ftp.internal.connection;
+
+import java.io.IOException;
+
+import org.apache.commons.net.ftp.FTPClient;
+import org.apache.commons.net.ftp.FTPCmd;
+
+/**
+ * A {@link FTPClient} which can write several commands to the control connection before reading their replies, so that
+ * independent commands don't wait a round trip each.
+ *
+ * @since 3.0
+ */
+public interface PipeliningClient {
+
+  /**
+   * @return how many commands are written before their replies are read. A value of 1 means that each command is written once
+   *         the reply of the previous one was read
+   */
+  int getPipelineWindow();
+
+  /**
+   * @param pipelineWindow how many commands are written before their replies are read
+   */
+  void setPipelineWindow(int pipelineWindow);
+
+  /**
+   * Writes a command to the control connection without flushing it nor reading its reply. The replies have to be read with
+   * {@link FTPClient#getReply()} in the same order the commands were written, once they are {@link #flushCommands() flushed}.
+   *
+   * @param command  the command to write
+   * @param argument the argument of the command, or {@code null} if it has none
+   * @throws IOException if the command could not be written
+   */
+  void writeCommand(FTPCmd command, String argument) throws IOException;
+
+  /**
+   * Sends the commands written so far to the server
+   *
+   * @throws IOException if the commands could not be sent
+   */
+  void flushCommands() throws IOException;
+}
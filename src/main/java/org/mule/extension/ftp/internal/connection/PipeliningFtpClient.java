@@ -0,0 +1,42 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.extension.ftp.internal.connection;
+
+import java.io.IOException;
+
+import org.apache.commons.net.ftp.FTPClient;
+import org.apache.commons.net.ftp.FTPCmd;
+
+/**
+ * A {@link FTPClient} which implements the {@link PipeliningClient} contract
+ *
+ * @since 3.0
+ */
+public class PipeliningFtpClient extends FTPClient implements PipeliningClient {
+
+  private int pipelineWindow = 1;
+
+  @Override
+  public int getPipelineWindow() {
+    return pipelineWindow;
+  }
+
+  @Override
+  public void setPipelineWindow(int pipelineWindow) {
+    this.pipelineWindow = pipelineWindow;
+  }
+
+  @Override
+  public void writeCommand(FTPCmd command, String argument) throws IOException {
+    PipelinedCommandWriter.writeCommand(_controlOutput_, command, argument, this::fireCommandSent);
+  }
+
+  @Override
+  public void flushCommands() throws IOException {
+    PipelinedCommandWriter.flushCommands(_controlOutput_);
+  }
+}
@@ -36,4 +36,12 @@ public class StaticConnectionSource<T extends FileSystem> implements ConnectionS
   public void releaseConnection() {
     // Nothing is released here, the one who asked for the connection is the one in charge of releasing it.
   }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void invalidateConnection() {
+    // Nothing is invalidated here, the one who asked for the connection is the one in charge of invalidating it.
+  }
 }
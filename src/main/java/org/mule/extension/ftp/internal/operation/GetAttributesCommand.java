@@ -0,0 +1,28 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.extension.ftp.internal.operation;
+
+import org.mule.extension.ftp.api.ftp.FtpBulkFileAttributes;
+import org.mule.extension.ftp.internal.connection.FileSystem;
+
+import java.util.List;
+
+/**
+ * Command design pattern for obtaining the attributes of several files at once
+ *
+ * @since 3.0
+ */
+public interface GetAttributesCommand {
+
+  /**
+   * Obtains the attributes of several files under the considerations of {@link FileSystem#getAttributes(List)}
+   *
+   * @param filePaths the paths to the files
+   * @return a {@link FtpBulkFileAttributes} with the attributes of the files which exist and the paths which don't
+   */
+  FtpBulkFileAttributes getAttributes(List<String> filePaths);
+}
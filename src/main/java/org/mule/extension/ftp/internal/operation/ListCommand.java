@@ -12,6 +12,7 @@ import org.mule.extension.ftp.internal.connection.FileSystem;
 import org.mule.extension.ftp.internal.subset.SubsetList;
 import org.mule.runtime.extension.api.runtime.operation.Result;
 
+import java.util.Iterator;
 import java.util.List;
 import java.util.function.Predicate;
 
@@ -58,4 +59,43 @@ public interface ListCommand {
                                                        SubsetList subsetList) {
     return list(config, directoryPath, recursive, matcher);
   }
+
+  /**
+   * Lists files under the considerations of {@link FileSystem#iterate(FileConnectorConfig, String, boolean, Predicate)}
+   *
+   * @param config        the config that is parameterizing this operation
+   * @param directoryPath the path to the directory to be listed
+   * @param recursive     whether to include the contents of sub-directories
+   * @param matcher       a {@link Predicate} of {@link FtpFileAttributes} used to filter the output
+   * @return an {@link Iterator} of {@link Result} objects each one containing each file's content in the payload and metadata in
+   * the attributes
+   * @throws IllegalArgumentException if {@code directoryPath} points to a file which doesn't exist or is not a directory
+   */
+  default Iterator<Result<String, FtpFileAttributes>> iterate(FileConnectorConfig config,
+                                                              String directoryPath,
+                                                              boolean recursive,
+                                                              Predicate<FtpFileAttributes> matcher) {
+    return list(config, directoryPath, recursive, matcher).iterator();
+  }
+
+  /**
+   * Lists files under the considerations of
+   * {@link FileSystem#iterate(FileConnectorConfig, String, boolean, Predicate, SubsetList)}
+   *
+   * @param config        the config that is parameterizing this operation
+   * @param directoryPath the path to the directory to be listed
+   * @param recursive     whether to include the contents of sub-directories
+   * @param matcher       a {@link Predicate} of {@link FtpFileAttributes} used to filter the output
+   * @param subsetList    parameter group that lets you obtain a subset of the results
+   * @return an {@link Iterator} of {@link Result} objects each one containing each file's content in the payload and metadata in
+   * the attributes
+   * @throws IllegalArgumentException if {@code directoryPath} points to a file which doesn't exist or is not a directory
+   */
+  default Iterator<Result<String, FtpFileAttributes>> iterate(FileConnectorConfig config,
+                                                              String directoryPath,
+                                                              boolean recursive,
+                                                              Predicate<FtpFileAttributes> matcher,
+                                                              SubsetList subsetList) {
+    return list(config, directoryPath, recursive, matcher, subsetList).iterator();
+  }
 }
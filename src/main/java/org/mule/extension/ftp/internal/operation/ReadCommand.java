@@ -56,4 +56,23 @@ public interface ReadCommand {
     return read(config, attributes.getPath(), lock, timeBetweenSizeCheck);
   }
 
+  /**
+   * Reads a range of a file under the considerations of
+   * {@link FileSystem#read(FileConnectorConfig, String, boolean, Long, long, Long)}
+   *
+   * @param config the config that is parameterizing this operation
+   * @param filePath the path of the file you want to read
+   * @param lock whether or not to lock the file
+   * @param timeBetweenSizeCheck wait time between size checks to determine if a file is ready to be read in milliseconds.
+   * @param offset the position of the first byte to read
+   * @param length the maximum number of bytes to read, or {@code null} to read up to the end of the file
+   * @return An {@link Result} with an {@link InputStream} with the range of the file's content as payload and a
+   *         {@link FtpFileAttributes} object as {@link Message#getAttributes()}
+   * @throws IllegalArgumentException if the file at the given path doesn't exist, or if the range can't be served in the
+   *         current transfer mode
+   * @since 3.0
+   */
+  Result<InputStream, FtpFileAttributes> read(FileConnectorConfig config, String filePath, boolean lock,
+                                              Long timeBetweenSizeCheck, long offset, Long length);
+
 }
@@ -8,10 +8,13 @@ package org.mule.extension.ftp.internal.proxy;
 
 import org.mule.extension.ftp.api.proxy.HttpsTunnelProxy;
 import org.mule.extension.ftp.api.proxy.ProxySettings;
+import org.mule.extension.ftp.internal.connection.PipelinedCommandWriter;
+import org.mule.extension.ftp.internal.connection.PipeliningClient;
 
 import javax.net.ssl.SSLContext;
 import java.io.IOException;
 import java.net.SocketException;
+import org.apache.commons.net.ftp.FTPCmd;
 import org.apache.commons.net.ftp.FTPHTTPClient;
 
 /**
@@ -19,10 +22,11 @@ import org.apache.commons.net.ftp.FTPHTTPClient;
  *
  * @since 1.6.0
  */
-public class MuleFTPHTTPClient extends FTPHTTPClient {
+public class MuleFTPHTTPClient extends FTPHTTPClient implements PipeliningClient {
 
   protected ProxySettings proxy;
   protected SSLContext context;
+  private int pipelineWindow = 1;
 
   public MuleFTPHTTPClient(ProxySettings proxy) throws Exception {
     super(proxy.getHost(), proxy.getPort(), proxy.getUsername(), proxy.getPassword());
@@ -40,4 +44,24 @@ public class MuleFTPHTTPClient extends FTPHTTPClient {
     super.connect(host, port);
   }
 
+  @Override
+  public int getPipelineWindow() {
+    return pipelineWindow;
+  }
+
+  @Override
+  public void setPipelineWindow(int pipelineWindow) {
+    this.pipelineWindow = pipelineWindow;
+  }
+
+  @Override
+  public void writeCommand(FTPCmd command, String argument) throws IOException {
+    PipelinedCommandWriter.writeCommand(_controlOutput_, command, argument, this::fireCommandSent);
+  }
+
+  @Override
+  public void flushCommands() throws IOException {
+    PipelinedCommandWriter.flushCommands(_controlOutput_);
+  }
+
 }
@@ -7,16 +7,19 @@
 package org.mule.extension.ftp.internal.source;
 
 import static java.lang.String.format;
+import static java.util.concurrent.CompletableFuture.completedFuture;
 import static org.mule.extension.ftp.internal.constant.FileDisplayConstants.MATCHER;
 import static org.mule.runtime.core.api.util.IOUtils.closeQuietly;
 import static org.mule.runtime.extension.api.annotation.param.MediaType.ANY;
 import static org.mule.runtime.extension.api.runtime.source.PollContext.PollItemStatus.SOURCE_STOPPING;
 import static org.mule.runtime.core.api.util.ExceptionUtils.extractConnectionException;
 
+import org.mule.extension.ftp.api.FileBeingModifiedException;
 import org.mule.extension.ftp.api.matchers.NullFilePayloadPredicate;
 import org.mule.extension.ftp.api.FtpFileMatcher;
 import org.mule.extension.ftp.api.ftp.FtpFileAttributes;
 import org.mule.extension.ftp.internal.FtpConnector;
+import org.mule.extension.ftp.internal.FtpInputStream;
 import org.mule.extension.ftp.internal.command.FtpReadCommand;
 import org.mule.extension.ftp.internal.connection.FtpFileSystem;
 import org.mule.runtime.api.connection.ConnectionProvider;
@@ -46,7 +49,14 @@ import java.io.InputStream;
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
 import java.time.temporal.ChronoUnit;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Predicate;
 
@@ -140,6 +150,7 @@ public class FtpDirectoryListener extends PollingSource<InputStream, FtpFileAttr
   private URI directoryUri;
   private Predicate<FtpFileAttributes> matcher;
   private FtpFileSystem ftpFileSystemConnection;
+  private final Map<String, Result<InputStream, FtpFileAttributes>> awaitingStableSize = new ConcurrentHashMap<>();
 
   @Override
   protected void doStart() {
@@ -149,7 +160,7 @@ public class FtpDirectoryListener extends PollingSource<InputStream, FtpFileAttr
 
   @Override
   protected void doStop() {
-
+    discardAwaitingStableSize();
   }
 
   @OnSuccess
@@ -191,13 +202,11 @@ public class FtpDirectoryListener extends PollingSource<InputStream, FtpFileAttr
       return;
     }
 
+    Map<String, Result<InputStream, FtpFileAttributes>> results = new LinkedHashMap<>();
     try {
       List<Result<String, FtpFileAttributes>> files =
           ftpFileSystemConnection
               .list(config, directoryUri.getPath(), recursive, matcher);
-      if (files.isEmpty()) {
-        return;
-      }
       FtpReadCommand ftpReadCommand = new FtpReadCommand(ftpFileSystemConnection, ftpFileSystemConnection.getClient());
       for (Result<String, FtpFileAttributes> file : files) {
 
@@ -211,17 +220,19 @@ public class FtpDirectoryListener extends PollingSource<InputStream, FtpFileAttr
           if (LOGGER.isDebugEnabled()) {
             LOGGER.debug("Skipping file '{}' because the matcher rejected it", attributes.getPath());
           }
-          return;
-        }
-        Result<InputStream, FtpFileAttributes> result =
-            ftpReadCommand.read(config, attributes, false,
-                                config.getTimeBetweenSizeCheckInMillis(timeBetweenSizeCheck, timeBetweenSizeCheckUnit)
-                                    .orElse(null));
-        if (!processFile(result, pollContext)) {
           break;
         }
+        Result<InputStream, FtpFileAttributes> result = awaitingStableSize.remove(attributes.getPath());
+        if (result == null) {
+          result = ftpReadCommand.read(config, attributes, false,
+                                       config.getTimeBetweenSizeCheckInMillis(timeBetweenSizeCheck, timeBetweenSizeCheckUnit)
+                                           .orElse(null));
+        }
+        results.put(attributes.getPath(), result);
       }
+      dispatchWhenSizeIsStable(results, pollContext);
     } catch (Exception e) {
+      results.values().forEach(result -> closeQuietly(result.getOutput()));
       LOGGER.error(format("Found exception trying to poll directory '%s'. Will try again on the next poll. ",
                           directoryUri.getPath(), e.getMessage()),
                    e);
@@ -230,6 +241,65 @@ public class FtpDirectoryListener extends PollingSource<InputStream, FtpFileAttr
     }
   }
 
+  /**
+   * Dispatches the given files whose sizes were found to be stable. The size check of a file starts once its dispatch is first
+   * attempted and runs on the {@link FtpConnector#getScheduler()}, so the poll never waits for it. A file whose check is not
+   * completed yet is kept aside and dispatched by the first poll which lists it after the check completed, while it is
+   * dropped if that poll doesn't list it anymore. Files which are still being written or don't exist anymore are not
+   * dispatched, so that they are picked up again by a later poll.
+   */
+  private void dispatchWhenSizeIsStable(Map<String, Result<InputStream, FtpFileAttributes>> results,
+                                        PollContext<InputStream, FtpFileAttributes> pollContext) {
+    discardAwaitingStableSize();
+    Iterator<Map.Entry<String, Result<InputStream, FtpFileAttributes>>> pending = results.entrySet().iterator();
+    try {
+      while (pending.hasNext()) {
+        Map.Entry<String, Result<InputStream, FtpFileAttributes>> entry = pending.next();
+        pending.remove();
+        Result<InputStream, FtpFileAttributes> result = entry.getValue();
+        CompletableFuture<FtpFileAttributes> stableAttributes = whenSizeIsStable(result);
+        if (!stableAttributes.isDone()) {
+          awaitingStableSize.put(entry.getKey(), result);
+        } else if (!isSizeStable(entry.getKey(), stableAttributes)) {
+          closeQuietly(result.getOutput());
+        } else if (!processFile(result, pollContext)) {
+          break;
+        }
+      }
+    } finally {
+      pending.forEachRemaining(entry -> closeQuietly(entry.getValue().getOutput()));
+    }
+  }
+
+  private CompletableFuture<FtpFileAttributes> whenSizeIsStable(Result<InputStream, FtpFileAttributes> result) {
+    return result.getOutput() instanceof FtpInputStream
+        ? ((FtpInputStream) result.getOutput()).whenSizeIsStable()
+        : completedFuture(result.getAttributes().orElse(null));
+  }
+
+  private boolean isSizeStable(String path, CompletableFuture<FtpFileAttributes> stableAttributes) {
+    try {
+      if (stableAttributes.getNow(null) == null) {
+        LOGGER.debug("Skipping file '{}' because it does not exist anymore", path);
+        return false;
+      }
+      return true;
+    } catch (CompletionException | CancellationException e) {
+      Throwable cause = e instanceof CompletionException ? e.getCause() : e;
+      if (cause instanceof FileBeingModifiedException) {
+        LOGGER.debug("Skipping file '{}' because it is still being written. It will be picked up by a later poll", path);
+      } else {
+        LOGGER.error(format("Skipping file '%s' because its size could not be checked. %s", path, cause.getMessage()), cause);
+      }
+      return false;
+    }
+  }
+
+  private void discardAwaitingStableSize() {
+    awaitingStableSize.values().forEach(result -> closeQuietly(result.getOutput()));
+    awaitingStableSize.clear();
+  }
+
   private void refreshMatcher() {
     matcher = predicateBuilder != null ? predicateBuilder.build() : new NullFilePayloadPredicate<>();
   }
@@ -0,0 +1,194 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.extension.ftp.internal.stream;
+
+import static java.lang.Math.min;
+import static java.lang.System.arraycopy;
+import static org.slf4j.LoggerFactory.getLogger;
+import static java.lang.Thread.currentThread;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+
+import org.slf4j.Logger;
+
+/**
+ * Decorates an {@link InputStream} so that its content is read ahead by a background task while the consumer processes the
+ * content which was already read.
+ * <p>
+ * The task fills a ring of buffers of a fixed size from the decorated stream and hands them to the consumer, which gives them
+ * back once they are drained. When all the buffers are full the task waits for the consumer. Closing this stream closes the
+ * decorated stream first, which makes a read in progress in the task fail or end, and then waits a bounded time for the task
+ * to stop. If it doesn't stop in time, the transfer behind the decorated stream is aborted, since the task may still be
+ * using it.
+ *
+ * @since 3.0
+ */
+public final class ReadAheadInputStream extends InputStream {
+
+  private static final Logger LOGGER = getLogger(ReadAheadInputStream.class);
+  private static final Chunk END_OF_STREAM = new Chunk(new byte[0], 0);
+  private static final long POLL_INTERVAL_MILLIS = 50;
+  private static final long STOP_TIMEOUT_MILLIS = 5000;
+
+  private final InputStream delegate;
+  private final Runnable abort;
+  private final BlockingQueue<byte[]> freeBuffers;
+  private final BlockingQueue<Chunk> filledBuffers;
+  private final CountDownLatch stopped = new CountDownLatch(1);
+  private volatile boolean closed = false;
+  private volatile IOException failure;
+  private Chunk chunk;
+  private int chunkPosition = 0;
+
+  /**
+   * Creates a new instance and starts reading ahead the content of the given {@code delegate}.
+   *
+   * @param delegate    the {@link InputStream} to read ahead
+   * @param executor    the {@link Executor} in which the content is read ahead
+   * @param bufferCount the number of buffers of the ring
+   * @param bufferSize  the size in bytes of each buffer
+   * @param abort       aborts the transfer behind the {@code delegate} when the task did not stop in time after this stream
+   *                    was closed
+   * @throws java.util.concurrent.RejectedExecutionException if the task could not be started
+   */
+  public ReadAheadInputStream(InputStream delegate, Executor executor, int bufferCount, int bufferSize, Runnable abort) {
+    this.delegate = delegate;
+    this.abort = abort;
+    this.freeBuffers = new ArrayBlockingQueue<>(bufferCount);
+    this.filledBuffers = new ArrayBlockingQueue<>(bufferCount + 1);
+    for (int i = 0; i < bufferCount; i++) {
+      freeBuffers.add(new byte[bufferSize]);
+    }
+    executor.execute(this::fill);
+  }
+
+  private void fill() {
+    try {
+      byte[] buffer;
+      while ((buffer = takeFreeBuffer()) != null) {
+        int read = delegate.read(buffer);
+        if (read == -1) {
+          break;
+        }
+        filledBuffers.put(new Chunk(buffer, read));
+      }
+    } catch (IOException e) {
+      if (!closed) {
+        failure = e;
+      }
+    } catch (InterruptedException e) {
+      currentThread().interrupt();
+    } finally {
+      filledBuffers.offer(END_OF_STREAM);
+      stopped.countDown();
+    }
+  }
+
+  private byte[] takeFreeBuffer() throws InterruptedException {
+    while (!closed) {
+      byte[] buffer = freeBuffers.poll(POLL_INTERVAL_MILLIS, MILLISECONDS);
+      if (buffer != null) {
+        return buffer;
+      }
+    }
+    return null;
+  }
+
+  @Override
+  public int read() throws IOException {
+    byte[] single = new byte[1];
+    return read(single, 0, 1) == -1 ? -1 : single[0] & 0xFF;
+  }
+
+  @Override
+  public int read(byte[] buffer, int offset, int length) throws IOException {
+    if (closed) {
+      throw new IOException("Stream is closed");
+    }
+    if (length == 0) {
+      return 0;
+    }
+
+    if (chunk == null) {
+      chunk = takeFilledBuffer();
+      chunkPosition = 0;
+    }
+    if (chunk == END_OF_STREAM) {
+      if (failure != null) {
+        throw new IOException("Could not read ahead the content of the stream. " + failure.getMessage(), failure);
+      }
+      return -1;
+    }
+
+    int read = min(length, chunk.length - chunkPosition);
+    arraycopy(chunk.buffer, chunkPosition, buffer, offset, read);
+    chunkPosition += read;
+    if (chunkPosition == chunk.length) {
+      freeBuffers.offer(chunk.buffer);
+      chunk = null;
+    }
+    return read;
+  }
+
+  private Chunk takeFilledBuffer() throws IOException {
+    try {
+      return filledBuffers.take();
+    } catch (InterruptedException e) {
+      currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while waiting for the content of the stream");
+    }
+  }
+
+  @Override
+  public int available() {
+    return chunk != null ? chunk.length - chunkPosition : 0;
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    try {
+      delegate.close();
+    } finally {
+      awaitStop();
+    }
+  }
+
+  private void awaitStop() throws InterruptedIOException {
+    try {
+      if (!stopped.await(STOP_TIMEOUT_MILLIS, MILLISECONDS)) {
+        LOGGER.warn("The content of a closed stream is still being read ahead after {} ms, aborting its transfer",
+                    STOP_TIMEOUT_MILLIS);
+        abort.run();
+      }
+    } catch (InterruptedException e) {
+      currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while waiting for the content of the stream to stop being read ahead");
+    }
+  }
+
+  private static final class Chunk {
+
+    private final byte[] buffer;
+    private final int length;
+
+    private Chunk(byte[] buffer, int length) {
+      this.buffer = buffer;
+      this.length = length;
+    }
+  }
+}
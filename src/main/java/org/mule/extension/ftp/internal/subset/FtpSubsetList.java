@@ -0,0 +1,101 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.extension.ftp.internal.subset;
+
+import static org.mule.runtime.extension.api.annotation.param.display.Placement.ADVANCED_TAB;
+
+import org.mule.extension.ftp.api.subset.ListComparator;
+import org.mule.extension.ftp.api.subset.SortOrder;
+import org.mule.runtime.extension.api.annotation.param.Optional;
+import org.mule.runtime.extension.api.annotation.param.Parameter;
+import org.mule.runtime.extension.api.annotation.param.display.Placement;
+import org.mule.runtime.extension.api.annotation.param.display.Summary;
+
+/**
+ * Groups the parameters which allow a list operation to return only a portion of the matching files
+ *
+ * @since 3.0
+ */
+public final class FtpSubsetList implements SubsetList {
+
+  /**
+   * The maximum amount of files to return. If not set, all the matching files are returned.
+   */
+  @Parameter
+  @Optional
+  @Placement(tab = ADVANCED_TAB, order = 1)
+  @Summary("Maximum amount of files to return. If not set, all the matching files are returned")
+  private Integer limit;
+
+  /**
+   * The amount of matching files to skip before starting to return them.
+   * <p>
+   * Defaults to {@code 0}
+   */
+  @Parameter
+  @Optional(defaultValue = "0")
+  @Placement(tab = ADVANCED_TAB, order = 2)
+  @Summary("Amount of matching files to skip before starting to return them")
+  private Integer offset = 0;
+
+  /**
+   * The criteria used to sort the matching files before applying the {@link #offset} and {@link #limit}. If not set, the files
+   * are taken in the order in which they are listed.
+   */
+  @Parameter
+  @Optional
+  @Placement(tab = ADVANCED_TAB, order = 3)
+  @Summary("Criteria used to sort the matching files before applying the offset and limit")
+  private ListComparator criteria;
+
+  /**
+   * The order in which the {@link #criteria} is applied.
+   * <p>
+   * Defaults to {@code ASCENDING}
+   */
+  @Parameter
+  @Optional(defaultValue = "ASCENDING")
+  @Placement(tab = ADVANCED_TAB, order = 4)
+  @Summary("Order in which the sort criteria is applied")
+  private SortOrder order = SortOrder.ASCENDING;
+
+  @Override
+  public Integer getLimit() {
+    return limit;
+  }
+
+  @Override
+  public Integer getOffset() {
+    return offset;
+  }
+
+  @Override
+  public ListComparator getCriteria() {
+    return criteria;
+  }
+
+  @Override
+  public SortOrder getOrder() {
+    return order;
+  }
+
+  public void setLimit(Integer limit) {
+    this.limit = limit;
+  }
+
+  public void setOffset(Integer offset) {
+    this.offset = offset;
+  }
+
+  public void setCriteria(ListComparator criteria) {
+    this.criteria = criteria;
+  }
+
+  public void setOrder(SortOrder order) {
+    this.order = order;
+  }
+}
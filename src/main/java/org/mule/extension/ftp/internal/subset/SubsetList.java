@@ -6,5 +6,37 @@
  */
 package org.mule.extension.ftp.internal.subset;
 
+import org.mule.extension.ftp.api.subset.ListComparator;
+import org.mule.extension.ftp.api.subset.SortOrder;
+
+/**
+ * Describes which portion of the files obtained by a list operation is to be returned.
+ * <p>
+ * If a {@link #getCriteria() criteria} is provided, the matching files are sorted according to it before skipping the first
+ * {@link #getOffset() offset} ones and returning up to {@link #getLimit() limit} files. Otherwise, the files are taken in the
+ * order in which they are listed.
+ *
+ * @since 1.0
+ */
 public interface SubsetList {
+
+  /**
+   * @return the maximum amount of files to return, or {@code null} if all the files are to be returned
+   */
+  Integer getLimit();
+
+  /**
+   * @return the amount of files to skip before starting to return them, or {@code null} if none is to be skipped
+   */
+  Integer getOffset();
+
+  /**
+   * @return the {@link ListComparator} used to sort the files, or {@code null} if they are not to be sorted
+   */
+  ListComparator getCriteria();
+
+  /**
+   * @return the {@link SortOrder} in which the {@link #getCriteria() criteria} is applied
+   */
+  SortOrder getOrder();
 }
@@ -0,0 +1,148 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.extension.ftp.internal.subset;
+
+import static java.lang.String.format;
+import static java.util.Collections.emptyIterator;
+import static java.util.Comparator.comparing;
+
+import org.mule.extension.ftp.api.ftp.FtpFileAttributes;
+import org.mule.runtime.extension.api.runtime.operation.Result;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+/**
+ * Applies the semantics of a {@link SubsetList} over the results of a list operation as they are being obtained.
+ * <p>
+ * When no sort criteria is given, the results are consumed lazily and the source is no longer pulled once the limit has been
+ * reached, so that the traversal of the directory tree can stop early. When a criteria is given, only the best
+ * {@code offset + limit} results are retained while consuming the source, so that memory usage is bounded by the requested
+ * window instead of by the size of the listing.
+ *
+ * @since 3.0
+ */
+public final class SubsetListProcessor {
+
+  private SubsetListProcessor() {}
+
+  /**
+   * Applies the given {@code subsetList} over the {@code results}
+   *
+   * @param results    the listed results, in listing order
+   * @param subsetList the {@link SubsetList} to apply. May be {@code null}
+   * @return an {@link Iterator} over the selected results
+   * @throws IllegalArgumentException if the {@code subsetList} has a negative limit or offset
+   */
+  public static Iterator<Result<String, FtpFileAttributes>> apply(Iterator<Result<String, FtpFileAttributes>> results,
+                                                                  SubsetList subsetList) {
+    if (subsetList == null) {
+      return results;
+    }
+
+    Integer limit = subsetList.getLimit();
+    int offset = subsetList.getOffset() != null ? subsetList.getOffset() : 0;
+    validateNotNegative("limit", limit);
+    validateNotNegative("offset", offset);
+
+    if (limit != null && limit == 0) {
+      return emptyIterator();
+    }
+
+    if (subsetList.getCriteria() == null) {
+      return new WindowIterator<>(results, offset, limit);
+    }
+
+    Comparator<Result<String, FtpFileAttributes>> comparator = getComparator(subsetList);
+    List<Result<String, FtpFileAttributes>> selected;
+    if (limit == null || (long) offset + limit > Integer.MAX_VALUE) {
+      selected = new ArrayList<>();
+      results.forEachRemaining(selected::add);
+    } else {
+      selected = selectFirst(results, comparator, offset + limit);
+    }
+    selected.sort(comparator);
+
+    return selected.subList(Math.min(offset, selected.size()), selected.size()).iterator();
+  }
+
+  /**
+   * Consumes the {@code results} keeping only the first {@code count} ones according to the {@code comparator}, by using a
+   * bounded heap which has the worst retained result on its head.
+   */
+  private static List<Result<String, FtpFileAttributes>> selectFirst(Iterator<Result<String, FtpFileAttributes>> results,
+                                                                     Comparator<Result<String, FtpFileAttributes>> comparator,
+                                                                     int count) {
+    PriorityQueue<Result<String, FtpFileAttributes>> heap = new PriorityQueue<>(comparator.reversed());
+    while (results.hasNext()) {
+      Result<String, FtpFileAttributes> candidate = results.next();
+      if (heap.size() < count) {
+        heap.add(candidate);
+      } else if (comparator.compare(candidate, heap.peek()) < 0) {
+        heap.poll();
+        heap.add(candidate);
+      }
+    }
+    return new ArrayList<>(heap);
+  }
+
+  private static Comparator<Result<String, FtpFileAttributes>> getComparator(SubsetList subsetList) {
+    Comparator<FtpFileAttributes> comparator = subsetList.getCriteria().getComparator(subsetList.getOrder());
+    // ties are broken by path so that the selected window is stable between invocations
+    comparator = comparator.thenComparing(FtpFileAttributes::getPath);
+    return comparing(result -> result.getAttributes().get(), comparator);
+  }
+
+  private static void validateNotNegative(String name, Integer value) {
+    if (value != null && value < 0) {
+      throw new IllegalArgumentException(format("The subset %s cannot be negative but '%d' was provided", name, value));
+    }
+  }
+
+  /**
+   * Skips the first {@code offset} elements of the delegate and then returns up to {@code limit} elements, without pulling
+   * any further elements from it.
+   */
+  private static final class WindowIterator<T> implements Iterator<T> {
+
+    private final Iterator<T> delegate;
+    private final Integer limit;
+    private int pendingSkips;
+    private int returned = 0;
+
+    private WindowIterator(Iterator<T> delegate, int offset, Integer limit) {
+      this.delegate = delegate;
+      this.pendingSkips = offset;
+      this.limit = limit;
+    }
+
+    @Override
+    public boolean hasNext() {
+      if (limit != null && returned >= limit) {
+        return false;
+      }
+      while (pendingSkips > 0 && delegate.hasNext()) {
+        delegate.next();
+        pendingSkips--;
+      }
+      return delegate.hasNext();
+    }
+
+    @Override
+    public T next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      returned++;
+      return delegate.next();
+    }
+  }
+}
@@ -11,6 +11,7 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 import org.mule.extension.ftp.api.ftp.FtpFileAttributes;
+import org.mule.extension.ftp.api.matchers.DescendantAwarePredicate;
 import org.mule.extension.ftp.api.matchers.FileMatcher;
 import org.mule.tck.junit4.AbstractMuleTestCase;
 import org.mule.tck.size.SmallTest;
@@ -259,6 +260,34 @@ public class FileMatcherContractTestCase<T extends FileMatcher, A extends FtpFil
     builder.build();
   }
 
+  @Test
+  public void pathPatternRulesOutDirectoriesWhichCannotContainMatches() {
+    builder.setPathPattern("/inbox/2026/*/orders/*.csv");
+    DescendantAwarePredicate<A> predicate = (DescendantAwarePredicate<A>) builder.build();
+
+    assertThat(predicate.mayAcceptDescendantsOf("/inbox"), is(true));
+    assertThat(predicate.mayAcceptDescendantsOf("/inbox/2026/03"), is(true));
+    assertThat(predicate.mayAcceptDescendantsOf("/inbox/2026/03/orders"), is(true));
+    assertThat(predicate.mayAcceptDescendantsOf("/inbox/2025"), is(false));
+    assertThat(predicate.mayAcceptDescendantsOf("/inbox/2026/03/invoices"), is(false));
+    assertThat(predicate.mayAcceptDescendantsOf("/inbox/2026/03/orders/archive"), is(false));
+  }
+
+  @Test
+  public void pathPatternCrossingDirectoriesDoesNotRuleOutItsSubtree() {
+    builder.setPathPattern("glob:/inbox/**/*.csv");
+    DescendantAwarePredicate<A> predicate = (DescendantAwarePredicate<A>) builder.build();
+
+    assertThat(predicate.mayAcceptDescendantsOf("/inbox/a/b/c"), is(true));
+    assertThat(predicate.mayAcceptDescendantsOf("/outbox"), is(false));
+  }
+
+  @Test
+  public void relativePathPatternDoesNotRuleOutDirectories() {
+    builder.setPathPattern(PATH);
+    assertThat(builder.build() instanceof DescendantAwarePredicate, is(false));
+  }
+
   protected void assertMatch() {
     assertThat(builder.build().test(attributes), is(true));
   }
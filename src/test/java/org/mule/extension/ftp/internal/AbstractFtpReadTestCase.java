@@ -0,0 +1,136 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.extension.ftp.internal;
+
+import static java.util.concurrent.Executors.newScheduledThreadPool;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.when;
+import static org.mule.extension.ftp.AllureConstants.FtpFeature.FTP_EXTENSION;
+import static org.mule.extension.ftp.DefaultFtpTestHarness.FTP_PASSWORD;
+import static org.mule.extension.ftp.DefaultFtpTestHarness.FTP_USER;
+import static org.mule.extension.ftp.api.FileTestHarness.WORKING_DIR;
+
+import org.mule.extension.ftp.DefaultFtpTestHarness;
+import org.mule.extension.ftp.api.ftp.FtpFileAttributes;
+import org.mule.extension.ftp.api.ftp.FtpTransferMode;
+import org.mule.extension.ftp.internal.command.FtpReadCommand;
+import org.mule.extension.ftp.internal.connection.FtpFileSystem;
+import org.mule.extension.ftp.internal.connection.SingleFileListingMode;
+import org.mule.runtime.api.lock.LockFactory;
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.runtime.core.api.connector.ConnectionManager;
+import org.mule.runtime.extension.api.runtime.operation.Result;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import io.qameta.allure.Feature;
+import org.apache.commons.net.ftp.FTPClient;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+
+/**
+ * Base class for the tests of the streams over the content of a file read from an embedded server.
+ * <p>
+ * Provides a {@link FtpConnector} mock whose {@link FtpConnector#getScheduler()} runs the submitted tasks on a real executor
+ * and whose {@link FtpConnector#getConnectionManager()} is a {@link ConnectionManager} mock, along with connected clients.
+ */
+@Feature(FTP_EXTENSION)
+public abstract class AbstractFtpReadTestCase {
+
+  protected static final String TEMP_DIRECTORY = "files";
+  protected static final String FILE_NAME = "NewFile.txt";
+  protected static final String FILE_PATH = TEMP_DIRECTORY + "/" + FILE_NAME;
+  protected static final String FULL_PATH = "/" + WORKING_DIR + "/" + FILE_PATH;
+  protected static final String FILE_CONTENT = "File Content.";
+
+  @Rule
+  public final DefaultFtpTestHarness testHarness = new DefaultFtpTestHarness();
+
+  protected final FtpConnector config = mock(FtpConnector.class);
+  protected final ConnectionManager connectionManager = mock(ConnectionManager.class);
+  protected final Scheduler scheduler = mock(Scheduler.class);
+  protected final ScheduledExecutorService executor = newScheduledThreadPool(4);
+  protected FTPClient client;
+  private final List<FTPClient> clients = new ArrayList<>();
+
+  @Before
+  public void setUpConnector() throws Exception {
+    testHarness.makeDir(TEMP_DIRECTORY);
+    testHarness.write(FULL_PATH, FILE_CONTENT);
+
+    doAnswer(invocation -> {
+      executor.execute((Runnable) invocation.getArguments()[0]);
+      return null;
+    }).when(scheduler).execute(any(Runnable.class));
+    when(scheduler.submit(any(Runnable.class)))
+        .thenAnswer(invocation -> executor.submit((Runnable) invocation.getArguments()[0]));
+    when(scheduler.schedule(any(Runnable.class), anyLong(), any(TimeUnit.class)))
+        .thenAnswer(invocation -> executor.schedule((Runnable) invocation.getArguments()[0],
+                                                    (Long) invocation.getArguments()[1],
+                                                    (TimeUnit) invocation.getArguments()[2]));
+    when(config.getScheduler()).thenReturn(scheduler);
+    when(config.getConnectionManager()).thenReturn(connectionManager);
+
+    client = connectedClient();
+  }
+
+  @After
+  public void tearDownConnector() throws Exception {
+    executor.shutdownNow();
+    for (FTPClient connectedClient : clients) {
+      if (connectedClient.isConnected()) {
+        connectedClient.disconnect();
+      }
+    }
+  }
+
+  /**
+   * @return a new {@link FTPClient} spy, logged in to the server, which is disconnected once the test finishes
+   */
+  protected FTPClient connectedClient() throws Exception {
+    FTPClient connectedClient = spy(FTPClient.class);
+    connectedClient.setDefaultTimeout(5000);
+    connectedClient.connect("localhost", testHarness.getServerPort());
+    connectedClient.login(FTP_USER, FTP_PASSWORD);
+    clients.add(connectedClient);
+    return connectedClient;
+  }
+
+  /**
+   * @param client       a connected {@link FTPClient}
+   * @param transferMode the {@link FtpTransferMode} to set on the connection, or {@code null} to leave the server's default
+   * @return a new {@link FtpFileSystem} over the given {@code client}
+   */
+  protected FtpFileSystem fileSystem(FTPClient client, FtpTransferMode transferMode) {
+    FtpFileSystem fileSystem =
+        new FtpFileSystem(client, WORKING_DIR, mock(LockFactory.class), SingleFileListingMode.SUPPORTED);
+    if (transferMode != null) {
+      fileSystem.setTransferMode(transferMode);
+    }
+    return fileSystem;
+  }
+
+  /**
+   * Reads the test file with the {@link #config} through a new {@link FtpFileSystem} over the {@link #client}
+   *
+   * @param transferMode         the {@link FtpTransferMode} of the read, or {@code null} to leave the server's default
+   * @param timeBetweenSizeCheck the time between size checks, or {@code null} if they are disabled
+   * @return the result of the read
+   */
+  protected Result<InputStream, FtpFileAttributes> readFile(FtpTransferMode transferMode, Long timeBetweenSizeCheck) {
+    return new FtpReadCommand(fileSystem(client, transferMode), client).read(config, FILE_PATH, false, timeBetweenSizeCheck);
+  }
+}
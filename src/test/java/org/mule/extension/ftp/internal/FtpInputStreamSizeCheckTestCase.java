@@ -0,0 +1,76 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.extension.ftp.internal;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.mule.extension.ftp.api.ftp.FtpFileAttributes;
+import org.mule.runtime.api.connection.ConnectionHandler;
+import org.mule.runtime.extension.api.runtime.operation.Result;
+
+import java.io.InputStream;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.net.ftp.FTPClient;
+import org.junit.Test;
+
+public class FtpInputStreamSizeCheckTestCase extends AbstractFtpReadTestCase {
+
+  private static final long TIME_BETWEEN_SIZE_CHECK = 10L;
+
+  @Test
+  public void fileSizeStabilityIsCheckedOnTheSchedulerOverAConnectionOfItsOwn() throws Exception {
+    FTPClient checkClient = connectedClient();
+    ConnectionHandler checkHandler = mock(ConnectionHandler.class);
+    when(checkHandler.getConnection()).thenReturn(fileSystem(checkClient, null));
+    when(connectionManager.getConnection(config)).thenReturn(checkHandler);
+    Result<InputStream, FtpFileAttributes> result = readFile(null, TIME_BETWEEN_SIZE_CHECK);
+
+    FtpFileAttributes stableAttributes = ((FtpInputStream) result.getOutput()).whenSizeIsStable().get(5, SECONDS);
+
+    verify(scheduler).schedule(any(Runnable.class), eq(TIME_BETWEEN_SIZE_CHECK), eq(MILLISECONDS));
+    assertThat(stableAttributes.getSize(), is((long) FILE_CONTENT.length()));
+    verify(checkHandler, timeout(5000)).release();
+    assertThat(IOUtils.toString(result.getOutput(), UTF_8), is(FILE_CONTENT));
+  }
+
+  @Test
+  public void fileSizeStabilityIsNotCheckedUntilRequested() throws Exception {
+    Result<InputStream, FtpFileAttributes> result = readFile(null, TIME_BETWEEN_SIZE_CHECK);
+    result.getOutput().close();
+
+    verify(scheduler, never()).schedule(any(Runnable.class), anyLong(), any(TimeUnit.class));
+    verify(connectionManager, never()).getConnection(config);
+  }
+
+  @Test
+  public void fileSizeStabilityIsCheckedRightAwayWithoutScheduler() throws Exception {
+    when(config.getScheduler()).thenReturn(null);
+    Result<InputStream, FtpFileAttributes> result = readFile(null, TIME_BETWEEN_SIZE_CHECK);
+
+    CompletableFuture<FtpFileAttributes> stableAttributes = ((FtpInputStream) result.getOutput()).whenSizeIsStable();
+
+    assertThat(stableAttributes.isDone(), is(true));
+    assertThat(stableAttributes.get().getSize(), is((long) FILE_CONTENT.length()));
+    assertThat(IOUtils.toString(result.getOutput(), UTF_8), is(FILE_CONTENT));
+    verify(connectionManager, never()).getConnection(config);
+  }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.extension.ftp.internal;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mule.extension.ftp.api.ftp.FtpTransferMode.ASCII;
+import static org.mule.extension.ftp.api.ftp.FtpTransferMode.BINARY;
+
+import org.mule.extension.ftp.api.ftp.FtpFileAttributes;
+import org.mule.runtime.api.connection.ConnectionHandler;
+import org.mule.runtime.extension.api.runtime.operation.Result;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.SocketException;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.BoundedInputStream;
+import org.apache.commons.net.ftp.FTPClient;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ResumableContentInputStreamTestCase extends AbstractFtpReadTestCase {
+
+  private static final int INTERRUPTED_AFTER = 5;
+
+  private Runnable beforeInterruption = () -> {};
+
+  @Before
+  public void setUp() throws Exception {
+    when(config.getReadResumeAttempts()).thenReturn(1);
+    doAnswer(invocation -> new BoundedInputStream((InputStream) invocation.callRealMethod(), INTERRUPTED_AFTER) {
+
+      @Override
+      public int read(byte[] buffer, int offset, int length) throws IOException {
+        int read = super.read(buffer, offset, length);
+        if (read == -1) {
+          beforeInterruption.run();
+          throw new SocketException("Connection reset");
+        }
+        return read;
+      }
+    }).when(client).retrieveFileStream(anyString());
+  }
+
+  @Test
+  public void interruptedReadIsResumedOnAnotherConnection() throws Exception {
+    FTPClient resumeClient = connectedClient();
+    ConnectionHandler resumeHandler = resumeConnection(resumeClient);
+
+    Result<InputStream, FtpFileAttributes> result = readFile(BINARY, null);
+
+    assertThat(IOUtils.toString(result.getOutput(), UTF_8), is(FILE_CONTENT));
+    verify(resumeClient).setRestartOffset(INTERRUPTED_AFTER);
+    verify(resumeHandler).release();
+    verify(resumeHandler, never()).invalidate();
+  }
+
+  @Test
+  public void interruptedReadIsNotResumedWhenTheFileChanged() throws Exception {
+    FTPClient resumeClient = connectedClient();
+    ConnectionHandler resumeHandler = resumeConnection(resumeClient);
+    beforeInterruption = () -> {
+      try {
+        testHarness.write(FULL_PATH, FILE_CONTENT + FILE_CONTENT);
+      } catch (Exception e) {
+        throw new IllegalStateException(e);
+      }
+    };
+
+    Result<InputStream, FtpFileAttributes> result = readFile(BINARY, null);
+
+    assertReadFails(result.getOutput());
+    verify(resumeClient).getSize(FULL_PATH);
+    verify(resumeClient, never()).setRestartOffset(INTERRUPTED_AFTER);
+    verify(resumeHandler).release();
+  }
+
+  @Test
+  public void interruptedReadInAsciiModeIsNotResumed() throws Exception {
+    Result<InputStream, FtpFileAttributes> result = readFile(ASCII, null);
+
+    assertReadFails(result.getOutput());
+    verify(connectionManager, never()).getConnection(config);
+  }
+
+  @Test
+  public void interruptedReadIsNotResumedWhenTheStreamIsClosedWhileAConnectionIsBorrowed() throws Exception {
+    FTPClient resumeClient = connectedClient();
+    ConnectionHandler resumeHandler = resumeConnection(resumeClient);
+    FtpFileAttributes attributes = readFile(BINARY, null).getAttributes().get();
+    InputStream stream = new ResumableContentInputStream(config, fileSystem(client, BINARY), attributes, 0);
+    when(connectionManager.getConnection(config)).thenAnswer(invocation -> {
+      stream.close();
+      return resumeHandler;
+    });
+
+    assertReadFails(stream);
+    verify(resumeHandler).release();
+    verify(resumeHandler, never()).invalidate();
+    verify(resumeClient, never()).setRestartOffset(anyLong());
+  }
+
+  private ConnectionHandler resumeConnection(FTPClient resumeClient) throws Exception {
+    ConnectionHandler resumeHandler = mock(ConnectionHandler.class);
+    when(resumeHandler.getConnection()).thenReturn(fileSystem(resumeClient, null));
+    when(connectionManager.getConnection(config)).thenReturn(resumeHandler);
+    return resumeHandler;
+  }
+
+  private static void assertReadFails(InputStream content) {
+    try {
+      IOUtils.toString(content, UTF_8);
+      fail("The read should have failed");
+    } catch (IOException e) {
+      // expected, since the transfer can't be resumed
+    }
+  }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.extension.ftp.internal;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.apache.commons.lang3.StringUtils.repeat;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mule.extension.ftp.api.ftp.FtpTransferMode.ASCII;
+import static org.mule.extension.ftp.api.ftp.FtpTransferMode.BINARY;
+
+import org.mule.extension.ftp.api.ftp.FtpFileAttributes;
+import org.mule.runtime.api.connection.ConnectionException;
+import org.mule.runtime.api.connection.ConnectionHandler;
+import org.mule.runtime.extension.api.runtime.operation.Result;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.CountDownLatch;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.net.ftp.FTPClient;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SegmentedContentInputStreamTestCase extends AbstractFtpReadTestCase {
+
+  private static final int SEGMENT_SIZE = 4096;
+
+  private final String content = repeat(FILE_CONTENT, 10000);
+  private final long tailOffset = (content.length() / SEGMENT_SIZE) * SEGMENT_SIZE;
+
+  @Before
+  public void setUp() throws Exception {
+    testHarness.write(FULL_PATH, content);
+    when(config.getSegmentedReadThreshold()).thenReturn(1L);
+    when(config.getSegmentSize()).thenReturn(SEGMENT_SIZE);
+  }
+
+  @Test
+  public void largeFileIsReadInSegmentsOverSeveralConnections() throws Exception {
+    when(config.getReadSegments()).thenReturn(3);
+    ConnectionHandler firstSegmentHandler = segmentConnection(connectedClient());
+    ConnectionHandler secondSegmentHandler = segmentConnection(connectedClient());
+    when(connectionManager.getConnection(config)).thenReturn(firstSegmentHandler, secondSegmentHandler);
+
+    Result<InputStream, FtpFileAttributes> result = readFile(BINARY, null);
+
+    assertThat(IOUtils.toString(result.getOutput(), UTF_8), is(content));
+    verify(client).setRestartOffset(tailOffset);
+    verify(client, never()).setRestartOffset(0);
+    verify(firstSegmentHandler, timeout(5000)).release();
+    verify(secondSegmentHandler, timeout(5000)).release();
+    verify(firstSegmentHandler, never()).invalidate();
+    verify(secondSegmentHandler, never()).invalidate();
+  }
+
+  @Test
+  public void connectionOfAFailedSegmentIsInvalidated() throws Exception {
+    when(config.getReadSegments()).thenReturn(2);
+    ConnectionHandler failedHandler = mock(ConnectionHandler.class);
+    when(failedHandler.getConnection()).thenThrow(new ConnectionException("Connection reset"));
+    when(connectionManager.getConnection(config)).thenReturn(failedHandler);
+
+    Result<InputStream, FtpFileAttributes> result = readFile(BINARY, null);
+
+    try {
+      IOUtils.toString(result.getOutput(), UTF_8);
+      fail("The read should have failed");
+    } catch (IOException e) {
+      // expected, since a segment could not be retrieved
+    }
+    verify(failedHandler, timeout(5000)).invalidate();
+    verify(failedHandler, never()).release();
+  }
+
+  @Test
+  public void restOfTheFileIsNotRetrievedWhenClosedBeforeTheEnd() throws Exception {
+    when(config.getReadSegments()).thenReturn(2);
+    ConnectionHandler segmentHandler = segmentConnection(connectedClient());
+    when(connectionManager.getConnection(config)).thenReturn(segmentHandler);
+
+    Result<InputStream, FtpFileAttributes> result = readFile(BINARY, null);
+    assertThat(result.getOutput().read(), is((int) FILE_CONTENT.charAt(0)));
+    result.getOutput().close();
+
+    verify(client, never()).setRestartOffset(tailOffset);
+  }
+
+  @Test
+  public void readIsNotSegmentedWhenNoConnectionIsBorrowedInTime() throws Exception {
+    when(config.getReadSegments()).thenReturn(2);
+    CountDownLatch poolExhausted = new CountDownLatch(1);
+    ConnectionHandler lateHandler = mock(ConnectionHandler.class);
+    when(connectionManager.getConnection(config)).thenAnswer(invocation -> {
+      poolExhausted.await();
+      return lateHandler;
+    });
+
+    try {
+      Result<InputStream, FtpFileAttributes> result = readFile(BINARY, null);
+
+      assertThat(IOUtils.toString(result.getOutput(), UTF_8), is(content));
+      verify(client).setRestartOffset(0);
+      poolExhausted.countDown();
+      verify(lateHandler, timeout(5000)).release();
+      verify(lateHandler, never()).getConnection();
+    } finally {
+      poolExhausted.countDown();
+    }
+  }
+
+  @Test
+  public void readInAsciiModeIsNotSegmented() throws Exception {
+    when(config.getReadSegments()).thenReturn(3);
+
+    Result<InputStream, FtpFileAttributes> result = readFile(ASCII, null);
+
+    assertThat(IOUtils.toString(result.getOutput(), UTF_8), is(content));
+    verify(connectionManager, never()).getConnection(config);
+  }
+
+  private ConnectionHandler segmentConnection(FTPClient segmentClient) throws Exception {
+    ConnectionHandler segmentHandler = mock(ConnectionHandler.class);
+    when(segmentHandler.getConnection()).thenReturn(fileSystem(segmentClient, null));
+    return segmentHandler;
+  }
+}
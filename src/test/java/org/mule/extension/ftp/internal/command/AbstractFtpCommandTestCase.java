@@ -0,0 +1,137 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.extension.ftp.internal.command;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mule.extension.ftp.AllureConstants.FtpFeature.FTP_EXTENSION;
+import static org.mule.extension.ftp.DefaultFtpTestHarness.FTP_PASSWORD;
+import static org.mule.extension.ftp.DefaultFtpTestHarness.FTP_USER;
+import static org.mule.extension.ftp.api.FileTestHarness.WORKING_DIR;
+
+import org.mule.extension.ftp.DefaultFtpTestHarness;
+import org.mule.extension.ftp.api.ftp.FtpFileAttributes;
+import org.mule.extension.ftp.api.ftp.FtpListingStrategy;
+import org.mule.extension.ftp.internal.config.FileConnectorConfig;
+import org.mule.extension.ftp.internal.connection.FtpFileSystem;
+import org.mule.extension.ftp.internal.connection.FtpFileSystemCollaborators;
+import org.mule.extension.ftp.internal.connection.FtpListingSettings;
+import org.mule.extension.ftp.internal.connection.FtpServerCapabilities;
+import org.mule.extension.ftp.internal.connection.SingleFileListingMode;
+import org.mule.runtime.api.lock.LockFactory;
+import org.mule.runtime.extension.api.runtime.operation.Result;
+
+import java.util.List;
+import java.util.function.Predicate;
+
+import io.qameta.allure.Feature;
+import org.apache.commons.net.ftp.FTPClient;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.ClassRule;
+
+/**
+ * Base class for the tests of the commands run against an embedded server.
+ * <p>
+ * Writes a file into a directory of the server before each test and provides a connected {@link FTPClient} spy, along with
+ * {@link FtpFileSystem}s over it which list directories as configured by each test.
+ */
+@Feature(FTP_EXTENSION)
+public abstract class AbstractFtpCommandTestCase {
+
+  protected static final String TEMP_DIRECTORY = "files";
+  protected static final String DIRECTORY_PATH = "/" + WORKING_DIR + "/" + TEMP_DIRECTORY;
+  protected static final String fileName = "NewFile.txt";
+  protected static final String filePath = "/" + TEMP_DIRECTORY + "/" + fileName;
+  protected static final String fullPath = "/" + WORKING_DIR + filePath;
+  protected static final String fileContent = "File Content.";
+  protected static final Predicate<FtpFileAttributes> ANY_FILE = attributes -> true;
+
+  @ClassRule
+  public static DefaultFtpTestHarness testHarness = new DefaultFtpTestHarness();
+
+  protected FTPClient client;
+  protected SingleFileListingMode singleFileListingMode = SingleFileListingMode.SUPPORTED;
+
+  @Before
+  public void setUpClient() throws Exception {
+    testHarness.makeDir(TEMP_DIRECTORY);
+    testHarness.write(fullPath, fileContent);
+
+    client = spy(FTPClient.class);
+    client.setDefaultTimeout(5000);
+    client.connect("localhost", testHarness.getServerPort());
+    client.login(FTP_USER, FTP_PASSWORD);
+  }
+
+  @After
+  public void tearDownClient() throws Exception {
+    client.disconnect();
+  }
+
+  /**
+   * @return a new {@link FtpFileSystem} over the {@link #client} which lists directories by changing the working directory
+   */
+  protected FtpFileSystem fileSystem() {
+    return new FtpFileSystem(client, WORKING_DIR, mock(LockFactory.class), singleFileListingMode);
+  }
+
+  /**
+   * @param listingSettings the {@link FtpListingSettings} of the connection
+   * @return a new {@link FtpFileSystem} over the {@link #client}
+   */
+  protected FtpFileSystem fileSystem(FtpListingSettings listingSettings) {
+    return fileSystem(collaborators(listingSettings));
+  }
+
+  /**
+   * @param collaborators the {@link FtpFileSystemCollaborators} of the connection
+   * @return a new {@link FtpFileSystem} over the {@link #client}
+   */
+  protected FtpFileSystem fileSystem(FtpFileSystemCollaborators collaborators) {
+    return new FtpFileSystem(client, WORKING_DIR, mock(LockFactory.class), collaborators);
+  }
+
+  /**
+   * @param listingSettings the {@link FtpListingSettings} of the connection
+   * @return new {@link FtpFileSystemCollaborators} which know whether the server supports single file listings
+   */
+  protected FtpFileSystemCollaborators collaborators(FtpListingSettings listingSettings) {
+    return new FtpFileSystemCollaborators(new FtpServerCapabilities(singleFileListingMode), listingSettings);
+  }
+
+  /**
+   * @param listingStrategy the {@link FtpListingStrategy} to list directories with
+   * @return new {@link FtpListingSettings} with the given strategy and the defaults for everything else
+   */
+  protected static FtpListingSettings listingSettings(FtpListingStrategy listingStrategy) {
+    FtpListingSettings listingSettings = new FtpListingSettings();
+    listingSettings.setListingStrategy(listingStrategy);
+    return listingSettings;
+  }
+
+  /**
+   * Lists a directory through the {@link FtpListCommand} of the given {@code fileSystem}, keeping every entry
+   *
+   * @param fileSystem    the {@link FtpFileSystem} to list the directory with
+   * @param directoryPath the absolute path of the directory
+   * @param recursive     whether to list the subdirectories as well
+   * @return the listed entries
+   */
+  protected static List<Result<String, FtpFileAttributes>> list(FtpFileSystem fileSystem, String directoryPath,
+                                                                boolean recursive) {
+    return listCommand(fileSystem).list(mock(FileConnectorConfig.class), directoryPath, recursive, ANY_FILE);
+  }
+
+  /**
+   * @param fileSystem a {@link FtpFileSystem}
+   * @return the {@link FtpListCommand} of the given {@code fileSystem}
+   */
+  protected static FtpListCommand listCommand(FtpFileSystem fileSystem) {
+    return (FtpListCommand) fileSystem.getListCommand();
+  }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.extension.ftp.internal.command;
+
+import static org.apache.commons.net.ftp.FTPFile.DIRECTORY_TYPE;
+import static org.apache.commons.net.ftp.FTPFile.FILE_TYPE;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mule.extension.ftp.AllureConstants.FtpFeature.FTP_EXTENSION;
+import static org.mule.extension.ftp.api.UriUtils.createUri;
+
+import org.mule.extension.ftp.api.ftp.FtpFileAttributes;
+import org.mule.runtime.api.metadata.MediaType;
+import org.mule.runtime.extension.api.runtime.operation.Result;
+
+import java.util.Calendar;
+
+import io.qameta.allure.Feature;
+import org.apache.commons.net.ftp.FTPFile;
+import org.junit.Test;
+
+@Feature(FTP_EXTENSION)
+public class CompactListingTestCase {
+
+  private static final int ENTRIES = 20000;
+  private static final int ENTRIES_PER_DIRECTORY = 1000;
+
+  @Test
+  public void entriesAreRebuiltAsTheyWereAdded() {
+    Result<String, FtpFileAttributes> file = file("/base/files", "NewFile.txt", 1);
+    Result<String, FtpFileAttributes> directory = directory("/base", "files");
+    CompactListing listing = new CompactListing();
+    listing.add(file);
+    listing.add(directory);
+    listing.trimToSize();
+
+    assertThat(listing.size(), is(2));
+    assertSameEntry(listing.get(0), file);
+    assertSameEntry(listing.get(1), directory);
+  }
+
+  @Test
+  public void irregularEntriesAreKeptAsTheyWereAdded() {
+    Result<String, FtpFileAttributes> file = file("/base/files", "NewFile.txt", 1);
+    Result<String, FtpFileAttributes> irregular = Result.<String, FtpFileAttributes>builder().output("content")
+        .mediaType(MediaType.APPLICATION_JSON).attributes(file.getAttributes().get()).build();
+    CompactListing listing = new CompactListing();
+    listing.add(irregular);
+
+    assertThat(listing.get(0), is(irregular));
+  }
+
+  @Test
+  public void retainsOneObjectPerEntry() {
+    CompactListing listing = new CompactListing();
+    for (int i = 0; i < ENTRIES; i++) {
+      listing.add(file("/base/directory" + i / ENTRIES_PER_DIRECTORY, "file" + i + ".txt", i));
+    }
+    listing.trimToSize();
+
+    // each entry only adds its name, since the parent directories are shared
+    assertThat(listing.size(), is(ENTRIES));
+    assertThat(listing.getRetainedObjectCount(), is(ENTRIES + ENTRIES / ENTRIES_PER_DIRECTORY));
+  }
+
+  @Test
+  public void irregularEntriesAreRetainedWhole() {
+    Result<String, FtpFileAttributes> file = file("/base/files", "NewFile.txt", 1);
+    CompactListing listing = new CompactListing();
+    listing.add(file);
+    listing.add(Result.<String, FtpFileAttributes>builder().output("content").mediaType(MediaType.APPLICATION_JSON)
+        .attributes(file.getAttributes().get()).build());
+
+    assertThat(listing.getRetainedObjectCount(), is(3));
+  }
+
+  private static void assertSameEntry(Result<String, FtpFileAttributes> actual, Result<String, FtpFileAttributes> expected) {
+    FtpFileAttributes actualAttributes = actual.getAttributes().get();
+    FtpFileAttributes expectedAttributes = expected.getAttributes().get();
+    assertThat(actual.getOutput(), is(expected.getOutput()));
+    assertThat(actual.getMediaType(), is(expected.getMediaType()));
+    assertThat(actualAttributes.getPath(), is(expectedAttributes.getPath()));
+    assertThat(actualAttributes.getName(), is(expectedAttributes.getName()));
+    assertThat(actualAttributes.getSize(), is(expectedAttributes.getSize()));
+    assertThat(actualAttributes.getTimestamp(), is(expectedAttributes.getTimestamp()));
+    assertThat(actualAttributes.isDirectory(), is(expectedAttributes.isDirectory()));
+    assertThat(actualAttributes.isRegularFile(), is(expectedAttributes.isRegularFile()));
+    assertThat(actualAttributes.isSymbolicLink(), is(expectedAttributes.isSymbolicLink()));
+  }
+
+  private static Result<String, FtpFileAttributes> file(String parentPath, String name, long size) {
+    String path = createUri(parentPath, name).getPath();
+    return Result.<String, FtpFileAttributes>builder().output(path).mediaType(MediaType.TEXT)
+        .attributes(new FtpFileAttributes(createUri(path), ftpFile(name, FILE_TYPE, size))).build();
+  }
+
+  private static Result<String, FtpFileAttributes> directory(String parentPath, String name) {
+    String path = createUri(parentPath, name).getPath();
+    return Result.<String, FtpFileAttributes>builder().output(null)
+        .attributes(new FtpFileAttributes(createUri(path), ftpFile(name, DIRECTORY_TYPE, 0))).build();
+  }
+
+  private static FTPFile ftpFile(String name, int type, long size) {
+    FTPFile file = new FTPFile();
+    file.setName(name);
+    file.setType(type);
+    file.setSize(size);
+    file.setTimestamp(Calendar.getInstance());
+    return file;
+  }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.extension.ftp.internal.command;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mule.extension.ftp.api.ftp.FtpListingStrategy.WORKING_DIRECTORY;
+
+import org.mule.extension.ftp.api.ftp.FtpFileAttributes;
+import org.mule.extension.ftp.internal.connection.FtpFileSystem;
+import org.mule.extension.ftp.internal.connection.FtpListingSettings;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the lookups of single files answered by the {@code STAT} command on the control connection.
+ */
+public class ControlChannelListingTestCase extends AbstractFtpCommandTestCase {
+
+  private FtpFileSystem fileSystem;
+  private FtpReadCommand ftpReadCommand;
+
+  @Before
+  public void setUp() throws Exception {
+    doReturn(null).when(client).mlistFile(any());
+    FtpListingSettings listingSettings = listingSettings(WORKING_DIRECTORY);
+    listingSettings.setControlChannelListing(true);
+    fileSystem = fileSystem(listingSettings);
+    ftpReadCommand = new FtpReadCommand(fileSystem, client);
+  }
+
+  @Test
+  public void getFileAttributesOnControlChannel() throws Exception {
+    FtpFileAttributes file = ftpReadCommand.getFile(fullPath);
+
+    assertThat(file, is(notNullValue()));
+    assertThat(file.getName(), is(fileName));
+    verify(client, atLeastOnce()).getStatus(anyString());
+    verify(client, never()).initiateListParsing(anyString());
+    verify(client, never()).initiateListParsing();
+  }
+
+  @Test
+  public void directoryWithAChildOfTheSameNameIsFoundOnControlChannel() throws Exception {
+    testHarness.makeDir(TEMP_DIRECTORY + "/same");
+    testHarness.write(DIRECTORY_PATH + "/same/same", fileContent);
+
+    FtpFileAttributes file = ftpReadCommand.getFile(DIRECTORY_PATH + "/same");
+
+    assertThat(file, is(notNullValue()));
+    assertThat(file.isDirectory(), is(true));
+  }
+
+  @Test
+  public void statusReplyWithOnlyATotalIsAnEmptyListing() throws Exception {
+    doReturn("213-Status follows:\r\n total 0\r\n213 End of status").when(client).getStatus(anyString());
+    doReturn(new String[] {"213-Status follows:", " total 0", "213 End of status"}).when(client).getReplyStrings();
+
+    FtpFileAttributes file = ftpReadCommand.getFile(DIRECTORY_PATH);
+
+    assertThat(file, is(notNullValue()));
+    assertThat(file.isDirectory(), is(true));
+    assertThat(fileSystem.isControlChannelListing(), is(true));
+  }
+}
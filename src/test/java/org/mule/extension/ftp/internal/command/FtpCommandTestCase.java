@@ -7,32 +7,59 @@
 package org.mule.extension.ftp.internal.command;
 
 import org.apache.commons.net.MalformedServerReplyException;
-import org.apache.commons.net.ftp.FTPClient;
+import org.apache.commons.net.ProtocolCommandEvent;
+import org.apache.commons.net.ProtocolCommandListener;
+import org.apache.commons.net.ftp.FTPClientConfig;
 import org.apache.commons.net.ftp.FTPFile;
-import org.junit.After;
-import org.junit.Before;
-import org.junit.ClassRule;
+import org.apache.commons.io.IOUtils;
 import org.junit.Test;
+import org.mule.extension.ftp.internal.FtpConnector;
 import org.mule.extension.ftp.internal.config.FileConnectorConfig;
-import org.mule.extension.ftp.DefaultFtpTestHarness;
+import org.mule.extension.ftp.api.ftp.FtpBulkFileAttributes;
 import org.mule.extension.ftp.api.ftp.FtpFileAttributes;
+import org.mule.extension.ftp.api.ftp.FtpMetadataStrategy;
+import org.mule.extension.ftp.api.ftp.FtpTransferMode;
+import org.mule.extension.ftp.api.ftp.FtpValidationStrategy;
 import org.mule.extension.ftp.internal.connection.FtpFileSystem;
+import org.mule.extension.ftp.internal.connection.FtpFileSystemCollaborators;
+import org.mule.extension.ftp.internal.connection.FtpListingSettings;
+import org.mule.extension.ftp.internal.connection.FtpOperationStatistics;
+import org.mule.extension.ftp.internal.connection.FtpServerCapabilities;
+import org.mule.extension.ftp.internal.connection.PipeliningFtpClient;
 import org.mule.extension.ftp.internal.connection.SingleFileListingMode;
 import org.mule.runtime.api.lock.LockFactory;
 import org.mule.runtime.extension.api.runtime.operation.Result;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Predicate;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.apache.commons.net.ftp.FTPCmd.MDTM;
 import static org.apache.commons.net.ftp.FTPCmd.MLST;
+import static org.apache.commons.net.ftp.FTPCmd.SIZE;
+import static org.mule.extension.ftp.api.FileWriteMode.OVERWRITE;
+import static org.mule.extension.ftp.api.ftp.FtpListingStrategy.AUTO;
+import static org.mule.extension.ftp.api.ftp.FtpTransferMode.ASCII;
+import static org.mule.extension.ftp.api.ftp.FtpListingStrategy.WORKING_DIRECTORY;
+import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.fail;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -42,44 +69,15 @@ import static org.mule.extension.ftp.DefaultFtpTestHarness.FTP_PASSWORD;
 import static org.mule.extension.ftp.DefaultFtpTestHarness.FTP_USER;
 import static org.mule.extension.ftp.api.FileTestHarness.WORKING_DIR;
 
-public class FtpCommandTestCase {
-
-  private static final String TEMP_DIRECTORY = "files";
-
-  @ClassRule
-  public static DefaultFtpTestHarness testHarness = new DefaultFtpTestHarness();
+public class FtpCommandTestCase extends AbstractFtpCommandTestCase {
 
   private FtpWriteCommand ftpWriteCommand;
   private FtpListCommand ftpListCommand;
   private FtpReadCommand ftpReadCommand;
-  private FTPClient client;
-
-  private static final String fileName = "NewFile.txt";
-  private static final String filePath = "/" + TEMP_DIRECTORY + "/" + fileName;
-  private static final String fullPath = "/" + WORKING_DIR + filePath;
-  private static final String fileContent = "File Content.";
-  private SingleFileListingMode singleFileListingMode = SingleFileListingMode.SUPPORTED;
-
-  @Before
-  public void setUp() throws Exception {
-    testHarness.makeDir(TEMP_DIRECTORY);
-    testHarness.write(fullPath, fileContent);
-
-    client = spy(FTPClient.class);
-    client.setDefaultTimeout(5000);
-    client.connect("localhost", testHarness.getServerPort());
-    client.login(FTP_USER, FTP_PASSWORD);
-  }
-
-  @After
-  public void tearDown() throws Exception {
-    client.disconnect();
-  }
 
   @Test
   public void listRecentlyCreatedDirectory() throws Exception {
-    ftpWriteCommand =
-        new FtpWriteCommand(new FtpFileSystem(client, WORKING_DIR, mock(LockFactory.class), singleFileListingMode), client);
+    ftpWriteCommand = new FtpWriteCommand(fileSystem(), client);
     assertThat(ftpWriteCommand.getFile(TEMP_DIRECTORY), is(notNullValue()));
   }
 
@@ -88,8 +86,7 @@ public class FtpCommandTestCase {
       throws Exception {
     doThrow(new MalformedServerReplyException()).when(client).mlistFile(any());
 
-    ftpReadCommand =
-        new FtpReadCommand(new FtpFileSystem(client, WORKING_DIR, mock(LockFactory.class), singleFileListingMode), client);
+    ftpReadCommand = new FtpReadCommand(fileSystem(), client);
     FtpFileAttributes file = ftpReadCommand.getFile(TEMP_DIRECTORY + "/NewFile.txt");
 
     assertThat(file, is(notNullValue()));
@@ -103,8 +100,7 @@ public class FtpCommandTestCase {
       throws Exception {
     doReturn(null).when(client).mlistFile(any());
 
-    ftpReadCommand =
-        new FtpReadCommand(new FtpFileSystem(client, WORKING_DIR, mock(LockFactory.class), singleFileListingMode), client);
+    ftpReadCommand = new FtpReadCommand(fileSystem(), client);
     FtpFileAttributes file = ftpReadCommand.getFile(fullPath);
 
     assertThat(file, is(notNullValue()));
@@ -122,8 +118,7 @@ public class FtpCommandTestCase {
     ftpFile.setName(fileName);
     doReturn(ftpFile).when(client).mlistFile(any());
 
-    ftpReadCommand =
-        new FtpReadCommand(new FtpFileSystem(client, WORKING_DIR, mock(LockFactory.class), singleFileListingMode), client);
+    ftpReadCommand = new FtpReadCommand(fileSystem(), client);
     FtpFileAttributes file = ftpReadCommand.getFile(fullPath);
 
     assertThat(file, is(notNullValue()));
@@ -137,11 +132,8 @@ public class FtpCommandTestCase {
     doReturn(new FTPFile[0]).when(client).mlistDir();
     doReturn(522).doCallRealMethod().when(client).getReplyCode();
 
-    ftpReadCommand =
-        new FtpReadCommand(new FtpFileSystem(client, WORKING_DIR, mock(LockFactory.class), singleFileListingMode), client);
-    ftpListCommand =
-        new FtpListCommand(new FtpFileSystem(client, WORKING_DIR, mock(LockFactory.class), singleFileListingMode), client,
-                           ftpReadCommand);
+    ftpReadCommand = new FtpReadCommand(fileSystem(), client);
+    ftpListCommand = new FtpListCommand(fileSystem(), client, ftpReadCommand);
 
     Predicate matcher = spy(Predicate.class);
     when(matcher.test(any())).thenReturn(true);
@@ -158,11 +150,8 @@ public class FtpCommandTestCase {
   public void listDirectoryFromServerThatDoesNotSupportMLSDCommandWithMalformedServerReplyException() throws Exception {
     doThrow(new MalformedServerReplyException()).when(client).mlistDir();
 
-    ftpReadCommand =
-        new FtpReadCommand(new FtpFileSystem(client, WORKING_DIR, mock(LockFactory.class), singleFileListingMode), client);
-    ftpListCommand =
-        new FtpListCommand(new FtpFileSystem(client, WORKING_DIR, mock(LockFactory.class), singleFileListingMode), client,
-                           ftpReadCommand);
+    ftpReadCommand = new FtpReadCommand(fileSystem(), client);
+    ftpListCommand = new FtpListCommand(fileSystem(), client, ftpReadCommand);
 
     Predicate matcher = spy(Predicate.class);
     when(matcher.test(any())).thenReturn(true);
@@ -180,11 +169,8 @@ public class FtpCommandTestCase {
   public void listDirectoryFromServerThatDoesNotListMLSDasFeatureFallsBackToListCommand() throws Exception {
     when(client.hasFeature(MLST.getCommand())).thenReturn(false);
 
-    ftpReadCommand =
-        new FtpReadCommand(new FtpFileSystem(client, WORKING_DIR, mock(LockFactory.class), singleFileListingMode), client);
-    ftpListCommand =
-        new FtpListCommand(new FtpFileSystem(client, WORKING_DIR, mock(LockFactory.class), singleFileListingMode), client,
-                           ftpReadCommand);
+    ftpReadCommand = new FtpReadCommand(fileSystem(), client);
+    ftpListCommand = new FtpListCommand(fileSystem(), client, ftpReadCommand);
 
     Predicate matcher = spy(Predicate.class);
     when(matcher.test(any())).thenReturn(true);
@@ -200,11 +186,8 @@ public class FtpCommandTestCase {
 
   @Test
   public void listDirectoryFromServerThatSupportsMLSDCommand() throws Exception {
-    ftpReadCommand =
-        new FtpReadCommand(new FtpFileSystem(client, WORKING_DIR, mock(LockFactory.class), singleFileListingMode), client);
-    ftpListCommand =
-        new FtpListCommand(new FtpFileSystem(client, WORKING_DIR, mock(LockFactory.class), singleFileListingMode), client,
-                           ftpReadCommand);
+    ftpReadCommand = new FtpReadCommand(fileSystem(), client);
+    ftpListCommand = new FtpListCommand(fileSystem(), client, ftpReadCommand);
 
     Predicate matcher = spy(Predicate.class);
     when(matcher.test(any())).thenReturn(true);
@@ -218,10 +201,280 @@ public class FtpCommandTestCase {
     verify(client, times(0)).initiateListParsing(anyString());
   }
 
+  @Test
+  public void serverCapabilitiesAreLearnedOnceForAllConnections() throws Exception {
+    FtpServerCapabilities capabilities = new FtpServerCapabilities();
+    FtpListingSettings listingSettings = new FtpListingSettings();
+    listingSettings.setListingStrategy(WORKING_DIRECTORY);
+
+    for (int i = 0; i < 2; i++) {
+      FtpFileSystem fileSystem = fileSystem(new FtpFileSystemCollaborators(capabilities, listingSettings));
+      assertThat(fileSystem.getFileAttributes(TEMP_DIRECTORY + "/" + fileName), notNullValue());
+    }
+
+    verify(client, times(1)).hasFeature(MLST.getCommand());
+  }
+
+  @Test
+  public void pinnedServerCapabilitiesAreNotAskedToTheServer() throws Exception {
+    FtpServerCapabilities capabilities =
+        new FtpServerCapabilities(SingleFileListingMode.UNSET, singletonList(MLST.getCommand()), FTPClientConfig.SYST_UNIX);
+    FtpListingSettings listingSettings = new FtpListingSettings();
+    listingSettings.setListingStrategy(WORKING_DIRECTORY);
+    FtpFileSystem fileSystem = fileSystem(new FtpFileSystemCollaborators(capabilities, listingSettings));
+
+    assertThat(fileSystem.getFileAttributes(TEMP_DIRECTORY + "/" + fileName), notNullValue());
+    assertThat(fileSystem.isFeatureSupported("SIZE"), is(false));
+    verify(client, never()).hasFeature(anyString());
+    verify(client, never()).getSystemType();
+  }
+
+  @Test
+  public void serverCapabilitiesAreForgottenWhenTheServerGreetsDifferently() throws Exception {
+    FtpServerCapabilities capabilities = new FtpServerCapabilities();
+    capabilities.onConnected("220 Welcome");
+    assertThat(capabilities.getSystemType(client), is(notNullValue()));
+    assertThat(capabilities.isFeatureSupported(MLST.getCommand(), client), is(true));
+
+    capabilities.onConnected("220 Welcome");
+    assertThat(capabilities.getSystemType(), is(notNullValue()));
+
+    capabilities.onConnected("220 Another server");
+    assertThat(capabilities.getSystemType(), is(nullValue()));
+    capabilities.isFeatureSupported(MLST.getCommand(), client);
+    verify(client, times(2)).hasFeature(MLST.getCommand());
+  }
+
+  @Test
+  public void redundantWorkingDirectoryChangesAreSkipped() throws Exception {
+    FtpFileSystem fileSystem = fileSystem();
+
+    fileSystem.changeToBaseDir();
+    fileSystem.changeToBaseDir();
+    assertThat(fileSystem.printWorkingDirectory(), is("/" + WORKING_DIR));
+    verify(client, times(1)).changeWorkingDirectory(anyString());
+    verify(client, never()).printWorkingDirectory();
+
+    client.changeToParentDirectory();
+    fileSystem.changeToBaseDir();
+    assertThat(fileSystem.validateConnection().isValid(), is(true));
+    verify(client, times(3)).changeWorkingDirectory(anyString());
+  }
+
+  @Test
+  public void fileAttributesAreObtainedWithSizeAndModificationTime() throws Exception {
+    doReturn(null).when(client).mlistFile(any());
+    FtpListingSettings listingSettings = new FtpListingSettings();
+    listingSettings.setMetadataStrategy(FtpMetadataStrategy.AUTO);
+    FtpFileSystem fileSystem = fileSystem(listingSettings);
+
+    FtpFileAttributes file = fileSystem.getFileAttributes(TEMP_DIRECTORY + "/" + fileName);
+
+    assertThat(file.isRegularFile(), is(true));
+    assertThat(file.getSize(), is((long) fileContent.length()));
+    assertThat(file.getTimestamp(), is(notNullValue()));
+    assertThat(fileSystem.getUpdatedFileAttributes(file).getSize(), is((long) fileContent.length()));
+    verify(client, times(2)).getSize(fullPath);
+    verify(client, never()).initiateListParsing(anyString());
+    verify(client, never()).initiateListParsing();
+  }
+
+  @Test
+  public void pathWithoutSizeIsLookedUpInTheListingOfItsParentOnServersWithoutMlst() throws Exception {
+    String directoryPath = "/" + WORKING_DIR + "/" + TEMP_DIRECTORY;
+    // many servers refuse MDTM on a directory
+    doReturn(null).when(client).mdtmCalendar(directoryPath);
+    FtpListingSettings listingSettings = new FtpListingSettings();
+    listingSettings.setMetadataStrategy(FtpMetadataStrategy.AUTO);
+    FtpServerCapabilities capabilities =
+        new FtpServerCapabilities(singleFileListingMode, asList(SIZE.getCommand(), MDTM.getCommand()), null);
+    FtpFileSystem fileSystem = fileSystem(new FtpFileSystemCollaborators(capabilities, listingSettings));
+
+    FtpFileAttributes directory = fileSystem.getFileAttributes(TEMP_DIRECTORY);
+
+    assertThat(directory.isDirectory(), is(true));
+    assertThat(directory.getName(), is(TEMP_DIRECTORY));
+    assertThat(fileSystem.getFileAttributes(TEMP_DIRECTORY + "/missing.txt"), is(nullValue()));
+    verify(client).getSize(directoryPath);
+    verify(client, never()).mlistFile(anyString());
+  }
+
+  @Test
+  public void attributesOfSeveralFilesInADirectoryAreObtainedWithASingleListing() throws Exception {
+    FtpListingSettings listingSettings = new FtpListingSettings();
+    listingSettings.setListingStrategy(WORKING_DIRECTORY);
+    FtpFileSystem fileSystem = fileSystem(listingSettings);
+    String existingPath = TEMP_DIRECTORY + "/" + fileName;
+    String missingPath = TEMP_DIRECTORY + "/missing.txt";
+    String otherMissingPath = TEMP_DIRECTORY + "/otherMissing.txt";
+
+    FtpBulkFileAttributes attributes = fileSystem.getAttributes(asList(existingPath, missingPath, otherMissingPath));
+
+    assertThat(attributes.getAttributes().size(), is(1));
+    assertThat(attributes.getAttributes().get(existingPath).getSize(), is((long) fileContent.length()));
+    assertThat(attributes.getMissingPaths(), is(asList(missingPath, otherMissingPath)));
+    verify(client, times(1)).listFiles();
+    verify(client, never()).mlistFile(anyString());
+  }
+
+  @Test
+  public void connectionIsValidatedWithoutChangingTheWorkingDirectory() throws Exception {
+    FtpFileSystem fileSystem = fileSystem();
+
+    assertThat(fileSystem.validateConnection(FtpValidationStrategy.RECENT_REPLY, 60000).isValid(), is(true));
+    verify(client, never()).sendNoOp();
+    assertThat(fileSystem.validateConnection(FtpValidationStrategy.NOOP, 0).isValid(), is(true));
+    verify(client, times(1)).sendNoOp();
+    verify(client, never()).changeWorkingDirectory(anyString());
+  }
+
+  @Test
+  public void transferModeIsOnlySentWhenItChanges() throws Exception {
+    FtpFileSystem fileSystem = fileSystem();
+
+    fileSystem.setTransferMode(FtpTransferMode.BINARY);
+    fileSystem.setTransferMode(FtpTransferMode.BINARY);
+    verify(client, times(1)).setFileType(FtpTransferMode.BINARY.getCode());
+
+    fileSystem.setTransferMode(FtpTransferMode.ASCII);
+    fileSystem.setTransferMode(FtpTransferMode.BINARY);
+    verify(client, times(2)).setFileType(FtpTransferMode.BINARY.getCode());
+  }
+
+  @Test
+  public void transferModeIsSentAgainOnceReconnected() throws Exception {
+    FtpFileSystem fileSystem = fileSystem();
+    fileSystem.setTransferMode(FtpTransferMode.BINARY);
+
+    fileSystem.disconnect();
+    client.connect("localhost", testHarness.getServerPort());
+    client.login(FTP_USER, FTP_PASSWORD);
+    fileSystem.setTransferMode(FtpTransferMode.BINARY);
+
+    verify(client, times(2)).setFileType(FtpTransferMode.BINARY.getCode());
+  }
+
+  @Test
+  public void passiveModeIsAppliedEveryTimeItIsSet() throws Exception {
+    FtpFileSystem fileSystem = fileSystem();
+
+    fileSystem.setPassiveMode(true);
+    fileSystem.setPassiveMode(true);
+
+    verify(client, times(2)).enterLocalPassiveMode();
+  }
+
+  @Test
+  public void filesOfADeletedDirectoryAreDeletedWithPipelinedCommands() throws Exception {
+    String directory = TEMP_DIRECTORY + "/pipelined";
+    testHarness.makeDir(directory);
+    for (int i = 0; i < 3; i++) {
+      testHarness.write(directory + "/file" + i + ".txt", fileContent);
+    }
+    PipeliningFtpClient pipeliningClient = spy(PipeliningFtpClient.class);
+    pipeliningClient.setDefaultTimeout(5000);
+    pipeliningClient.setPipelineWindow(10);
+    pipeliningClient.connect("localhost", testHarness.getServerPort());
+    pipeliningClient.login(FTP_USER, FTP_PASSWORD);
+    LockFactory lockFactory = mock(LockFactory.class);
+    when(lockFactory.createLock(anyString())).thenAnswer(invocation -> new ReentrantLock());
+
+    try {
+      new FtpFileSystem(pipeliningClient, WORKING_DIR, lockFactory, singleFileListingMode).delete(directory);
+    } finally {
+      pipeliningClient.disconnect();
+    }
+
+    assertThat(testHarness.dirExists(directory), is(false));
+    verify(pipeliningClient, times(1)).flushCommands();
+    verify(pipeliningClient, never()).deleteFile(anyString());
+  }
+
+  @Test
+  public void roundTripsOfAnOperationAreCounted() throws Exception {
+    FtpFileSystem fileSystem = fileSystem();
+
+    fileSystem.write(TEMP_DIRECTORY + "/" + fileName, new ByteArrayInputStream(fileContent.getBytes()), OVERWRITE, false,
+                     false);
+
+    FtpOperationStatistics statistics = fileSystem.getLastOperationStatistics();
+    assertThat(statistics.getOperation(), is("write"));
+    assertThat(statistics.getCommandCount("STOR"), is(1));
+    assertThat(statistics.getDataConnectionCount(), is(1));
+    assertThat(statistics.getDataBytes(), is((long) fileContent.length()));
+  }
+
+  @Test
+  public void listingAndTheChangeToTheBaseDirectoryBeforeItAreCounted() throws Exception {
+    FtpFileSystem fileSystem = fileSystem();
+
+    AtomicInteger sentCommands = new AtomicInteger();
+    client.addProtocolCommandListener(new ProtocolCommandListener() {
+
+      @Override
+      public void protocolCommandSent(ProtocolCommandEvent event) {
+        sentCommands.incrementAndGet();
+      }
+
+      @Override
+      public void protocolReplyReceived(ProtocolCommandEvent event) {}
+    });
+
+    fileSystem.changeToBaseDir();
+    fileSystem.list(mock(FileConnectorConfig.class), TEMP_DIRECTORY, false, ANY_FILE);
+
+    FtpOperationStatistics statistics = fileSystem.getLastOperationStatistics();
+    assertThat(statistics.getOperation(), is("list"));
+    assertThat(statistics.getCommandCount(), is(sentCommands.get()));
+    assertThat(statistics.getCommandCount("MLSD"), is(1));
+    assertThat(fileSystem.getStatistics().getOperationCount("list"), is(1L));
+    assertThat(fileSystem.getStatistics().getCommandCounts().get("MLSD"), is(1L));
+  }
+
+  @Test
+  public void rangeOfAFileIsReadFromItsOffset() throws Exception {
+    ftpReadCommand = new FtpReadCommand(fileSystem(), client);
+
+    Result<InputStream, FtpFileAttributes> result =
+        ftpReadCommand.read(mock(FtpConnector.class), TEMP_DIRECTORY + "/" + fileName, false, null, 5, 3L);
+
+    assertThat(IOUtils.toString(result.getOutput(), UTF_8), is("Con"));
+    assertThat(result.getAttributes().get().getRangeOffset(), is(5L));
+    assertThat(result.getAttributes().get().getRangeLength(), is(3L));
+    verify(client).setRestartOffset(5);
+    assertThat(client.sendNoOp(), is(true));
+  }
+
+  @Test
+  public void rangeOfAFileIsNotReadInAsciiMode() throws Exception {
+    FtpFileSystem fileSystem = fileSystem();
+    fileSystem.setTransferMode(ASCII);
+    ftpReadCommand = new FtpReadCommand(fileSystem, client);
+
+    try {
+      ftpReadCommand.read(mock(FtpConnector.class), TEMP_DIRECTORY + "/" + fileName, false, null, 5, 3L);
+      fail("A range should not be read in ASCII mode");
+    } catch (IllegalArgumentException e) {
+      assertThat(e.getMessage(), containsString("ASCII"));
+    }
+    verify(client, never()).setRestartOffset(anyLong());
+    verify(client, never()).retrieveFileStream(anyString());
+  }
+
+  @Test
+  public void pathsAreLookedUpOncePerOperation() throws Exception {
+    FtpFileSystem fileSystem = fileSystem();
+
+    fileSystem.move(mock(FileConnectorConfig.class), TEMP_DIRECTORY + "/" + fileName, "moved", false, true, null);
+
+    assertThat(fileSystem.getFileAttributes("moved/" + fileName), is(notNullValue()));
+    assertThat(fileSystem.getLookupMemo(), is(nullValue()));
+    verify(client, times(1)).mlistFile(fullPath);
+  }
+
   @Test
   public void testThatGetFileFromParentDirectoryReturnsFileEvenIfThereIsNotMLSTCommand() throws Exception {
-    ftpReadCommand =
-        new FtpReadCommand(new FtpFileSystem(client, WORKING_DIR, mock(LockFactory.class), singleFileListingMode), client);
+    ftpReadCommand = new FtpReadCommand(fileSystem(), client);
 
     Predicate matcher = spy(Predicate.class);
     when(matcher.test(any())).thenReturn(true);
@@ -235,8 +488,7 @@ public class FtpCommandTestCase {
 
   @Test
   public void testThatGetFileFromParentDirectory2ReturnsFileEvenIfThereIsNotMLSTCommand() throws Exception {
-    ftpReadCommand =
-        new FtpReadCommand(new FtpFileSystem(client, WORKING_DIR, mock(LockFactory.class), singleFileListingMode), client);
+    ftpReadCommand = new FtpReadCommand(fileSystem(), client);
 
     Predicate matcher = spy(Predicate.class);
     when(matcher.test(any())).thenReturn(true);
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.extension.ftp.internal.command;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mule.extension.ftp.api.FileTestHarness.WORKING_DIR;
+import static org.mule.extension.ftp.api.ftp.FtpListingStrategy.AUTO;
+import static org.mule.extension.ftp.api.ftp.FtpListingStrategy.WORKING_DIRECTORY;
+
+import org.mule.extension.ftp.api.FtpFileMatcher;
+import org.mule.extension.ftp.api.ftp.FtpFileAttributes;
+import org.mule.extension.ftp.internal.FtpConnector;
+import org.mule.extension.ftp.internal.config.FileConnectorConfig;
+import org.mule.extension.ftp.internal.connection.FtpFileSystem;
+import org.mule.extension.ftp.internal.connection.FtpListingSettings;
+import org.mule.runtime.extension.api.runtime.operation.Result;
+
+import java.io.ByteArrayInputStream;
+import java.util.Iterator;
+import java.util.List;
+
+import org.apache.commons.net.ftp.FTPListParseEngine;
+import org.apache.commons.net.ftp.parser.UnixFTPEntryParser;
+import org.junit.Test;
+
+public class FtpListCommandTestCase extends AbstractFtpCommandTestCase {
+
+  @Test
+  public void iterateDirectoryRecursivelyListsDirectoryBeforeItsContents() throws Exception {
+    Iterator<Result<String, FtpFileAttributes>> files =
+        listCommand(fileSystem()).iterate(mock(FileConnectorConfig.class), "/" + WORKING_DIR, true, ANY_FILE);
+    verify(client, times(1)).mlistDir();
+
+    assertThat(files.next().getAttributes().get().getName(), is(TEMP_DIRECTORY));
+    assertThat(files.next().getAttributes().get().getName(), is(fileName));
+    assertThat(files.hasNext(), is(false));
+    verify(client, times(2)).mlistDir();
+  }
+
+  @Test
+  public void parallelRecursiveListingWithoutAdditionalConnectionsListsWholeTree() throws Exception {
+    FtpConnector config = mock(FtpConnector.class);
+    when(config.getListingParallelism()).thenReturn(4);
+
+    List<Result<String, FtpFileAttributes>> files = listCommand(fileSystem()).list(config, "/" + WORKING_DIR, true, ANY_FILE);
+
+    assertThat(files, hasSize(2));
+    verify(client, times(2)).mlistDir();
+    verify(config, never()).getConnectionManager();
+  }
+
+  @Test
+  public void emptyServerSideRecursiveListingFallsBackToWalkingTheTree() throws Exception {
+    FtpListingSettings listingSettings = new FtpListingSettings();
+    listingSettings.setServerSideRecursiveListing(true);
+    FtpFileSystem fileSystem = fileSystem(listingSettings);
+    // a server which takes the flag for the name of a missing entry successfully lists nothing
+    doAnswer(invocation -> {
+      FTPListParseEngine engine = new FTPListParseEngine(new UnixFTPEntryParser());
+      engine.readServerList(new ByteArrayInputStream(new byte[0]), UTF_8.name());
+      return engine;
+    }).when(client).initiateListParsing("-R");
+
+    List<Result<String, FtpFileAttributes>> files = list(fileSystem, "/" + WORKING_DIR, true);
+
+    assertThat(files, hasSize(2));
+    assertThat(fileSystem.isServerSideRecursiveListing(), is(false));
+  }
+
+  @Test
+  public void recursiveListingByAbsolutePathDoesNotChangeWorkingDirectory() throws Exception {
+    List<Result<String, FtpFileAttributes>> files = list(fileSystem(listingSettings(AUTO)), "/" + WORKING_DIR, true);
+
+    assertThat(files, hasSize(2));
+    verify(client, times(2)).mlistDir(anyString());
+    verify(client, never()).changeWorkingDirectory(anyString());
+  }
+
+  @Test
+  public void filenamePatternIsPushedDownToTheListing() throws Exception {
+    FtpListingSettings listingSettings = listingSettings(WORKING_DIRECTORY);
+    listingSettings.setFilenamePatternPushdown(true);
+
+    List<Result<String, FtpFileAttributes>> files =
+        listCommand(fileSystem(listingSettings)).list(mock(FileConnectorConfig.class), DIRECTORY_PATH, false,
+                                                      new FtpFileMatcher().setFilenamePattern("New*.txt").build());
+
+    assertThat(files, hasSize(1));
+    assertThat(files.get(0).getAttributes().get().getName(), is(fileName));
+    verify(client, times(1)).initiateListParsing("New*.txt");
+    verify(client, never()).mlistDir();
+  }
+
+  @Test
+  public void filenamePatternWhichMayMatchDotFilesIsNotPushedDown() throws Exception {
+    FtpListingSettings listingSettings = listingSettings(WORKING_DIRECTORY);
+    listingSettings.setFilenamePatternPushdown(true);
+
+    List<Result<String, FtpFileAttributes>> files =
+        listCommand(fileSystem(listingSettings)).list(mock(FileConnectorConfig.class), DIRECTORY_PATH, false,
+                                                      new FtpFileMatcher().setFilenamePattern("*.txt").build());
+
+    assertThat(files, hasSize(1));
+    verify(client, never()).initiateListParsing("*.txt");
+    verify(client, times(1)).mlistDir();
+  }
+}
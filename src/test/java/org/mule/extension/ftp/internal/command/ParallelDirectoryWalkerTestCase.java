@@ -0,0 +1,176 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.extension.ftp.internal.command;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.concurrent.Executors.newFixedThreadPool;
+import static java.util.stream.Collectors.toSet;
+import static org.apache.commons.net.ftp.FTPFile.DIRECTORY_TYPE;
+import static org.apache.commons.net.ftp.FTPFile.FILE_TYPE;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyBoolean;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mule.extension.ftp.AllureConstants.FtpFeature.FTP_EXTENSION;
+
+import org.mule.extension.ftp.api.ftp.FtpFileAttributes;
+import org.mule.extension.ftp.internal.FtpConnector;
+import org.mule.extension.ftp.internal.config.FileConnectorConfig;
+import org.mule.extension.ftp.internal.connection.FtpFileSystem;
+import org.mule.runtime.api.connection.ConnectionException;
+import org.mule.runtime.api.connection.ConnectionHandler;
+import org.mule.runtime.api.scheduler.Scheduler;
+import org.mule.runtime.core.api.connector.ConnectionManager;
+import org.mule.runtime.extension.api.runtime.operation.Result;
+
+import java.net.URI;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Predicate;
+
+import io.qameta.allure.Feature;
+import org.apache.commons.net.ftp.FTPFile;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+@Feature(FTP_EXTENSION)
+public class ParallelDirectoryWalkerTestCase {
+
+  private static final Predicate<FtpFileAttributes> ACCEPT_ALL = attributes -> true;
+
+  private final Map<String, List<Result<String, FtpFileAttributes>>> tree = new HashMap<>();
+  private final FtpConnector config = mock(FtpConnector.class);
+  private final ConnectionManager connectionManager = mock(ConnectionManager.class);
+  private final Scheduler scheduler = mock(Scheduler.class);
+  private final ExecutorService executor = newFixedThreadPool(4);
+  private final FtpFileSystem fileSystem = mock(FtpFileSystem.class);
+  private final FtpFileSystem borrowedFileSystem = mock(FtpFileSystem.class);
+  private final ConnectionHandler borrowedHandler = mock(ConnectionHandler.class);
+
+  @Before
+  public void setUp() throws Exception {
+    tree.put("/root", asList(directory("/root/a"), directory("/root/b"), file("/root/1.txt")));
+    tree.put("/root/a", asList(directory("/root/a/c"), file("/root/a/2.txt")));
+    tree.put("/root/b", asList(file("/root/b/3.txt")));
+    tree.put("/root/a/c", asList(file("/root/a/c/4.txt")));
+
+    when(scheduler.submit(any(Runnable.class)))
+        .thenAnswer(invocation -> executor.submit((Runnable) invocation.getArguments()[0]));
+    when(config.getScheduler()).thenReturn(scheduler);
+    when(config.getConnectionManager()).thenReturn(connectionManager);
+    when(config.getListingParallelism()).thenReturn(2);
+    when(connectionManager.getConnection(config)).thenReturn(borrowedHandler);
+    when(borrowedHandler.getConnection()).thenReturn(borrowedFileSystem);
+    listTreeWith(fileSystem);
+    listTreeWith(borrowedFileSystem);
+  }
+
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void wholeTreeIsListed() throws Exception {
+    List<Result<String, FtpFileAttributes>> results = new ParallelDirectoryWalker(config, ACCEPT_ALL).walk(fileSystem, "/root");
+
+    assertThat(paths(results), is(new HashSet<>(asList("/root/a", "/root/b", "/root/1.txt", "/root/a/c", "/root/a/2.txt",
+                                                       "/root/b/3.txt", "/root/a/c/4.txt"))));
+    verify(borrowedHandler, timeout(5000)).release();
+  }
+
+  @Test
+  public void onlyMatchingEntriesAreReturned() throws Exception {
+    List<Result<String, FtpFileAttributes>> results =
+        new ParallelDirectoryWalker(config, attributes -> !attributes.isDirectory()).walk(fileSystem, "/root");
+
+    assertThat(paths(results),
+               is(new HashSet<>(asList("/root/1.txt", "/root/a/2.txt", "/root/b/3.txt", "/root/a/c/4.txt"))));
+  }
+
+  @Test
+  public void treeIsListedWhenNoAdditionalConnectionCanBeObtained() throws Exception {
+    when(connectionManager.getConnection(config)).thenThrow(new ConnectionException("Pool exhausted"));
+
+    List<Result<String, FtpFileAttributes>> results = new ParallelDirectoryWalker(config, ACCEPT_ALL).walk(fileSystem, "/root");
+
+    assertThat(results.size(), is(7));
+  }
+
+  @Test
+  public void treeIsListedWithoutScheduler() throws Exception {
+    when(config.getScheduler()).thenReturn(null);
+
+    List<Result<String, FtpFileAttributes>> results = new ParallelDirectoryWalker(config, ACCEPT_ALL).walk(fileSystem, "/root");
+
+    assertThat(results.size(), is(7));
+  }
+
+  @Test
+  public void failureListingASubDirectoryIsRethrown() throws Exception {
+    IllegalStateException failure = new IllegalStateException("Could not list /root/b");
+    tree.remove("/root/b");
+    when(fileSystem.iterate(any(FileConnectorConfig.class), anyString(), anyBoolean(), any(Predicate.class)))
+        .thenAnswer(invocation -> list((String) invocation.getArguments()[1], failure));
+    when(borrowedFileSystem.iterate(any(FileConnectorConfig.class), anyString(), anyBoolean(), any(Predicate.class)))
+        .thenAnswer(invocation -> list((String) invocation.getArguments()[1], failure));
+
+    try {
+      new ParallelDirectoryWalker(config, ACCEPT_ALL).walk(fileSystem, "/root");
+      fail("Expected the walk to fail");
+    } catch (IllegalStateException e) {
+      assertThat(e, is(sameInstance(failure)));
+    }
+  }
+
+  private void listTreeWith(FtpFileSystem fileSystem) {
+    when(fileSystem.iterate(any(FileConnectorConfig.class), anyString(), anyBoolean(), any(Predicate.class)))
+        .thenAnswer(invocation -> tree.getOrDefault((String) invocation.getArguments()[1], emptyList()).iterator());
+  }
+
+  private Object list(String directoryPath, RuntimeException failure) {
+    if (!tree.containsKey(directoryPath)) {
+      throw failure;
+    }
+    return tree.get(directoryPath).iterator();
+  }
+
+  private static Set<String> paths(List<Result<String, FtpFileAttributes>> results) {
+    return results.stream().map(result -> result.getAttributes().get().getPath()).collect(toSet());
+  }
+
+  private static Result<String, FtpFileAttributes> directory(String path) {
+    return entry(path, DIRECTORY_TYPE);
+  }
+
+  private static Result<String, FtpFileAttributes> file(String path) {
+    return entry(path, FILE_TYPE);
+  }
+
+  private static Result<String, FtpFileAttributes> entry(String path, int type) {
+    FTPFile ftpFile = new FTPFile();
+    ftpFile.setName(path.substring(path.lastIndexOf('/') + 1));
+    ftpFile.setType(type);
+    return Result.<String, FtpFileAttributes>builder()
+        .output(path)
+        .attributes(new FtpFileAttributes(URI.create(path), ftpFile))
+        .build();
+  }
+}
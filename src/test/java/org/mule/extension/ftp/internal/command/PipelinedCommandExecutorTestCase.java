@@ -0,0 +1,104 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.extension.ftp.internal.command;
+
+import static java.util.Arrays.asList;
+import static org.apache.commons.net.ftp.FTPCmd.DELE;
+import static org.apache.commons.net.ftp.FTPReply.UNRECOGNIZED_COMMAND;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mule.extension.ftp.AllureConstants.FtpFeature.FTP_EXTENSION;
+
+import org.mule.extension.ftp.internal.connection.FtpFileSystem;
+import org.mule.extension.ftp.internal.connection.FtpServerCapabilities;
+import org.mule.extension.ftp.internal.connection.PipeliningFtpClient;
+import org.mule.runtime.api.connection.ConnectionException;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+
+import io.qameta.allure.Feature;
+import org.apache.commons.net.MalformedServerReplyException;
+import org.apache.commons.net.ftp.FTPCmd;
+import org.apache.commons.net.ftp.FTPConnectionClosedException;
+import org.junit.Before;
+import org.junit.Test;
+
+@Feature(FTP_EXTENSION)
+public class PipelinedCommandExecutorTestCase {
+
+  private final FtpServerCapabilities capabilities = new FtpServerCapabilities();
+  private final PipeliningFtpClient client = mock(PipeliningFtpClient.class);
+  private PipelinedCommandExecutor executor;
+
+  @Before
+  public void setUp() {
+    FtpFileSystem fileSystem = mock(FtpFileSystem.class);
+    when(fileSystem.getCapabilities()).thenReturn(capabilities);
+    when(client.getPipelineWindow()).thenReturn(10);
+    executor = new PipelinedCommandExecutor(fileSystem, client);
+  }
+
+  @Test
+  public void pipeliningIsKeptWhenTheConnectionIsClosed() throws Exception {
+    assertFailsReadingReplies(new FTPConnectionClosedException("Connection closed without indication."));
+    assertThat(capabilities.isCommandPipeliningRejected(), is(false));
+  }
+
+  @Test
+  public void pipeliningIsRejectedWhenRepliesNeverArrive() throws Exception {
+    assertFailsReadingReplies(new SocketTimeoutException("Read timed out"));
+    assertThat(capabilities.isCommandPipeliningRejected(), is(true));
+  }
+
+  @Test
+  public void pipeliningIsRejectedWhenAReplyIsMalformed() throws Exception {
+    assertFailsReadingReplies(new MalformedServerReplyException("Truncated server reply: 25"));
+    assertThat(capabilities.isCommandPipeliningRejected(), is(true));
+  }
+
+  @Test
+  public void unrecognizedPipelinedCommandIsNotSentAgain() throws Exception {
+    when(client.getReply()).thenReturn(250, UNRECOGNIZED_COMMAND);
+
+    try {
+      executor.execute(DELE, asList("a.txt", "b.txt"));
+      fail("Expected the connection to be reported as broken");
+    } catch (ConnectionException e) {
+      // the remaining replies can't be matched to their commands
+    }
+    assertThat(capabilities.isCommandPipeliningRejected(), is(true));
+    verify(client, never()).sendCommand(DELE, "b.txt");
+  }
+
+  @Test
+  public void commandsAreSentOneAtATimeOncePipeliningWasRejected() throws Exception {
+    capabilities.onCommandPipeliningRejected();
+    when(client.sendCommand(DELE, "a.txt")).thenReturn(250);
+    when(client.sendCommand(DELE, "b.txt")).thenReturn(550);
+
+    assertThat(executor.execute(DELE, asList("a.txt", "b.txt")), is(new int[] {250, 550}));
+    verify(client, never()).writeCommand(any(FTPCmd.class), anyString());
+  }
+
+  private void assertFailsReadingReplies(IOException failure) throws IOException {
+    when(client.getReply()).thenThrow(failure);
+    try {
+      executor.execute(DELE, asList("a.txt", "b.txt"));
+      fail("Expected the replies not to be read");
+    } catch (ConnectionException e) {
+      // the connection is reported as broken either way
+    }
+  }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.extension.ftp.internal.command;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Arrays.stream;
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.mule.extension.ftp.AllureConstants.FtpFeature.FTP_EXTENSION;
+
+import java.io.ByteArrayInputStream;
+import java.util.List;
+
+import io.qameta.allure.Feature;
+import org.apache.commons.net.ftp.FTPClientConfig;
+import org.apache.commons.net.ftp.FTPFile;
+import org.apache.commons.net.ftp.FTPListParseEngine;
+import org.junit.Test;
+
+@Feature(FTP_EXTENSION)
+public class SectionedListingParserFactoryTestCase {
+
+  private static final String RECURSIVE_LISTING = "total 8\n"
+      + "drwxr-xr-x    2 ftp      ftp          4096 Jan 10 10:00 files\n"
+      + "-rw-r--r--    1 ftp      ftp            12 Jan 10 10:00 root.txt\n"
+      + "\n"
+      + "./files:\n"
+      + "total 4\n"
+      + "-rw-r--r--    1 ftp      ftp            12 Jan 10 10:00 NewFile.txt\n"
+      + "-rw-r--r--    1 ftp      ftp            12 Jan 10 10:00 weird:\n";
+
+  private final SectionedListingParserFactory parserFactory = new SectionedListingParserFactory();
+
+  @Test
+  public void recordsSectionsWhileArmed() throws Exception {
+    FTPListParseEngine engine = new FTPListParseEngine(parserFactory.createFileEntryParser(FTPClientConfig.SYST_UNIX));
+
+    parserFactory.arm();
+    engine.readServerList(new ByteArrayInputStream(RECURSIVE_LISTING.getBytes(UTF_8)), UTF_8.name());
+    List<SectionedListingParserFactory.Section> sections = parserFactory.disarm();
+
+    assertThat(sections.size(), is(1));
+    assertThat(sections.get(0).getHeader(), is("./files"));
+    assertThat(sections.get(0).getStart(), is(2));
+    assertThat(names(engine.getFiles()), contains("files", "root.txt", "NewFile.txt", "weird:"));
+  }
+
+  @Test
+  public void doesNotRecordSectionsWhileDisarmed() throws Exception {
+    FTPListParseEngine engine = new FTPListParseEngine(parserFactory.createFileEntryParser(FTPClientConfig.SYST_UNIX));
+
+    engine.readServerList(new ByteArrayInputStream(RECURSIVE_LISTING.getBytes(UTF_8)), UTF_8.name());
+
+    assertThat(parserFactory.disarm(), is(empty()));
+  }
+
+  private static List<String> names(FTPFile[] files) {
+    return stream(files).map(FTPFile::getName).collect(toList());
+  }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.extension.ftp.internal.connection;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mule.extension.ftp.AllureConstants.FtpFeature.FTP_EXTENSION;
+import static org.mule.extension.ftp.api.FileWriteMode.OVERWRITE;
+import static org.mule.extension.ftp.api.ftp.FtpListingStrategy.WORKING_DIRECTORY;
+
+import org.mule.extension.ftp.api.ftp.FtpFileAttributes;
+import org.mule.extension.ftp.internal.command.AbstractFtpCommandTestCase;
+
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.qameta.allure.Feature;
+import org.apache.commons.net.ftp.FTPFile;
+import org.junit.Test;
+
+@Feature(FTP_EXTENSION)
+public class DirectoryListingCacheTestCase extends AbstractFtpCommandTestCase {
+
+  private static final long TTL_MILLIS = 1000;
+
+  private final AtomicLong nanoTime = new AtomicLong();
+
+  @Test
+  public void expiresListingsAfterTtl() {
+    DirectoryListingCache cache = new DirectoryListingCache(TTL_MILLIS, 10, Long.MAX_VALUE, nanoTime::get);
+    cache.put("/base/files/", listing("NewFile.txt"));
+
+    assertThat(cache.get("/base/files"), is(notNullValue()));
+    nanoTime.addAndGet(TTL_MILLIS * 1000000);
+    assertThat(cache.get("/base/files"), is(nullValue()));
+    assertThat(cache.getHitCount(), is(1L));
+    assertThat(cache.getMissCount(), is(1L));
+  }
+
+  @Test
+  public void evictsLeastRecentlyUsedListings() {
+    DirectoryListingCache cache = new DirectoryListingCache(TTL_MILLIS, 2, Long.MAX_VALUE, nanoTime::get);
+    cache.put("/a", listing("a.txt"));
+    cache.put("/b", listing("b.txt"));
+    cache.get("/a");
+    cache.put("/c", listing("c.txt"));
+
+    assertThat(cache.size(), is(2));
+    assertThat(cache.get("/a"), is(notNullValue()));
+    assertThat(cache.get("/b"), is(nullValue()));
+  }
+
+  @Test
+  public void doesNotKeepListingsLargerThanMaxSize() {
+    DirectoryListingCache cache = new DirectoryListingCache(TTL_MILLIS, 10, 100, nanoTime::get);
+    cache.put("/base", listing("first.txt", "second.txt"));
+
+    assertThat(cache.size(), is(0));
+  }
+
+  @Test
+  public void invalidatesParentAndDescendants() {
+    DirectoryListingCache cache = new DirectoryListingCache(TTL_MILLIS, 10, Long.MAX_VALUE, nanoTime::get);
+    cache.put("/", listing("base"));
+    cache.put("/base", listing("files"));
+    cache.put("/base/files", listing("NewFile.txt"));
+    cache.put("/base/files/nested", listing("Nested.txt"));
+    cache.put("/base/filesystem", listing("Other.txt"));
+
+    cache.invalidate("/base/files");
+
+    assertThat(cache.get("/"), is(notNullValue()));
+    assertThat(cache.get("/base"), is(nullValue()));
+    assertThat(cache.get("/base/files"), is(nullValue()));
+    assertThat(cache.get("/base/files/nested"), is(nullValue()));
+    assertThat(cache.get("/base/filesystem"), is(notNullValue()));
+  }
+
+  @Test
+  public void findsEntriesByName() {
+    DirectoryListingCache cache = new DirectoryListingCache(TTL_MILLIS, 10, Long.MAX_VALUE, nanoTime::get);
+    cache.put("/base/files", listing("NewFile.txt", "Other.txt"));
+
+    assertThat(cache.find("/base/files", "Other.txt").getName(), is("Other.txt"));
+    assertThat(cache.find("/base/files", "Missing.txt"), is(nullValue()));
+    assertThat(cache.find("/base", "files"), is(nullValue()));
+  }
+
+  @Test
+  public void cachedListingIsReusedUntilDirectoryIsModified() throws Exception {
+    DirectoryListingCache listingCache = new DirectoryListingCache(60000, 10, Long.MAX_VALUE);
+    FtpFileSystem fileSystem = fileSystemWithListingCache(listingCache);
+
+    assertThat(list(fileSystem, DIRECTORY_PATH, false), hasSize(1));
+    assertThat(list(fileSystem, DIRECTORY_PATH, false), hasSize(1));
+    verify(client, times(1)).mlistDir();
+    assertThat(listingCache.getHitCount(), is(1L));
+
+    fileSystem.write(TEMP_DIRECTORY + "/Other.txt", new ByteArrayInputStream(fileContent.getBytes()), OVERWRITE, false, true);
+
+    assertThat(list(fileSystem, DIRECTORY_PATH, false), hasSize(2));
+    verify(client, times(2)).mlistDir();
+  }
+
+  @Test
+  public void updatedAttributesAreNotTakenFromTheCachedListing() throws Exception {
+    FtpFileSystem fileSystem = fileSystemWithListingCache(new DirectoryListingCache(60000, 10, Long.MAX_VALUE));
+    list(fileSystem, DIRECTORY_PATH, false);
+    FtpFileAttributes listedAttributes = fileSystem.getFileAttributes(TEMP_DIRECTORY + "/" + fileName);
+
+    testHarness.write(fullPath, fileContent + fileContent);
+
+    assertThat(fileSystem.getFileAttributes(TEMP_DIRECTORY + "/" + fileName).getSize(), is((long) fileContent.length()));
+    assertThat(fileSystem.getUpdatedFileAttributes(listedAttributes).getSize(), is(2L * fileContent.length()));
+  }
+
+  @Test
+  public void directoryListedToLookUpAFileIsIndexedForOtherLookups() throws Exception {
+    doReturn(null).when(client).mlistFile(any());
+    DirectoryListingCache lookupIndex = new DirectoryListingCache(60000, Integer.MAX_VALUE, Long.MAX_VALUE);
+    FtpServerCapabilities capabilities = new FtpServerCapabilities(SingleFileListingMode.UNSUPPORTED);
+    FtpFileSystemCollaborators collaborators = new FtpFileSystemCollaborators(capabilities, new FtpListingSettings());
+    collaborators.setLookupIndex(lookupIndex);
+    FtpFileSystem fileSystem = fileSystem(collaborators);
+
+    assertThat(fileSystem.getFileAttributes(TEMP_DIRECTORY + "/" + fileName), is(notNullValue()));
+    assertThat(fileSystem.getFileAttributes(TEMP_DIRECTORY + "/" + fileName), is(notNullValue()));
+    verify(client, times(1)).initiateListParsing();
+    assertThat(lookupIndex.getHitCount(), is(1L));
+  }
+
+  private FtpFileSystem fileSystemWithListingCache(DirectoryListingCache listingCache) {
+    FtpFileSystemCollaborators collaborators = collaborators(listingSettings(WORKING_DIRECTORY));
+    collaborators.setListingCache(listingCache);
+    return fileSystem(collaborators);
+  }
+
+  private static FTPFile[] listing(String... names) {
+    FTPFile[] files = new FTPFile[names.length];
+    for (int i = 0; i < names.length; i++) {
+      files[i] = new FTPFile();
+      files[i].setName(names[i]);
+      files[i].setType(FTPFile.FILE_TYPE);
+    }
+    return files;
+  }
+}
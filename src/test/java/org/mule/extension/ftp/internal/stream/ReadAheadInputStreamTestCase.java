@@ -0,0 +1,110 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.extension.ftp.internal.stream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.apache.commons.lang3.StringUtils.repeat;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.mule.extension.ftp.api.ftp.FtpFileAttributes;
+import org.mule.extension.ftp.internal.AbstractFtpReadTestCase;
+import org.mule.runtime.extension.api.runtime.operation.Result;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Test;
+
+public class ReadAheadInputStreamTestCase extends AbstractFtpReadTestCase {
+
+  @Test
+  public void contentIsReadAheadInTheBackground() throws Exception {
+    String content = repeat(FILE_CONTENT, 1000);
+    testHarness.write(FULL_PATH, content);
+    when(config.getReadAheadBuffers()).thenReturn(2);
+    when(config.getReadAheadBufferSize()).thenReturn(1024);
+
+    Result<InputStream, FtpFileAttributes> result = readFile(null, null);
+
+    assertThat(IOUtils.toString(result.getOutput(), UTF_8), is(content));
+    verify(scheduler).execute(any(Runnable.class));
+    assertThat(client.sendNoOp(), is(true));
+  }
+
+  @Test
+  public void contentIsReadAheadInBuffers() throws Exception {
+    String content = repeat(FILE_CONTENT, 1000);
+    InputStream stream = new ReadAheadInputStream(new ByteArrayInputStream(content.getBytes(UTF_8)), executor, 2, 1024, () -> {});
+
+    assertThat(IOUtils.toString(stream, UTF_8), is(content));
+    stream.close();
+  }
+
+  @Test(timeout = 10000)
+  public void closeStopsAReadInProgressInsteadOfWaitingForIt() throws Exception {
+    CountDownLatch reading = new CountDownLatch(1);
+    CountDownLatch delegateClosed = new CountDownLatch(1);
+    AtomicBoolean aborted = new AtomicBoolean(false);
+    InputStream delegate = new InputStream() {
+
+      @Override
+      public int read() throws IOException {
+        reading.countDown();
+        try {
+          delegateClosed.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        throw new IOException("Socket closed");
+      }
+
+      @Override
+      public void close() {
+        delegateClosed.countDown();
+      }
+    };
+    InputStream stream = new ReadAheadInputStream(delegate, executor, 2, 1024, () -> aborted.set(true));
+    assertThat(reading.await(5, SECONDS), is(true));
+    stream.close();
+
+    assertThat(delegateClosed.getCount(), is(0L));
+    assertThat(aborted.get(), is(false));
+  }
+
+  @Test(timeout = 20000)
+  public void transferIsAbortedWhenAReadInProgressDoesNotStop() throws Exception {
+    CountDownLatch reading = new CountDownLatch(1);
+    CountDownLatch aborted = new CountDownLatch(1);
+    InputStream delegate = new InputStream() {
+
+      @Override
+      public int read() throws IOException {
+        reading.countDown();
+        try {
+          aborted.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        throw new IOException("Connection aborted");
+      }
+    };
+    InputStream stream = new ReadAheadInputStream(delegate, executor, 2, 1024, aborted::countDown);
+    assertThat(reading.await(5, SECONDS), is(true));
+    stream.close();
+
+    assertThat(aborted.getCount(), is(0L));
+  }
+}
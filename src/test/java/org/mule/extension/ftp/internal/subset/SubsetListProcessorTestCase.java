@@ -0,0 +1,116 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.extension.ftp.internal.subset;
+
+import static java.util.Arrays.asList;
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mule.extension.ftp.AllureConstants.FtpFeature.FTP_EXTENSION;
+import static org.mule.extension.ftp.api.subset.ListComparator.DATE_MODIFIED;
+import static org.mule.extension.ftp.api.subset.ListComparator.SIZE;
+import static org.mule.extension.ftp.api.subset.SortOrder.DESCENDING;
+
+import org.mule.extension.ftp.api.ftp.FtpFileAttributes;
+import org.mule.runtime.extension.api.runtime.operation.Result;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Iterator;
+import java.util.List;
+
+import io.qameta.allure.Feature;
+import org.apache.commons.net.ftp.FTPFile;
+import org.junit.Test;
+
+@Feature(FTP_EXTENSION)
+public class SubsetListProcessorTestCase {
+
+  private final List<Result<String, FtpFileAttributes>> results = asList(file("a", 30), file("b", 10), file("c", 50),
+                                                                         file("d", 20), file("e", 40));
+
+  @Test
+  public void noSubset() {
+    assertThat(names(SubsetListProcessor.apply(results.iterator(), null)), is(asList("a", "b", "c", "d", "e")));
+  }
+
+  @Test
+  public void unsortedWindowStopsConsumingTheSource() {
+    FtpSubsetList subsetList = new FtpSubsetList();
+    subsetList.setOffset(1);
+    subsetList.setLimit(2);
+
+    Iterator<Result<String, FtpFileAttributes>> source = results.iterator();
+    assertThat(names(SubsetListProcessor.apply(source, subsetList)), is(asList("b", "c")));
+    assertThat(source.next().getAttributes().get().getName(), is("d"));
+  }
+
+  @Test
+  public void sortedWindow() {
+    FtpSubsetList subsetList = new FtpSubsetList();
+    subsetList.setCriteria(SIZE);
+    subsetList.setOffset(1);
+    subsetList.setLimit(2);
+
+    assertThat(names(SubsetListProcessor.apply(results.iterator(), subsetList)), is(asList("d", "a")));
+  }
+
+  @Test
+  public void sortedDescendingWithoutLimit() {
+    FtpSubsetList subsetList = new FtpSubsetList();
+    subsetList.setCriteria(SIZE);
+    subsetList.setOrder(DESCENDING);
+
+    assertThat(names(SubsetListProcessor.apply(results.iterator(), subsetList)), is(asList("c", "e", "a", "d", "b")));
+  }
+
+  @Test
+  public void filesWithoutTimestampAreLastInDescendingOrder() {
+    FtpSubsetList subsetList = new FtpSubsetList();
+    subsetList.setCriteria(DATE_MODIFIED);
+    subsetList.setOrder(DESCENDING);
+    subsetList.setLimit(2);
+
+    List<Result<String, FtpFileAttributes>> files = asList(file("a", 1, null), file("b", 1, 2000), file("c", 1, 3000));
+    assertThat(names(SubsetListProcessor.apply(files.iterator(), subsetList)), is(asList("c", "b")));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void negativeLimit() {
+    FtpSubsetList subsetList = new FtpSubsetList();
+    subsetList.setLimit(-1);
+    SubsetListProcessor.apply(results.iterator(), subsetList);
+  }
+
+  private static Result<String, FtpFileAttributes> file(String name, long size) {
+    return file(name, size, null);
+  }
+
+  private static Result<String, FtpFileAttributes> file(String name, long size, Integer year) {
+    FTPFile ftpFile = new FTPFile();
+    ftpFile.setName(name);
+    ftpFile.setSize(size);
+    if (year != null) {
+      Calendar timestamp = Calendar.getInstance();
+      timestamp.clear();
+      timestamp.set(year, 0, 1);
+      ftpFile.setTimestamp(timestamp);
+    }
+    ftpFile.setType(FTPFile.FILE_TYPE);
+    return Result.<String, FtpFileAttributes>builder()
+        .output("/" + name)
+        .attributes(new FtpFileAttributes(URI.create("/" + name), ftpFile))
+        .build();
+  }
+
+  private static List<String> names(Iterator<Result<String, FtpFileAttributes>> iterator) {
+    List<Result<String, FtpFileAttributes>> selected = new ArrayList<>();
+    iterator.forEachRemaining(selected::add);
+    return selected.stream().map(result -> result.getAttributes().get().getName()).collect(toList());
+  }
+}